@@ -0,0 +1,120 @@
+package net.caspervg.aggr.aggregation.cube;
+
+import net.caspervg.aggr.aggregation.AbstractAggregator;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.grid.AbstractGridAggregator;
+import net.caspervg.aggr.aggregation.time.AbstractTimeAggregator;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.ext.CountedGeoMeasurement;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Assigns every measurement to a cell of a spatio-temporal cube in a single pass. The spatial dimensions are
+ * rounded to a grid with sensitivity {@link #GRID_SIZE_PARAM}, like the grid aggregation does. The time dimension
+ * is divided into the slices of the most detailed level of the time aggregation, as set by the {@link #DETAIL_PARAM}.
+ *
+ * Every slice is a separate aggregation, its results are only the non-empty cells. Each cell is an output
+ * measurement that holds the number of measurements ({@link CountedGeoMeasurement#COUNT_KEY}) and the sum of
+ * their weights ({@link WeightedGeoMeasurement#WEIGHT_KEY}, one for unweighted measurements). The output class
+ * must therefore support both keys, e.g. {@link CountedGeoMeasurement}.
+ */
+public abstract class AbstractCubeAggregator extends AbstractAggregator<CubeAggregation, Measurement> implements CubeAggregator {
+    public static final String GRID_SIZE_PARAM = AbstractGridAggregator.GRID_SIZE_PARAM;
+    public static final String DETAIL_PARAM = AbstractTimeAggregator.DETAIL_PARAM;
+
+    protected static final String DEFAULT_GRID_SIZE = "0.0005";
+    protected static final String DEFAULT_NUM_DETAIL = "8";
+
+    /**
+     * Calculates the cell of the cube that a measurement belongs to
+     *
+     * @param measurement Measurement to place
+     * @param minTime Start of the first slice, in milliseconds since the epoch
+     * @param sliceStep Length of a single slice, in milliseconds
+     * @param numSlices Number of slices
+     * @param gridSize Sensitivity of the grid
+     * @return Cell of the measurement
+     */
+    @SuppressWarnings("OptionalGetWithoutIsPresent")
+    protected static CubeCell cell(Measurement measurement, long minTime, long sliceStep, int numSlices, double gridSize) {
+        long time = AbstractTimeAggregator.toEpochMilli(measurement.getTimestamp().get());
+        Double[] vector = measurement.getVector();
+
+        long[] index = new long[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            index[i] = Math.round(vector[i] / gridSize);
+        }
+
+        return new CubeCell(AbstractTimeAggregator.bucketIndex(time - minTime, sliceStep, numSlices), index);
+    }
+
+    /**
+     * Turns the cells of the cube into one aggregation result per slice. Slices without cells are returned as well,
+     * so that every run returns the same number of slices.
+     *
+     * @param dataset Dataset of the measurements
+     * @param cells Non-empty cells of the cube
+     * @param minTime Start of the first slice, in milliseconds since the epoch
+     * @param maxTime End of the last slice, in milliseconds since the epoch
+     * @param sliceStep Length of a single slice, in milliseconds
+     * @param numSlices Number of slices
+     * @param gridSize Sensitivity of the grid
+     * @param clazz Output class to use for the cells
+     * @return Results of the aggregation, ordered by slice
+     */
+    protected List<AggregationResult<CubeAggregation, Measurement>> slices(Dataset dataset,
+                                                                           Map<CubeCell, CellStats> cells,
+                                                                           long minTime,
+                                                                           long maxTime,
+                                                                           long sliceStep,
+                                                                           int numSlices,
+                                                                           double gridSize,
+                                                                           Class<? extends Measurement> clazz) {
+        List<List<Measurement>> sources = new ArrayList<>(numSlices);
+        List<List<Measurement>> results = new ArrayList<>(numSlices);
+        for (int i = 0; i < numSlices; i++) {
+            sources.add(new ArrayList<>());
+            results.add(new ArrayList<>());
+        }
+
+        for (Map.Entry<CubeCell, CellStats> entry : cells.entrySet()) {
+            long[] index = entry.getKey().getIndex();
+            CellStats stats = entry.getValue();
+
+            Double[] cellVec = new Double[index.length];
+            for (int i = 0; i < index.length; i++) {
+                cellVec[i] = (double) index[i] * gridSize;
+            }
+
+            Measurement cell = newInstance(clazz);
+            cell.setVector(cellVec);
+            cell.setParents(new HashSet<>(stats.getParents()));
+            cell.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, stats.getWeight());
+            cell.setDatum(CountedGeoMeasurement.COUNT_KEY, stats.getCount());
+
+            sources.get(entry.getKey().getSlice()).addAll(stats.getParents());
+            results.get(entry.getKey().getSlice()).add(cell);
+        }
+
+        LocalDateTime minTimestamp = AbstractTimeAggregator.fromEpochMilli(minTime);
+        List<AggregationResult<CubeAggregation, Measurement>> aggregationResults = new ArrayList<>(numSlices);
+        for (int i = 0; i < numSlices; i++) {
+            LocalDateTime start = minTimestamp.plus(sliceStep * i, ChronoUnit.MILLIS);
+            LocalDateTime end = (i == numSlices - 1) ?
+                    AbstractTimeAggregator.fromEpochMilli(maxTime) :
+                    minTimestamp.plus(sliceStep * (i + 1), ChronoUnit.MILLIS);
+
+            aggregationResults.add(new AggregationResult<>(
+                    new CubeAggregation(dataset, gridSize, start, end, sources.get(i), results.get(i)),
+                    results.get(i)
+            ));
+        }
+
+        return aggregationResults;
+    }
+}
@@ -0,0 +1,58 @@
+package net.caspervg.aggr.aggregation.cube;
+
+import net.caspervg.aggr.core.bean.Measurement;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Running totals of a single cell of the cube
+ */
+class CellStats implements Serializable {
+
+    private long count;
+    private double weight;
+    private List<Measurement> parents = new ArrayList<>();
+
+    /**
+     * Adds a measurement to the cell
+     *
+     * @param measurement Measurement to add
+     * @param measurementWeight Weight of the measurement
+     * @return This cell
+     */
+    CellStats add(Measurement measurement, double measurementWeight) {
+        count++;
+        weight += measurementWeight;
+        parents.add(measurement);
+
+        return this;
+    }
+
+    /**
+     * Adds the totals of another (partial) cell to this cell
+     *
+     * @param other Cell to merge
+     * @return This cell
+     */
+    CellStats merge(CellStats other) {
+        count += other.count;
+        weight += other.weight;
+        parents.addAll(other.parents);
+
+        return this;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    double getWeight() {
+        return weight;
+    }
+
+    List<Measurement> getParents() {
+        return parents;
+    }
+}
@@ -0,0 +1,82 @@
+package net.caspervg.aggr.aggregation.cube;
+
+import net.caspervg.aggr.aggregation.AbstractAggregation;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Aggregation for a single time slice of a spatio-temporal cube. The results are the (non-empty) grid cells
+ * of the slice.
+ */
+public class CubeAggregation extends AbstractAggregation implements Serializable {
+
+    private double gridSize;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    /**
+     * Creates a new CubeAggregation with given grid size, start- and end times. A UUID will be generated.
+     *
+     * @param dataset Dataset to use
+     * @param gridSize Grid size that was used
+     * @param start Start time of the slice
+     * @param end End time of the slice
+     * @param source Source data
+     * @param results Cells of the slice
+     */
+    public CubeAggregation(Dataset dataset, double gridSize, LocalDateTime start, LocalDateTime end,
+                           Collection<Measurement> source, Collection<Measurement> results) {
+        this(UUID.randomUUID().toString(), dataset, gridSize, start, end, source, results);
+    }
+
+    /**
+     * Creates a new CubeAggregation with given UUID, grid size, start- and end times.
+     *
+     * @param uuid UUID to use
+     * @param dataset Dataset to use
+     * @param gridSize Grid size that was used
+     * @param start Start time of the slice
+     * @param end End time of the slice
+     * @param source Source data
+     * @param results Cells of the slice
+     */
+    public CubeAggregation(String uuid, Dataset dataset, double gridSize, LocalDateTime start, LocalDateTime end,
+                           Collection<Measurement> source, Collection<Measurement> results) {
+        super(uuid, dataset, source, results);
+        this.gridSize = gridSize;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the grid size that was used for the spatial dimensions
+     *
+     * @return the grid size
+     */
+    public double getGridSize() {
+        return gridSize;
+    }
+
+    /**
+     * Retrieves the start time of this slice
+     *
+     * @return Start time
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * Retrieves the end time of this slice
+     *
+     * @return End time
+     */
+    public LocalDateTime getEnd() {
+        return end;
+    }
+}
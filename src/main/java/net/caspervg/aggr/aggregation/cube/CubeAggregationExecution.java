@@ -0,0 +1,63 @@
+package net.caspervg.aggr.aggregation.cube;
+
+import net.caspervg.aggr.aggregation.AbstractAggregationExecution;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.worker.command.AggrCommand;
+import net.caspervg.aggr.worker.command.CubeAggrCommand;
+import net.caspervg.aggr.worker.read.AbstractAggrReader;
+import net.caspervg.aggr.worker.write.AggrResultWriter;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Map;
+
+import static net.caspervg.aggr.worker.write.AbstractAggrWriter.OUTPUT_PARAM_KEY;
+
+public class CubeAggregationExecution extends AbstractAggregationExecution {
+
+    private AggrCommand ac;
+    private CubeAggrCommand cac;
+
+    public CubeAggregationExecution(AggrCommand ac, CubeAggrCommand cac) {
+        this.ac = ac;
+        this.cac = cac;
+    }
+
+    @Override
+    public void execute() throws URISyntaxException, IOException {
+        Map<String, String> params = ac.getDynamicParameters();
+        params.put(AbstractAggrReader.INPUT_PARAM_KEY, ac.getInput());
+        params.put(OUTPUT_PARAM_KEY, ac.getOutput());
+        params.put(AbstractCubeAggregator.GRID_SIZE_PARAM, String.valueOf(cac.getGridSize()));
+        params.put(AbstractCubeAggregator.DETAIL_PARAM, String.valueOf(cac.getMaxDetail()));
+
+        AggrContext ctx = createContext(params, ac);
+        CubeAggregator aggregator;
+        if (ac.isSpark()) {
+            aggregator = new SparkCubeAggregator();
+        } else {
+            aggregator = new PlainCubeAggregator();
+        }
+
+        Dataset dataset = Dataset.Builder.setup().withTitle(ac.getDatasetId()).withUuid(ac.getDatasetId()).build();
+        Iterable<Measurement> meas = getReader(ac, ctx).read(ctx);
+        Iterable<AggregationResult<CubeAggregation, Measurement>> results = aggregator.aggregate(dataset, meas, ctx);
+
+        AggrResultWriter writer = null;
+        for (AggregationResult<CubeAggregation, Measurement> res : results) {
+            writer = getWriter(res, ac, ctx);
+
+            writer.writeCubeAggregation(res, ctx);
+        }
+
+        if (writer != null) {
+            writer.writeDataset(dataset, ctx);
+        }
+
+        stop(ctx);
+
+    }
+}
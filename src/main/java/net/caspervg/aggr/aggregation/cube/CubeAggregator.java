@@ -0,0 +1,15 @@
+package net.caspervg.aggr.aggregation.cube;
+
+import net.caspervg.aggr.aggregation.Aggregator;
+import net.caspervg.aggr.core.bean.Measurement;
+
+/**
+ * Groups the measurements into the cells of a spatio-temporal cube, depending on both their vector and their
+ * timestamp.
+ *
+ * @see Aggregator
+ * @see Measurement#getVector()
+ * @see Measurement#getTimestamp()
+ */
+public interface CubeAggregator extends Aggregator<CubeAggregation, Measurement> {
+}
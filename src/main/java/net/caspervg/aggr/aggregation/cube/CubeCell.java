@@ -0,0 +1,42 @@
+package net.caspervg.aggr.aggregation.cube;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Position of a cell in the cube: the index of the time slice and the index of the grid cell along every
+ * component of the vector.
+ */
+class CubeCell implements Serializable {
+
+    private final int slice;
+    private final long[] index;
+
+    CubeCell(int slice, long[] index) {
+        this.slice = slice;
+        this.index = index;
+    }
+
+    int getSlice() {
+        return slice;
+    }
+
+    long[] getIndex() {
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CubeCell)) return false;
+
+        CubeCell that = (CubeCell) o;
+
+        return slice == that.slice && Arrays.equals(index, that.index);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * slice + Arrays.hashCode(index);
+    }
+}
@@ -0,0 +1,58 @@
+package net.caspervg.aggr.aggregation.cube;
+
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.time.AbstractTimeAggregator;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+import net.caspervg.aggr.core.util.AggrContext;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@inheritDoc}
+ *
+ * @implNote uses the Java programming model. After finding the time range, every measurement is added to its
+ * cell in a single pass.
+ */
+public class PlainCubeAggregator extends AbstractCubeAggregator {
+
+    @SuppressWarnings("OptionalGetWithoutIsPresent")
+    @Override
+    public Iterable<AggregationResult<CubeAggregation, Measurement>> aggregate(Dataset dataset,
+                                                                               Iterable<Measurement> measurements,
+                                                                               AggrContext context) {
+        List<Measurement> measurementList = Lists.newArrayList(measurements);
+
+        if (measurementList.size() < 1) {
+            return new HashSet<>();
+        }
+
+        double gridSize = Double.parseDouble(context.getParameters().getOrDefault(GRID_SIZE_PARAM, DEFAULT_GRID_SIZE));
+        int numDetail = Integer.parseInt(context.getParameters().getOrDefault(DETAIL_PARAM, DEFAULT_NUM_DETAIL));
+
+        // Find the time range
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        for (Measurement measurement : measurementList) {
+            long time = AbstractTimeAggregator.toEpochMilli(measurement.getTimestamp().get());
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+        }
+
+        int numSlices = AbstractTimeAggregator.finestDetail(numDetail);
+        long sliceStep = (maxTime - minTime) / numSlices;
+
+        Map<CubeCell, CellStats> cells = new HashMap<>();
+        for (Measurement measurement : measurementList) {
+            cells.computeIfAbsent(cell(measurement, minTime, sliceStep, numSlices, gridSize), cell -> new CellStats())
+                    .add(measurement, WeightedGeoMeasurement.weightOf(measurement));
+        }
+
+        return slices(dataset, cells, minTime, maxTime, sliceStep, numSlices, gridSize, context.getOutputClass());
+    }
+}
@@ -0,0 +1,78 @@
+package net.caspervg.aggr.aggregation.cube;
+
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.time.AbstractTimeAggregator;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+import net.caspervg.aggr.core.util.AggrContext;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.function.Function;
+import org.apache.spark.api.java.function.Function2;
+import org.apache.spark.api.java.function.PairFunction;
+import scala.Tuple2;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * {@inheritDoc}
+ *
+ * @implNote uses Spark to perform the aggregation. The time range is found with a single job, after which every
+ * measurement is keyed by its cell and the cells are combined in a single shuffle.
+ */
+public class SparkCubeAggregator extends AbstractCubeAggregator implements Serializable {
+
+    @Override
+    public Iterable<AggregationResult<CubeAggregation, Measurement>> aggregate(Dataset dataset,
+                                                                               Iterable<Measurement> measurements,
+                                                                               AggrContext context) {
+        Objects.requireNonNull(context.getSparkContext());
+
+        List<Measurement> measurementList = Lists.newArrayList(measurements);
+
+        if (measurementList.size() < 1) {
+            return new HashSet<>();
+        }
+
+        double gridSize = Double.parseDouble(context.getParameters().getOrDefault(GRID_SIZE_PARAM, DEFAULT_GRID_SIZE));
+        int numDetail = Integer.parseInt(context.getParameters().getOrDefault(DETAIL_PARAM, DEFAULT_NUM_DETAIL));
+
+        JavaRDD<Measurement> measRDD = context.getSparkContext().parallelize(measurementList).cache();
+
+        // Find the time range with a single job
+        long[] range = measRDD.aggregate(
+                new long[]{Long.MAX_VALUE, Long.MIN_VALUE},
+                (Function2<long[], Measurement, long[]>) (acc, measurement) -> {
+                    long time = AbstractTimeAggregator.toEpochMilli(measurement.getTimestamp().get());
+                    acc[0] = Math.min(acc[0], time);
+                    acc[1] = Math.max(acc[1], time);
+                    return acc;
+                },
+                (Function2<long[], long[], long[]>) (acc1, acc2) -> {
+                    acc1[0] = Math.min(acc1[0], acc2[0]);
+                    acc1[1] = Math.max(acc1[1], acc2[1]);
+                    return acc1;
+                }
+        );
+        long minTime = range[0];
+        int numSlices = AbstractTimeAggregator.finestDetail(numDetail);
+        long sliceStep = (range[1] - range[0]) / numSlices;
+
+        // Key each measurement by its cell and combine the totals of each cell
+        Map<CubeCell, CellStats> cells = measRDD
+                .mapToPair((PairFunction<Measurement, CubeCell, Measurement>) measurement ->
+                        new Tuple2<>(cell(measurement, minTime, sliceStep, numSlices, gridSize), measurement)
+                )
+                .combineByKey(
+                        (Function<Measurement, CellStats>) measurement -> new CellStats().add(measurement, WeightedGeoMeasurement.weightOf(measurement)),
+                        (Function2<CellStats, Measurement, CellStats>) (stats, measurement) -> stats.add(measurement, WeightedGeoMeasurement.weightOf(measurement)),
+                        (Function2<CellStats, CellStats, CellStats>) CellStats::merge
+                )
+                .collectAsMap();
+        measRDD.unpersist();
+
+        return slices(dataset, cells, minTime, range[1], sliceStep, numSlices, gridSize, context.getOutputClass());
+    }
+}
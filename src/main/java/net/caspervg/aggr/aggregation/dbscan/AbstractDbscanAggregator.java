@@ -0,0 +1,141 @@
+package net.caspervg.aggr.aggregation.dbscan;
+
+import net.caspervg.aggr.aggregation.AbstractAggregator;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.bean.UniquelyIdentifiable;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+
+import java.util.*;
+
+/**
+ * Finds clusters of densely packed measurements with DBSCAN, so the number of clusters does not need to be known in
+ * advance and clusters can take any shape, e.g. the linear hotspots along a road. A measurement is a core point if at
+ * least {@link #MIN_POINTS_PARAM} measurements (itself included) lie within the {@link #RADIUS_PARAM} of it, using
+ * the distance metric of the {@link #METRIC_PARAM}. Core points within the radius of each other belong to the same
+ * cluster, together with the measurements within the radius of its core points. All other measurements are noise.
+ *
+ * The results have the same shape as those of the k-means aggregation: every cluster is an output measurement at the
+ * mean of its measurements, with those measurements as parents and their number as its weight
+ * ({@link WeightedGeoMeasurement#WEIGHT_KEY}). Noise measurements are only counted.
+ *
+ * The neighbourhoods are found with a grid as large as the radius, which only finds all neighbours if no component of
+ * two vectors differs more than their distance. Only the {@link #SUPPORTED_METRICS} are therefore allowed.
+ */
+public abstract class AbstractDbscanAggregator extends AbstractAggregator<DbscanAggregation, Measurement> implements DbscanAggregator {
+    public static final String RADIUS_PARAM = "radius";
+    public static final String MIN_POINTS_PARAM = "min_points";
+    public static final String METRIC_PARAM = "metric";
+
+    /**
+     * Metrics that never give a smaller distance than the difference of any component of the vectors
+     */
+    public static final Set<DistanceMetricChoice> SUPPORTED_METRICS = Collections.unmodifiableSet(EnumSet.of(
+            DistanceMetricChoice.EUCLIDEAN,
+            DistanceMetricChoice.MANHATTAN,
+            DistanceMetricChoice.CHEBYSHEV
+    ));
+
+    protected static final String DEFAULT_RADIUS = "0.001";
+    protected static final String DEFAULT_MIN_POINTS = "5";
+    protected static final String DEFAULT_DISTANCE_METRIC = "EUCLIDEAN";
+
+    /**
+     * Reads the parameters of the clustering from the context
+     *
+     * @param context Context of the operation
+     * @return Clustering with the given radius, minimum number of points and metric
+     * @throws IllegalArgumentException if the metric is not supported, or the other parameters are out of range
+     */
+    protected static GridDbscan dbscan(AggrContext context) {
+        DistanceMetricChoice metricChoice = DistanceMetricChoice.valueOf(
+                context.getParameters().getOrDefault(METRIC_PARAM, DEFAULT_DISTANCE_METRIC)
+        );
+        if (!SUPPORTED_METRICS.contains(metricChoice)) {
+            throw new IllegalArgumentException("The " + metricChoice + " metric cannot be used with a grid index");
+        }
+
+        return new GridDbscan(metricChoice, radius(context), minPoints(context));
+    }
+
+    protected static double radius(AggrContext context) {
+        return Double.parseDouble(context.getParameters().getOrDefault(RADIUS_PARAM, DEFAULT_RADIUS));
+    }
+
+    protected static int minPoints(AggrContext context) {
+        return Integer.parseInt(context.getParameters().getOrDefault(MIN_POINTS_PARAM, DEFAULT_MIN_POINTS));
+    }
+
+    /**
+     * Turns the clusters of the measurements into the result of the aggregation
+     *
+     * @param dataset Dataset of the measurements
+     * @param measurements Measurements that were clustered
+     * @param labels Cluster of every measurement, numbered from zero, or {@link GridDbscan#NOISE}
+     * @param context Context of the operation
+     * @return Single result with the centroid of every cluster, in the order of the clusters
+     */
+    protected List<AggregationResult<DbscanAggregation, Measurement>> result(Dataset dataset,
+                                                                             List<Measurement> measurements,
+                                                                             int[] labels,
+                                                                             AggrContext context) {
+        int dimension = measurements.isEmpty() ? 0 : measurements.get(0).getVector().length;
+        int numClusters = 0;
+        for (int label : labels) {
+            numClusters = Math.max(numClusters, label + 1);
+        }
+
+        double[] sums = new double[numClusters * dimension];
+        int[] sizes = new int[numClusters];
+        List<Set<UniquelyIdentifiable>> parents = new ArrayList<>(numClusters);
+        for (int c = 0; c < numClusters; c++) {
+            parents.add(new HashSet<>());
+        }
+
+        long noise = 0;
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == GridDbscan.NOISE) {
+                noise++;
+                continue;
+            }
+
+            Double[] vector = measurements.get(i).getVector();
+            for (int d = 0; d < dimension; d++) {
+                sums[labels[i] * dimension + d] += vector[d];
+            }
+            sizes[labels[i]]++;
+            parents.get(labels[i]).add(measurements.get(i));
+        }
+
+        List<Measurement> centroids = new ArrayList<>(numClusters);
+        for (int c = 0; c < numClusters; c++) {
+            Double[] vector = new Double[dimension];
+            for (int d = 0; d < dimension; d++) {
+                vector[d] = sums[c * dimension + d] / sizes[c];
+            }
+
+            Measurement centroid = context.newOutputMeasurement();
+            centroid.setVector(vector);
+            centroid.setParents(parents.get(c));
+            centroid.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, (double) sizes[c]);
+
+            centroids.add(centroid);
+        }
+
+        DbscanAggregation aggr = new DbscanAggregation(
+                dataset,
+                radius(context),
+                minPoints(context),
+                numClusters,
+                noise,
+                measurements,
+                centroids
+        );
+        aggr.setComponents(centroids);
+
+        return Collections.singletonList(new AggregationResult<>(aggr, centroids));
+    }
+}
@@ -0,0 +1,93 @@
+package net.caspervg.aggr.aggregation.dbscan;
+
+import net.caspervg.aggr.aggregation.AbstractAggregation;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Aggregation that finds density-based clusters in the data. The results are the centroids of the clusters.
+ */
+public class DbscanAggregation extends AbstractAggregation implements Serializable {
+
+    private double radius;
+    private int minPoints;
+    private int numClusters;
+    private long noise;
+
+    /**
+     * Creates a new DbscanAggregation with given radius and minimum number of points. A UUID will be generated.
+     *
+     * @param dataset Dataset that was used
+     * @param radius Maximum distance between neighbours
+     * @param minPoints Minimum number of neighbours of a core point
+     * @param numClusters Number of clusters that were found
+     * @param noise Number of measurements that do not belong to any cluster
+     * @param source Source data
+     * @param results Centroids of the clusters
+     */
+    public DbscanAggregation(Dataset dataset, double radius, int minPoints, int numClusters, long noise,
+                             Collection<Measurement> source, Collection<Measurement> results) {
+        this(UUID.randomUUID().toString(), dataset, radius, minPoints, numClusters, noise, source, results);
+    }
+
+    /**
+     * Creates a new DbscanAggregation with given UUID, radius and minimum number of points.
+     *
+     * @param uuid UUID to use
+     * @param dataset Dataset that was used
+     * @param radius Maximum distance between neighbours
+     * @param minPoints Minimum number of neighbours of a core point
+     * @param numClusters Number of clusters that were found
+     * @param noise Number of measurements that do not belong to any cluster
+     * @param source Source data
+     * @param results Centroids of the clusters
+     */
+    public DbscanAggregation(String uuid, Dataset dataset, double radius, int minPoints, int numClusters, long noise,
+                             Collection<Measurement> source, Collection<Measurement> results) {
+        super(uuid, dataset, source, results);
+        this.radius = radius;
+        this.minPoints = minPoints;
+        this.numClusters = numClusters;
+        this.noise = noise;
+    }
+
+    /**
+     * Retrieves the maximum distance between neighbours that was used
+     *
+     * @return Radius of the neighbourhoods
+     */
+    public double getRadius() {
+        return radius;
+    }
+
+    /**
+     * Retrieves the minimum number of neighbours of a core point, the point itself included
+     *
+     * @return Minimum number of points
+     */
+    public int getMinPoints() {
+        return minPoints;
+    }
+
+    /**
+     * Retrieves the number of clusters that were found
+     *
+     * @return Number of clusters
+     */
+    public int getNumClusters() {
+        return numClusters;
+    }
+
+    /**
+     * Retrieves the number of measurements that do not belong to any cluster
+     *
+     * @return Number of noise measurements
+     */
+    public long getNoise() {
+        return noise;
+    }
+}
@@ -0,0 +1,64 @@
+package net.caspervg.aggr.aggregation.dbscan;
+
+import net.caspervg.aggr.aggregation.AbstractAggregationExecution;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.worker.command.AggrCommand;
+import net.caspervg.aggr.worker.command.DbscanAggrCommand;
+import net.caspervg.aggr.worker.read.AbstractAggrReader;
+import net.caspervg.aggr.worker.write.AggrResultWriter;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.util.Map;
+
+import static net.caspervg.aggr.worker.write.AbstractAggrWriter.OUTPUT_PARAM_KEY;
+
+public class DbscanAggregationExecution extends AbstractAggregationExecution {
+
+    private AggrCommand ac;
+    private DbscanAggrCommand dac;
+
+    public DbscanAggregationExecution(AggrCommand ac, DbscanAggrCommand dac) {
+        this.ac = ac;
+        this.dac = dac;
+    }
+
+    @Override
+    public void execute() throws URISyntaxException, IOException {
+        Map<String, String> params = ac.getDynamicParameters();
+        params.put(AbstractAggrReader.INPUT_PARAM_KEY, ac.getInput());
+        params.put(OUTPUT_PARAM_KEY, ac.getOutput());
+        params.put(AbstractDbscanAggregator.RADIUS_PARAM, String.valueOf(dac.getRadius()));
+        params.put(AbstractDbscanAggregator.MIN_POINTS_PARAM, String.valueOf(dac.getMinPoints()));
+        params.put(AbstractDbscanAggregator.METRIC_PARAM, dac.getDistanceMetricChoice().name());
+
+        AggrContext ctx = createContext(params, ac);
+        DbscanAggregator aggregator;
+        if (ac.isSpark()) {
+            aggregator = new SparkDbscanAggregator();
+        } else {
+            aggregator = new PlainDbscanAggregator();
+        }
+
+        Dataset dataset = Dataset.Builder.setup().withTitle(ac.getDatasetId()).withUuid(ac.getDatasetId()).build();
+        Iterable<Measurement> meas = getReader(ac, ctx).read(ctx);
+        Iterable<AggregationResult<DbscanAggregation, Measurement>> results = aggregator.aggregate(dataset, meas, ctx);
+
+        AggrResultWriter writer = null;
+        for (AggregationResult<DbscanAggregation, Measurement> res : results) {
+            writer = getWriter(res, ac, ctx);
+
+            writer.writeDbscanAggregation(res, ctx);
+        }
+
+        if (writer != null) {
+            writer.writeDataset(dataset, ctx);
+        }
+
+        stop(ctx);
+
+    }
+}
@@ -0,0 +1,14 @@
+package net.caspervg.aggr.aggregation.dbscan;
+
+import net.caspervg.aggr.aggregation.Aggregator;
+import net.caspervg.aggr.core.bean.Measurement;
+
+/**
+ * Groups the measurements into clusters of densely packed vectors, without a fixed number of clusters.
+ * Measurements in sparse regions do not belong to any cluster.
+ *
+ * @see Aggregator
+ * @see Measurement#getVector()
+ */
+public interface DbscanAggregator extends Aggregator<DbscanAggregation, Measurement> {
+}
@@ -0,0 +1,35 @@
+package net.caspervg.aggr.aggregation.dbscan;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Position of a cell in a uniform grid: the index of the cell along every component of the vector.
+ */
+class GridCell implements Serializable {
+
+    private final long[] index;
+
+    GridCell(long[] index) {
+        this.index = index;
+    }
+
+    long[] getIndex() {
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GridCell)) return false;
+
+        GridCell that = (GridCell) o;
+
+        return Arrays.equals(index, that.index);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(index);
+    }
+}
@@ -0,0 +1,238 @@
+package net.caspervg.aggr.aggregation.dbscan;
+
+import net.caspervg.aggr.core.distance.DistanceMetric;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Runs DBSCAN on points that are stored in a flat array. The neighbourhood queries use a uniform grid index with
+ * cells as large as the radius (the eps of DBSCAN): every neighbour of a point lies in the cell of the point or in one
+ * of the cells right next to it, as long as no component of two vectors differs more than their distance. Every query
+ * therefore only looks at the points of {@code 3^dimension} cells, so the work is close to linear in the number of
+ * points for data of bounded density, instead of quadratic.
+ *
+ * Every neighbourhood is queried at most once. A point is a core point if at least {@code minPoints} points (itself
+ * included) lie within radius of it. Clusters are the points that are density-reachable from a core point; points that
+ * are not reachable from any core point are noise.
+ */
+public class GridDbscan implements Serializable {
+
+    /**
+     * Label of the points that do not belong to any cluster
+     */
+    public static final int NOISE = -1;
+    private static final int UNVISITED = -2;
+
+    private final DistanceMetricChoice metricChoice;
+    private final double radius;
+    private final int minPoints;
+
+    /**
+     * Creates a new GridDbscan
+     *
+     * @param metricChoice Distance metric to use, no component of two vectors may differ more than their distance
+     * @param radius Maximum distance between neighbours
+     * @param minPoints Minimum number of points within radius of a core point, the point itself included
+     * @throws IllegalArgumentException if radius is not positive or the minimum number of points is less than one
+     */
+    public GridDbscan(DistanceMetricChoice metricChoice, double radius, int minPoints) {
+        if (radius <= 0) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+        if (minPoints < 1) {
+            throw new IllegalArgumentException("Minimum number of points must be at least one");
+        }
+
+        this.metricChoice = metricChoice;
+        this.radius = radius;
+        this.minPoints = minPoints;
+    }
+
+    /**
+     * Clusters the points
+     *
+     * @param coords Components of all vectors, one vector after the other
+     * @param dimension Number of components of each vector
+     * @param core Array with one element per point, which is set to {@code true} for every core point
+     * @return Cluster of every point, numbered from zero in the order they were found, or {@link #NOISE}
+     */
+    public int[] cluster(double[] coords, int dimension, boolean[] core) {
+        GridIndex index = new GridIndex(coords, dimension);
+        int n = coords.length / dimension;
+
+        int[] labels = new int[n];
+        Arrays.fill(labels, UNVISITED);
+        int[] queue = new int[16];
+
+        int numClusters = 0;
+        for (int p = 0; p < n; p++) {
+            if (labels[p] != UNVISITED) {
+                continue;
+            }
+
+            int[] neighbours = index.neighbours(p);
+            if (neighbours.length < minPoints) {
+                labels[p] = NOISE;
+                continue;
+            }
+
+            // Expand a new cluster from this core point
+            int cluster = numClusters++;
+            labels[p] = cluster;
+            core[p] = true;
+
+            int head = 0;
+            int tail = 0;
+            for (int neighbour : neighbours) {
+                if (tail == queue.length) {
+                    queue = Arrays.copyOf(queue, 2 * queue.length);
+                }
+                queue[tail++] = neighbour;
+            }
+
+            while (head < tail) {
+                int q = queue[head++];
+                if (labels[q] == NOISE) {
+                    // Noise that is reachable from a core point becomes a border point
+                    labels[q] = cluster;
+                }
+                if (labels[q] != UNVISITED) {
+                    continue;
+                }
+
+                labels[q] = cluster;
+                int[] qNeighbours = index.neighbours(q);
+                if (qNeighbours.length >= minPoints) {
+                    core[q] = true;
+                    if (tail + qNeighbours.length > queue.length) {
+                        queue = Arrays.copyOf(queue, Math.max(2 * queue.length, tail + qNeighbours.length));
+                    }
+                    for (int neighbour : qNeighbours) {
+                        if (labels[neighbour] == UNVISITED || labels[neighbour] == NOISE) {
+                            queue[tail++] = neighbour;
+                        }
+                    }
+                }
+            }
+        }
+
+        return labels;
+    }
+
+    /**
+     * Calculates the cell of the grid with cells of the given size that a vector lies in
+     *
+     * @param coords Components of the vectors
+     * @param offset Index of the first component of the vector
+     * @param dimension Number of components of each vector
+     * @param cellSize Size of the cells
+     * @return Index of the cell along every component
+     */
+    static long[] cell(double[] coords, int offset, int dimension, double cellSize) {
+        long[] cell = new long[dimension];
+        for (int d = 0; d < dimension; d++) {
+            cell[d] = (long) Math.floor(coords[offset + d] / cellSize);
+        }
+
+        return cell;
+    }
+
+    /**
+     * Points grouped by the cell of size radius that they lie in. The points of every cell are stored consecutively,
+     * and the neighbouring cells of every cell are looked up once.
+     */
+    private class GridIndex {
+
+        private final double[] coords;
+        private final int dimension;
+        private final DistanceMetric<Double> metric = metricChoice.getMetric();
+
+        private final int[] cellOf;
+        private final int[] offsets;
+        private final int[] members;
+        private final int[][] adjacent;
+        private int[] buffer = new int[16];
+
+        GridIndex(double[] coords, int dimension) {
+            this.coords = coords;
+            this.dimension = dimension;
+            int n = coords.length / dimension;
+
+            Map<GridCell, Integer> cellIds = new HashMap<>();
+            List<long[]> cells = new ArrayList<>();
+            this.cellOf = new int[n];
+            for (int i = 0; i < n; i++) {
+                long[] cell = cell(coords, i * dimension, dimension, radius);
+                Integer id = cellIds.get(new GridCell(cell));
+                if (id == null) {
+                    id = cells.size();
+                    cellIds.put(new GridCell(cell), id);
+                    cells.add(cell);
+                }
+                cellOf[i] = id;
+            }
+
+            // Place the points cell after cell (counting sort)
+            int numCells = cells.size();
+            this.offsets = new int[numCells + 1];
+            for (int i = 0; i < n; i++) {
+                offsets[cellOf[i] + 1]++;
+            }
+            for (int c = 0; c < numCells; c++) {
+                offsets[c + 1] += offsets[c];
+            }
+            this.members = new int[n];
+            int[] positions = Arrays.copyOf(offsets, numCells);
+            for (int i = 0; i < n; i++) {
+                members[positions[cellOf[i]]++] = i;
+            }
+
+            // Look up the non-empty cells around every cell, including the cell itself
+            this.adjacent = new int[numCells][];
+            int[] around = new int[(int) Math.pow(3, dimension)];
+            for (int c = 0; c < numCells; c++) {
+                int count = 0;
+                long[] neighbour = new long[dimension];
+                for (int step = 0; step < around.length; step++) {
+                    int rest = step;
+                    for (int d = 0; d < dimension; d++) {
+                        neighbour[d] = cells.get(c)[d] + rest % 3 - 1;
+                        rest /= 3;
+                    }
+
+                    Integer id = cellIds.get(new GridCell(neighbour));
+                    if (id != null) {
+                        around[count++] = id;
+                    }
+                }
+                adjacent[c] = Arrays.copyOf(around, count);
+            }
+        }
+
+        /**
+         * Finds all points within radius of a point, the point itself included
+         *
+         * @param point Index of the point
+         * @return Indices of the neighbours
+         */
+        int[] neighbours(int point) {
+            int offset = point * dimension;
+            int count = 0;
+            for (int cell : adjacent[cellOf[point]]) {
+                for (int m = offsets[cell]; m < offsets[cell + 1]; m++) {
+                    int candidate = members[m];
+                    if (metric.distance(coords, offset, coords, candidate * dimension, dimension) <= radius) {
+                        if (count == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+                        }
+                        buffer[count++] = candidate;
+                    }
+                }
+            }
+
+            return Arrays.copyOf(buffer, count);
+        }
+    }
+}
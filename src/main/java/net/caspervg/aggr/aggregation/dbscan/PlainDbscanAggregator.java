@@ -0,0 +1,36 @@
+package net.caspervg.aggr.aggregation.dbscan;
+
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * {@inheritDoc}
+ *
+ * @implNote uses the Java programming model. All measurements are clustered at once with a single grid index.
+ */
+public class PlainDbscanAggregator extends AbstractDbscanAggregator {
+
+    @Override
+    public Iterable<AggregationResult<DbscanAggregation, Measurement>> aggregate(Dataset dataset,
+                                                                                 Iterable<Measurement> measurements,
+                                                                                 AggrContext context) {
+        GridDbscan dbscan = dbscan(context);
+        List<Measurement> measurementList = Lists.newArrayList(measurements);
+
+        if (measurementList.size() < 1) {
+            return new HashSet<>();
+        }
+
+        Points points = Points.of(measurementList);
+        int[] labels = dbscan.cluster(points.getCoords(), points.dimension(), new boolean[points.size()]);
+
+        return result(dataset, measurementList, labels, context);
+    }
+}
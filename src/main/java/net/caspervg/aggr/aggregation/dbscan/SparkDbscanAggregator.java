@@ -0,0 +1,216 @@
+package net.caspervg.aggr.aggregation.dbscan;
+
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+import org.apache.spark.api.java.function.FlatMapFunction;
+import org.apache.spark.api.java.function.PairFlatMapFunction;
+import scala.Tuple2;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * {@inheritDoc}
+ *
+ * @implNote uses Spark to perform the aggregation. The space is divided into square tiles of {@link #TILE_CELLS}
+ * times the radius. Every measurement is sent to its own tile, and to the halo of every tile whose border lies within
+ * the radius, so each tile holds all neighbours of its own measurements. The tiles are clustered separately after a
+ * single shuffle. Measurements have their full neighbourhood in their own tile only, so only that tile decides
+ * whether they are a core point. The clusters of the tiles are joined on the driver: a core point connects its
+ * cluster in its own tile to every cluster that it belongs to in a halo, and a measurement that is noise in its own
+ * tile joins a cluster that it borders in a halo.
+ */
+public class SparkDbscanAggregator extends AbstractDbscanAggregator implements Serializable {
+
+    /**
+     * Size of a tile along every component, in number of radii
+     */
+    public static final int TILE_CELLS = 100;
+
+    @Override
+    public Iterable<AggregationResult<DbscanAggregation, Measurement>> aggregate(Dataset dataset,
+                                                                                 Iterable<Measurement> measurements,
+                                                                                 AggrContext context) {
+        Objects.requireNonNull(context.getSparkContext());
+
+        GridDbscan dbscan = dbscan(context);
+        double radius = radius(context);
+        double tileSize = radius * TILE_CELLS;
+        List<Measurement> measurementList = Lists.newArrayList(measurements);
+
+        if (measurementList.size() < 1) {
+            return new HashSet<>();
+        }
+
+        // Only the vectors are sent to the cluster, the measurements are looked up by their index afterwards
+        Points points = Points.of(measurementList);
+        int dimension = points.dimension();
+        List<Tuple2<Integer, double[]>> indexedVectors = new ArrayList<>(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            indexedVectors.add(new Tuple2<>(i, Arrays.copyOfRange(points.getCoords(), points.offset(i), points.offset(i + 1))));
+        }
+
+        List<TileLabel> tileLabels = context.getSparkContext()
+                .parallelize(indexedVectors)
+                .flatMapToPair((PairFlatMapFunction<Tuple2<Integer, double[]>, GridCell, Tuple2<Integer, double[]>>) point ->
+                        tiles(point._2(), radius, tileSize).stream()
+                                .map(tile -> new Tuple2<>(tile, point))
+                                .collect(Collectors.toList())
+                )
+                .groupByKey()
+                .flatMap((FlatMapFunction<Tuple2<GridCell, Iterable<Tuple2<Integer, double[]>>>, TileLabel>) tile -> {
+                    List<Tuple2<Integer, double[]>> tilePoints = Lists.newArrayList(tile._2());
+                    double[] coords = new double[tilePoints.size() * dimension];
+                    for (int i = 0; i < tilePoints.size(); i++) {
+                        System.arraycopy(tilePoints.get(i)._2(), 0, coords, i * dimension, dimension);
+                    }
+
+                    boolean[] core = new boolean[tilePoints.size()];
+                    int[] labels = dbscan.cluster(coords, dimension, core);
+
+                    List<TileLabel> records = new ArrayList<>();
+                    for (int i = 0; i < tilePoints.size(); i++) {
+                        GridCell home = new GridCell(GridDbscan.cell(coords, i * dimension, dimension, tileSize));
+                        boolean isHome = home.equals(tile._1());
+                        if (isHome || labels[i] != GridDbscan.NOISE) {
+                            records.add(new TileLabel(tilePoints.get(i)._1(), tile._1(), labels[i], isHome, isHome && core[i]));
+                        }
+                    }
+                    return records;
+                })
+                .collect();
+
+        return result(dataset, measurementList, join(tileLabels, measurementList.size()), context);
+    }
+
+    /**
+     * Finds the tiles that a vector is sent to: its own tile, and every tile that it lies within the radius of
+     *
+     * @param vector Vector to place
+     * @param radius Maximum distance between neighbours
+     * @param tileSize Size of the tiles
+     * @return Own tile of the vector first, followed by the tiles that have it in their halo
+     */
+    private static List<GridCell> tiles(double[] vector, double radius, double tileSize) {
+        long[] home = GridDbscan.cell(vector, 0, vector.length, tileSize);
+
+        List<GridCell> tiles = new ArrayList<>();
+        tiles.add(new GridCell(home));
+        for (int d = 0; d < vector.length; d++) {
+            double start = home[d] * tileSize;
+            long step = 0;
+            if (vector[d] - start <= radius) {
+                step = -1;
+            } else if (start + tileSize - vector[d] <= radius) {
+                step = 1;
+            }
+            if (step == 0) {
+                continue;
+            }
+
+            // Every tile so far also gets a neighbour along this component
+            int size = tiles.size();
+            for (int t = 0; t < size; t++) {
+                long[] index = tiles.get(t).getIndex().clone();
+                index[d] += step;
+                tiles.add(new GridCell(index));
+            }
+        }
+
+        return tiles;
+    }
+
+    /**
+     * Joins the clusters of the tiles into global clusters
+     *
+     * @param tileLabels Labels of the measurements in their own tile, and their clusters in the halos of other tiles
+     * @param numMeasurements Number of measurements
+     * @return Clusters of every measurement, numbered from zero, or {@link GridDbscan#NOISE}
+     */
+    private static int[] join(List<TileLabel> tileLabels, int numMeasurements) {
+        Map<Tuple2<GridCell, Integer>, Integer> nodes = new HashMap<>();
+        for (TileLabel tileLabel : tileLabels) {
+            if (tileLabel.cluster != GridDbscan.NOISE) {
+                nodes.putIfAbsent(new Tuple2<>(tileLabel.tile, tileLabel.cluster), nodes.size());
+            }
+        }
+        int[] parents = new int[nodes.size()];
+        for (int n = 0; n < parents.length; n++) {
+            parents[n] = n;
+        }
+
+        int[] homeNodes = new int[numMeasurements];
+        boolean[] core = new boolean[numMeasurements];
+        Arrays.fill(homeNodes, GridDbscan.NOISE);
+        for (TileLabel tileLabel : tileLabels) {
+            if (tileLabel.home && tileLabel.cluster != GridDbscan.NOISE) {
+                homeNodes[tileLabel.index] = nodes.get(new Tuple2<>(tileLabel.tile, tileLabel.cluster));
+                core[tileLabel.index] = tileLabel.core;
+            }
+        }
+
+        int[] haloNodes = new int[numMeasurements];
+        Arrays.fill(haloNodes, GridDbscan.NOISE);
+        for (TileLabel tileLabel : tileLabels) {
+            if (tileLabel.home || tileLabel.cluster == GridDbscan.NOISE) {
+                continue;
+            }
+
+            int node = nodes.get(new Tuple2<>(tileLabel.tile, tileLabel.cluster));
+            if (core[tileLabel.index]) {
+                // The same core point lies in both clusters, so they are one cluster
+                parents[find(parents, node)] = find(parents, homeNodes[tileLabel.index]);
+            } else if (homeNodes[tileLabel.index] == GridDbscan.NOISE) {
+                // A border point of a cluster in another tile
+                haloNodes[tileLabel.index] = node;
+            }
+        }
+
+        // Number the joined clusters in the order of their first measurement
+        Map<Integer, Integer> clusters = new HashMap<>();
+        int[] labels = new int[numMeasurements];
+        for (int i = 0; i < numMeasurements; i++) {
+            int node = homeNodes[i] != GridDbscan.NOISE ? homeNodes[i] : haloNodes[i];
+            if (node == GridDbscan.NOISE) {
+                labels[i] = GridDbscan.NOISE;
+            } else {
+                labels[i] = clusters.computeIfAbsent(find(parents, node), root -> clusters.size());
+            }
+        }
+
+        return labels;
+    }
+
+    private static int find(int[] parents, int node) {
+        while (parents[node] != node) {
+            parents[node] = parents[parents[node]];
+            node = parents[node];
+        }
+
+        return node;
+    }
+
+    /**
+     * Cluster of a measurement in a single tile
+     */
+    private static class TileLabel implements Serializable {
+        private final int index;
+        private final GridCell tile;
+        private final int cluster;
+        private final boolean home;
+        private final boolean core;
+
+        private TileLabel(int index, GridCell tile, int cluster, boolean home, boolean core) {
+            this.index = index;
+            this.tile = tile;
+            this.cluster = cluster;
+            this.home = home;
+            this.core = core;
+        }
+    }
+}
@@ -11,4 +11,15 @@ public abstract class AbstractGridAggregator extends AbstractAggregator<GridAggr
     public static final String GRID_SIZE_PARAM = "grid_size";
 
     protected static final String DEFAULT_GRID_SIZE = "0.0005";
+
+    /**
+     * Rounds a component of a vector to the grid
+     *
+     * @param value Component to round
+     * @param gridSize Sensitivity of the grid
+     * @return Closest multiple of the grid size
+     */
+    public static double round(double value, double gridSize) {
+        return (double) Math.round(value / gridSize) * gridSize;
+    }
 }
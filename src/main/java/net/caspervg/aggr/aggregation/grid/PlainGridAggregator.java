@@ -35,7 +35,7 @@ public class PlainGridAggregator extends AbstractGridAggregator {
             Double[] roundedVec = new Double[parentVec.length];
 
             for (int i = 0; i < parentVec.length; i++) {
-                roundedVec[i] = (double) Math.round(parentVec[i] / gridSize) * gridSize;
+                roundedVec[i] = round(parentVec[i], gridSize);
             }
 
             Measurement child = context.newOutputMeasurement();
@@ -43,7 +43,7 @@ public class SparkGridAggregator extends AbstractGridAggregator implements Seria
             Double[] roundedVec = new Double[parentVec.length];
 
             for (int i = 0; i < parentVec.length; i++) {
-                roundedVec[i] = (double) Math.round(parentVec[i] / gridSize) * gridSize;
+                roundedVec[i] = round(parentVec[i], gridSize);
             }
 
             Measurement child = newInstance(clazz);
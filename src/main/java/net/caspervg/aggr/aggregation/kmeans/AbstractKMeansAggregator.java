@@ -1,20 +1,191 @@
 package net.caspervg.aggr.aggregation.kmeans;
 
+import com.google.common.collect.Lists;
 import net.caspervg.aggr.aggregation.AbstractAggregator;
-import net.caspervg.aggr.aggregation.time.AbstractTimeAggregator;
+import net.caspervg.aggr.aggregation.kmeans.clusters.ClusterSelectionChoice;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.aggregation.kmeans.iteration.ConvergenceIteration;
+import net.caspervg.aggr.aggregation.kmeans.iteration.IterationStrategy;
+import net.caspervg.aggr.aggregation.kmeans.iteration.MaxIteration;
 import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.distance.DistanceMetric;
+import net.caspervg.aggr.core.util.AggrContext;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Performs a k-Means algorithm to assign the measurements to a centroid. The number of centroids to be created
  * is defined by the {@link #CENTROIDS_PARAM}, while the maximum number of iterations to use is defined in
  * {@link #ITERATIONS_PARAM}. One can also set the distance metric to use, using the {@link #METRIC_PARAM}.
+ * When centroids of a previous aggregation are set in {@link #AbstractKMeansAggregator(Iterable)}, they are used as
+ * the initial centroids instead, and their number replaces the number of centroids.
  */
 public abstract class AbstractKMeansAggregator extends AbstractAggregator<KMeansAggregation, Measurement> implements KMeansAggregator {
     public static final String METRIC_PARAM = "metric";
     public static final String CENTROIDS_PARAM = "num_centroids";
     public static final String ITERATIONS_PARAM = "max_iterations";
 
+    /**
+     * Algorithm that performs the iterations, see {@link net.caspervg.aggr.aggregation.kmeans.engine.KMeansEngineChoice}
+     */
+    public static final String ALGORITHM_PARAM = "algorithm";
+
+    /**
+     * Number of measurements that the mini-batch algorithm samples in every iteration
+     */
+    public static final String BATCH_SIZE_PARAM = "batch_size";
+
+    /**
+     * Strategy to choose the initial centroids with, see {@link net.caspervg.aggr.aggregation.kmeans.seed.SeedingChoice}
+     */
+    public static final String SEEDING_PARAM = "seeding";
+
+    /**
+     * Iterations stop early once no centroid moves more than this distance; a negative value always performs the
+     * maximum number of iterations
+     */
+    public static final String EPSILON_PARAM = "epsilon";
+
+    /**
+     * Aggregators may skip collecting the parents of the centroids when this is false
+     */
+    public static final String PROVENANCE_PARAM = "provenance";
+
+    /**
+     * Score to select the number of centroids with automatically, see {@link ClusterSelectionChoice}
+     */
+    public static final String CLUSTER_SELECTION_PARAM = "cluster_selection";
+
+    /**
+     * Identifier or data path of the previous aggregation whose centroids are passed as the initial centroids
+     */
+    public static final String WARM_START_PARAM = "warm_start";
+
+    /**
+     * If positive, the measurements are first reduced to the weighted cells of a grid with this sensitivity
+     */
+    public static final String CORESET_GRID_SIZE_PARAM = "coreset_grid_size";
+
+    /**
+     * Whether to cluster the measurements online, see {@link StreamingKMeansAggregator}
+     */
+    public static final String STREAMING_PARAM = "streaming";
+
+    /**
+     * Factor that the weights of the centroids of an online clustering decay with, for every measurement
+     */
+    public static final String DECAY_PARAM = "decay";
+
+    /**
+     * Number of measurements after which an online clustering takes a snapshot of its centroids
+     */
+    public static final String CHECKPOINT_PARAM = "checkpoint";
+
+    /**
+     * Comma-separated numbers of centroids of the levels of a hierarchy, see {@link BisectingKMeansAggregator}
+     */
+    public static final String HIERARCHY_PARAM = "hierarchy";
+
     protected static final String DEFAULT_DISTANCE_METRIC = "EUCLIDEAN";
     protected static final String DEFAULT_MAX_ITERATIONS = "50";
     protected static final String DEFAULT_NUM_CENTROIDS = "25";
+    protected static final String DEFAULT_ALGORITHM = "LLOYD";
+    protected static final String DEFAULT_SEEDING = "KMEANS_PARALLEL";
+    protected static final String DEFAULT_EPSILON = "0";
+    protected static final String DEFAULT_PROVENANCE = "true";
+    protected static final String DEFAULT_CLUSTER_SELECTION = "NONE";
+    protected static final String DEFAULT_CORESET_GRID_SIZE = "0";
+    protected static final String DEFAULT_DECAY = "1";
+    protected static final String DEFAULT_CHECKPOINT = "10000";
+
+    protected List<Measurement> initialCentroids;
+
+    public AbstractKMeansAggregator() {
+        this(new ArrayList<>());
+    }
+
+    public AbstractKMeansAggregator(Iterable<Measurement> initialCentroids) {
+        this.initialCentroids = Lists.newArrayList(initialCentroids);
+    }
+
+    /**
+     * Creates the strategy that decides when to stop iterating, using the {@link #ITERATIONS_PARAM} and the
+     * {@link #EPSILON_PARAM}
+     *
+     * @param context Context of the operation
+     * @param metric Distance metric to measure the movement of the centroids with
+     * @return Strategy to stop iterating
+     */
+    protected IterationStrategy iterationStrategy(AggrContext context, DistanceMetric<Double> metric) {
+        int maxIterations = Integer.parseInt(
+                context.getParameters().getOrDefault(ITERATIONS_PARAM, DEFAULT_MAX_ITERATIONS)
+        );
+        double epsilon = Double.parseDouble(
+                context.getParameters().getOrDefault(EPSILON_PARAM, DEFAULT_EPSILON)
+        );
+
+        if (epsilon < 0) {
+            return new MaxIteration(maxIterations);
+        } else {
+            return new ConvergenceIteration(epsilon, new MaxIteration(maxIterations), metric);
+        }
+    }
+
+    /**
+     * Checks that the number of centroids is not to be selected automatically, for aggregators that only cluster with
+     * a fixed number of centroids
+     *
+     * @param context Context of the operation
+     * @throws IllegalArgumentException if the {@link #CLUSTER_SELECTION_PARAM} is set
+     */
+    protected void requireFixedClusters(AggrContext context) {
+        ClusterSelectionChoice selectionChoice = ClusterSelectionChoice.valueOf(
+                context.getParameters().getOrDefault(CLUSTER_SELECTION_PARAM, DEFAULT_CLUSTER_SELECTION)
+        );
+        if (selectionChoice != ClusterSelectionChoice.NONE) {
+            throw new IllegalArgumentException(getClass().getSimpleName() + " does not support selecting the number " +
+                    "of centroids");
+        }
+    }
+
+    /**
+     * Checks that none of the options is set, for aggregators that cluster in a way that cannot be combined with them
+     *
+     * @param context Context of the operation
+     * @param params Keys of the options to check; a {@link #CORESET_GRID_SIZE_PARAM} is only set if it is positive
+     * @throws IllegalArgumentException if any of the options is set
+     */
+    protected void rejectOptions(AggrContext context, String... params) {
+        for (String param : params) {
+            String value = context.getParameters().get(param);
+            boolean set = StringUtils.isNotBlank(value);
+            if (set && param.equals(CORESET_GRID_SIZE_PARAM)) {
+                set = Double.parseDouble(value) > 0;
+            }
+
+            if (set) {
+                throw new IllegalArgumentException(getClass().getSimpleName() + " cannot be combined with the " +
+                        param + " option");
+            }
+        }
+    }
+
+    /**
+     * Copies the initial centroids, of a previous aggregation, into flat arrays
+     *
+     * @param measurements Measurements to cluster
+     * @return Initial centroids
+     * @throws IllegalArgumentException if the initial centroids have another dimension than the measurements
+     */
+    protected Points initialSeeds(List<Measurement> measurements) {
+        Points seeds = Points.of(initialCentroids);
+        if (!measurements.isEmpty() && seeds.dimension() != measurements.get(0).getVector().length) {
+            throw new IllegalArgumentException("Initial centroids have dimension " + seeds.dimension() +
+                    ", but the measurements have dimension " + measurements.get(0).getVector().length);
+        }
+
+        return seeds;
+    }
 }
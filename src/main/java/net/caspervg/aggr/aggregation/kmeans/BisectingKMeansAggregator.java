@@ -0,0 +1,312 @@
+package net.caspervg.aggr.aggregation.kmeans;
+
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.kmeans.engine.Clustering;
+import net.caspervg.aggr.aggregation.kmeans.engine.KMeansEngine;
+import net.caspervg.aggr.aggregation.kmeans.engine.KMeansEngineChoice;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.aggregation.kmeans.iteration.IterationStrategy;
+import net.caspervg.aggr.aggregation.kmeans.seed.SeedingChoice;
+import net.caspervg.aggr.aggregation.kmeans.seed.SeedingStrategy;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.bean.UniquelyIdentifiable;
+import net.caspervg.aggr.core.distance.DistanceMetric;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+
+import java.util.*;
+
+/**
+ * {@inheritDoc}
+ *
+ * @implNote uses the Java programming model with bisecting (top-down hierarchical) k-Means. Starting from a single
+ * cluster of all measurements, the cluster with the largest sum of squared distances to its centroid is split in two
+ * with the engine chosen by the {@link #ALGORITHM_PARAM}, until there are as many clusters as the largest level of
+ * the {@link #HIERARCHY_PARAM}. Every split only clusters the points of the cluster that is split: the clusters are
+ * contiguous ranges of a single permutation of the points, which is partitioned in place. Balanced splits therefore
+ * take O(n log k) work in total, instead of a full run for every level. One aggregation is returned for every level,
+ * as soon as that many clusters exist, so the centroids of a level are nested in the centroids of the levels before.
+ * If the seeding picks two coinciding seeds, the second seed is replaced by the first point that differs from the
+ * first seed. Clusters that cannot be split, because their points coincide, stay as they are, so a level may have
+ * fewer centroids. The weight of a centroid is the sum of the weights of its measurements.
+ */
+public class BisectingKMeansAggregator extends AbstractKMeansAggregator {
+
+    @Override
+    public Iterable<AggregationResult<KMeansAggregation, Measurement>> aggregate(Dataset dataset,
+                                                                              Iterable<Measurement> measurements,
+                                                                              AggrContext context) {
+        requireFixedClusters(context);
+        rejectOptions(context, WARM_START_PARAM, CORESET_GRID_SIZE_PARAM);
+
+        DistanceMetricChoice metricChoice = DistanceMetricChoice.valueOf(
+                context.getParameters().getOrDefault(METRIC_PARAM, DEFAULT_DISTANCE_METRIC)
+        );
+        KMeansEngineChoice engineChoice = KMeansEngineChoice.valueOf(
+                context.getParameters().getOrDefault(ALGORITHM_PARAM, DEFAULT_ALGORITHM)
+        );
+        if (engineChoice == KMeansEngineChoice.HAMERLY && !metricChoice.satisfiesTriangleInequality()) {
+            throw new IllegalArgumentException("The " + metricChoice + " metric does not satisfy the triangle inequality");
+        }
+        SeedingChoice seedingChoice = SeedingChoice.valueOf(
+                context.getParameters().getOrDefault(SEEDING_PARAM, DEFAULT_SEEDING)
+        );
+        int maxIterations = Integer.parseInt(
+                context.getParameters().getOrDefault(ITERATIONS_PARAM, DEFAULT_MAX_ITERATIONS)
+        );
+        boolean provenance = Boolean.parseBoolean(
+                context.getParameters().getOrDefault(PROVENANCE_PARAM, DEFAULT_PROVENANCE)
+        );
+        SortedSet<Integer> levels = levels(context);
+
+        List<Measurement> measurementList = Lists.newArrayList(measurements);
+        Bisection bisection = new Bisection(
+                measurementList,
+                metricChoice.getMetric(),
+                engineChoice.getEngine(metricChoice, context.getParameters()),
+                seedingChoice.getStrategy(metricChoice),
+                iterationStrategy(context, metricChoice.getMetric())
+        );
+
+        List<AggregationResult<KMeansAggregation, Measurement>> results = new ArrayList<>();
+        for (int level : levels) {
+            bisection.splitUntil(level);
+
+            List<Measurement> centroids = bisection.centroids(provenance, context);
+            KMeansAggregation aggr = new KMeansAggregation(
+                    dataset,
+                    centroids.size(),
+                    maxIterations,
+                    measurementList,
+                    centroids
+            );
+            aggr.setComponents(centroids);
+            aggr.setPerformedIterations(bisection.getIterations());
+
+            results.add(new AggregationResult<>(aggr, centroids));
+        }
+
+        return results;
+    }
+
+    /**
+     * Reads the numbers of centroids of the levels from the {@link #HIERARCHY_PARAM}, or the {@link #CENTROIDS_PARAM}
+     * if there is no hierarchy
+     *
+     * @param context Context of the operation
+     * @return Number of centroids of every level, in ascending order
+     * @throws IllegalArgumentException if a level has less than one centroid
+     */
+    private SortedSet<Integer> levels(AggrContext context) {
+        String hierarchy = context.getParameters().getOrDefault(
+                HIERARCHY_PARAM,
+                context.getParameters().getOrDefault(CENTROIDS_PARAM, DEFAULT_NUM_CENTROIDS)
+        );
+
+        SortedSet<Integer> levels = new TreeSet<>();
+        for (String level : hierarchy.split(",")) {
+            int numCentroids = Integer.parseInt(level.trim());
+            if (numCentroids < 1) {
+                throw new IllegalArgumentException("Every level of the hierarchy needs at least one centroid");
+            }
+            levels.add(numCentroids);
+        }
+
+        return levels;
+    }
+
+    /**
+     * Clusters of the bisection so far. The points of every cluster are a contiguous range of {@link #order}.
+     */
+    private static class Bisection {
+
+        private final List<Measurement> measurements;
+        private final Points points;
+        private final double[] weights;
+        private final DistanceMetric<Double> metric;
+        private final KMeansEngine engine;
+        private final SeedingStrategy seeding;
+        private final IterationStrategy strategy;
+
+        private final int[] order;
+        private final List<Cluster> clusters = new ArrayList<>();
+        private final PriorityQueue<Cluster> splittable = new PriorityQueue<>(
+                Comparator.comparingDouble((Cluster cluster) -> cluster.cost).reversed()
+        );
+        private int iterations;
+
+        Bisection(List<Measurement> measurements,
+                  DistanceMetric<Double> metric,
+                  KMeansEngine engine,
+                  SeedingStrategy seeding,
+                  IterationStrategy strategy) {
+            this.measurements = measurements;
+            this.points = Points.of(measurements);
+            this.weights = new double[measurements.size()];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = WeightedGeoMeasurement.weightOf(measurements.get(i));
+            }
+            this.metric = metric;
+            this.engine = engine;
+            this.seeding = seeding;
+            this.strategy = strategy;
+
+            this.order = new int[measurements.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+
+            if (order.length > 0) {
+                // The root is the center of all points, as the engine would move a single centroid there
+                int dimension = points.dimension();
+                Clustering root = engine.cluster(points, Arrays.copyOf(points.getCoords(), dimension), strategy);
+                iterations += root.getIterations();
+                add(clusters.size(), new Cluster(0, order.length, root.getCentroids()));
+            }
+        }
+
+        /**
+         * Splits the cluster with the largest cost until there are enough clusters, or none can be split any further
+         *
+         * @param numClusters Number of clusters to reach
+         */
+        void splitUntil(int numClusters) {
+            while (clusters.size() < numClusters && !splittable.isEmpty()) {
+                split(splittable.poll());
+            }
+        }
+
+        private void split(Cluster cluster) {
+            int size = cluster.to - cluster.from;
+            int dimension = points.dimension();
+            double[] coords = points.getCoords();
+
+            // Copy the points of the cluster only, so the split does not depend on the total number of points
+            double[] subCoords = new double[size * dimension];
+            List<Measurement> subMeasurements = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                int point = order[cluster.from + i];
+                System.arraycopy(coords, points.offset(point), subCoords, i * dimension, dimension);
+                subMeasurements.add(measurements.get(point));
+            }
+
+            List<Measurement> seeds = new ArrayList<>(seeding.seeds(subMeasurements, 2));
+            if (seeds.size() < 2 || Arrays.equals(seeds.get(0).getVector(), seeds.get(1).getVector())) {
+                // The seeding found no two distinct seeds, so the second seed is the first point that differs
+                Measurement first = seeds.isEmpty() ? subMeasurements.get(0) : seeds.get(0);
+                Optional<Measurement> other = subMeasurements.stream()
+                        .filter(meas -> !Arrays.equals(meas.getVector(), first.getVector()))
+                        .findFirst();
+                if (!other.isPresent()) {
+                    // All points of the cluster coincide
+                    return;
+                }
+                seeds = Arrays.asList(first, other.get());
+            }
+            Clustering clustering = engine.cluster(
+                    new Points(subCoords, null, dimension),
+                    Points.of(seeds).getCoords(),
+                    strategy
+            );
+            iterations += clustering.getIterations();
+
+            // Partition the range of the cluster: the points of the first centroid go first
+            int[] assignment = clustering.getAssignment();
+            int[] range = Arrays.copyOfRange(order, cluster.from, cluster.to);
+            int left = cluster.from;
+            int right = cluster.to;
+            for (int i = 0; i < size; i++) {
+                if (assignment[i] == 0) {
+                    order[left++] = range[i];
+                } else {
+                    order[--right] = range[i];
+                }
+            }
+            if (left == cluster.from || left == cluster.to) {
+                // All points ended up with the same centroid, the cluster keeps its original order
+                System.arraycopy(range, 0, order, cluster.from, size);
+                return;
+            }
+
+            double[] centroids = clustering.getCentroids();
+            int index = clusters.indexOf(cluster);
+            clusters.remove(index);
+            add(index, new Cluster(cluster.from, left, Arrays.copyOfRange(centroids, 0, dimension)));
+            add(index + 1, new Cluster(left, cluster.to, Arrays.copyOfRange(centroids, dimension, 2 * dimension)));
+        }
+
+        private void add(int index, Cluster cluster) {
+            int dimension = points.dimension();
+            double[] coords = points.getCoords();
+            for (int i = cluster.from; i < cluster.to; i++) {
+                double distance = metric.distance(coords, points.offset(order[i]), cluster.centroid, 0, dimension);
+                cluster.cost += distance * distance;
+                cluster.weight += weights[order[i]];
+            }
+
+            clusters.add(index, cluster);
+            if (cluster.to - cluster.from > 1) {
+                splittable.add(cluster);
+            }
+        }
+
+        /**
+         * Creates the output measurements for the current clusters
+         *
+         * @param provenance Whether to add the measurements of every cluster as parents of its centroid
+         * @param context Context of the operation
+         * @return Output measurement for each cluster
+         */
+        List<Measurement> centroids(boolean provenance, AggrContext context) {
+            List<Measurement> centroids = new ArrayList<>(clusters.size());
+            for (Cluster cluster : clusters) {
+                Double[] vector = new Double[cluster.centroid.length];
+                for (int d = 0; d < vector.length; d++) {
+                    vector[d] = cluster.centroid[d];
+                }
+
+                Set<UniquelyIdentifiable> parents = new HashSet<>();
+                if (provenance) {
+                    for (int i = cluster.from; i < cluster.to; i++) {
+                        parents.add(measurements.get(order[i]));
+                    }
+                }
+
+                Measurement centroid = context.newOutputMeasurement();
+                centroid.setVector(vector);
+                centroid.setParents(parents);
+                centroid.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, cluster.weight);
+
+                centroids.add(centroid);
+            }
+
+            return centroids;
+        }
+
+        /**
+         * Retrieves the number of iterations of all splits so far
+         *
+         * @return Total number of iterations
+         */
+        int getIterations() {
+            return iterations;
+        }
+    }
+
+    private static class Cluster {
+        private final int from;
+        private final int to;
+        private final double[] centroid;
+        private double cost;
+        private double weight;
+
+        private Cluster(int from, int to, double[] centroid) {
+            this.from = from;
+            this.to = to;
+            this.centroid = centroid;
+        }
+    }
+}
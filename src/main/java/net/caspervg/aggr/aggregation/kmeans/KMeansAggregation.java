@@ -5,7 +5,10 @@ import net.caspervg.aggr.core.bean.Dataset;
 import net.caspervg.aggr.core.bean.Measurement;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.UUID;
 
 /**
@@ -15,6 +18,12 @@ public class KMeansAggregation extends AbstractAggregation implements Serializab
 
     private int k;
     private int n;
+    private long skippedDistances;
+    private int performedIterations;
+    private long measurements;
+    private SortedMap<Integer, Double> clusterScores = new TreeMap<>();
+    private LocalDateTime start;
+    private LocalDateTime end;
 
     /**
      * Creates a KMeansAggregation with given UUID, number of means and number of iterations
@@ -60,4 +69,107 @@ public class KMeansAggregation extends AbstractAggregation implements Serializab
     public int getN() {
         return n;
     }
+
+    /**
+     * Retrieves the number of distance calculations that the algorithm could skip
+     *
+     * @return Number of skipped distance calculations
+     */
+    public long getSkippedDistances() {
+        return skippedDistances;
+    }
+
+    /**
+     * Sets the number of distance calculations that the algorithm could skip
+     *
+     * @param skippedDistances Number of skipped distance calculations
+     */
+    public void setSkippedDistances(long skippedDistances) {
+        this.skippedDistances = skippedDistances;
+    }
+
+    /**
+     * Retrieves the number of iterations that were actually performed, which may be less than the maximum
+     * number of iterations if the centroids converged
+     *
+     * @return Number of performed iterations
+     */
+    public int getPerformedIterations() {
+        return performedIterations;
+    }
+
+    /**
+     * Sets the number of iterations that were actually performed
+     *
+     * @param performedIterations Number of performed iterations
+     */
+    public void setPerformedIterations(int performedIterations) {
+        this.performedIterations = performedIterations;
+    }
+
+    /**
+     * Retrieves the number of measurements that an online clustering had processed when the centroids were taken
+     *
+     * @return Number of processed measurements, or {@code 0} if all measurements were clustered at once
+     */
+    public long getMeasurements() {
+        return measurements;
+    }
+
+    /**
+     * Sets the number of measurements that an online clustering had processed
+     *
+     * @param measurements Number of processed measurements
+     */
+    public void setMeasurements(long measurements) {
+        this.measurements = measurements;
+    }
+
+    /**
+     * Retrieves the score of every number of clusters that was tried when the number of clusters was selected
+     * automatically. The number of means of this aggregation is then the selected number of clusters.
+     *
+     * @return Score per number of clusters, empty if the number of clusters was fixed
+     */
+    public SortedMap<Integer, Double> getClusterScores() {
+        return clusterScores;
+    }
+
+    /**
+     * Sets the score of every number of clusters that was tried
+     *
+     * @param clusterScores Score per number of clusters
+     */
+    public void setClusterScores(SortedMap<Integer, Double> clusterScores) {
+        this.clusterScores = clusterScores;
+    }
+
+    /**
+     * Retrieves the start of the time window whose measurements were clustered
+     *
+     * @return Start time, or {@code null} if the measurements were not clustered per time window
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * Retrieves the end of the time window whose measurements were clustered
+     *
+     * @return End time, or {@code null} if the measurements were not clustered per time window
+     */
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    /**
+     * Sets the time window whose measurements were clustered
+     *
+     * @param start Start time of the window
+     * @param end End time of the window
+     */
+    public void setWindow(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
 }
@@ -1,23 +1,35 @@
 package net.caspervg.aggr.aggregation.kmeans;
 
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.kmeans.engine.KMeansEngineChoice;
 import net.caspervg.aggr.worker.command.AggrCommand;
 import net.caspervg.aggr.worker.command.KMeansAggrCommand;
 import net.caspervg.aggr.aggregation.AbstractAggregationExecution;
 import net.caspervg.aggr.core.bean.Dataset;
 import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
 import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.time.AbstractTimeAggregator;
 import net.caspervg.aggr.worker.read.AbstractAggrReader;
+import net.caspervg.aggr.worker.read.JenaAggrReader;
 import net.caspervg.aggr.core.util.AggrContext;
 import net.caspervg.aggr.worker.write.AggrResultWriter;
+import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 import static net.caspervg.aggr.worker.write.AbstractAggrWriter.OUTPUT_PARAM_KEY;
 
 public class KMeansAggregationExecution extends AbstractAggregationExecution {
 
+    private static final Pattern UUID_PATTERN = Pattern.compile("\\p{XDigit}{8}(-\\p{XDigit}{4}){3}-\\p{XDigit}{12}");
+
     private AggrCommand ac;
     private KMeansAggrCommand kac;
 
@@ -34,18 +46,64 @@ public class KMeansAggregationExecution extends AbstractAggregationExecution {
         params.put(AbstractKMeansAggregator.CENTROIDS_PARAM, String.valueOf(kac.getNumCentroids()));
         params.put(AbstractKMeansAggregator.ITERATIONS_PARAM, String.valueOf(kac.getIterations()));
         params.put(AbstractKMeansAggregator.METRIC_PARAM, kac.getDistanceMetricChoice().name());
+        params.put(AbstractKMeansAggregator.ALGORITHM_PARAM, kac.getEngineChoice().name());
+        params.put(AbstractKMeansAggregator.BATCH_SIZE_PARAM, String.valueOf(kac.getBatchSize()));
+        params.put(AbstractKMeansAggregator.SEEDING_PARAM, kac.getSeedingChoice().name());
+        params.put(AbstractKMeansAggregator.EPSILON_PARAM, String.valueOf(kac.getEpsilon()));
+        params.put(AbstractKMeansAggregator.CLUSTER_SELECTION_PARAM, kac.getClusterSelectionChoice().name());
+        params.put(AbstractKMeansAggregator.PROVENANCE_PARAM, String.valueOf(ac.isWriteProvenance()));
+        params.put(AbstractKMeansAggregator.CORESET_GRID_SIZE_PARAM, String.valueOf(kac.getCoresetGridSize()));
+        params.put(AbstractKMeansAggregator.DECAY_PARAM, String.valueOf(kac.getDecay()));
+        params.put(AbstractKMeansAggregator.CHECKPOINT_PARAM, String.valueOf(kac.getCheckpoint()));
+        if (StringUtils.isNotBlank(kac.getWarmStart())) {
+            params.put(AbstractKMeansAggregator.WARM_START_PARAM, kac.getWarmStart());
+        }
+        if (StringUtils.isNotBlank(kac.getHierarchy())) {
+            params.put(AbstractKMeansAggregator.HIERARCHY_PARAM, kac.getHierarchy());
+        }
+        if (kac.getWindow() != null) {
+            params.put(AbstractTimeAggregator.WINDOW_PARAM, kac.getWindow().name());
+            params.put(AbstractTimeAggregator.WINDOW_SIZE_PARAM, String.valueOf(kac.getWindowSize()));
+            params.put(AbstractTimeAggregator.WINDOW_HOP_PARAM, String.valueOf(kac.getWindowHop()));
+            params.put(AbstractTimeAggregator.ZONE_PARAM, kac.getZone());
+        }
 
         AggrContext ctx = createContext(params, ac);
+
+        List<Measurement> initialCentroids = new ArrayList<>();
+        if (StringUtils.isNotBlank(kac.getWarmStart())) {
+            initialCentroids = Lists.newArrayList(readCentroids(kac.getWarmStart(), ctx));
+        }
+
         KMeansAggregator aggregator;
-        if (ac.isSpark()) {
-            //aggregator = new SparkKMeansAggregator();
-            aggregator = new SparkKMeansClusterAggregator();
+        if (kac.isStreaming()) {
+            aggregator = new StreamingKMeansAggregator(initialCentroids);
+        } else if (kac.getWindow() != null) {
+            // The windows are clustered concurrently on the driver, also in Spark runs
+            aggregator = new WindowedKMeansAggregator(initialCentroids);
+        } else if (StringUtils.isNotBlank(kac.getHierarchy())) {
+            aggregator = new BisectingKMeansAggregator();
+        } else if (kac.getCoresetGridSize() > 0) {
+            // The cells of the coreset are few enough to be clustered locally, also in Spark runs
+            aggregator = new PlainKMeansAggregator(initialCentroids);
+        } else if (ac.isSpark() && kac.getEngineChoice() == KMeansEngineChoice.MINI_BATCH) {
+            aggregator = new SparkKMeansAggregator(initialCentroids);
+        } else if (ac.isSpark() && kac.getDistanceMetricChoice() != DistanceMetricChoice.EUCLIDEAN) {
+            // MLLib only supports the Euclidean metric
+            aggregator = new SparkKMeansAggregator(initialCentroids);
+        } else if (ac.isSpark()) {
+            aggregator = new SparkKMeansClusterAggregator(initialCentroids);
         } else {
-            aggregator = new PlainKMeansAggregator();
+            aggregator = new PlainKMeansAggregator(initialCentroids);
         }
 
         Dataset dataset = Dataset.Builder.setup().withTitle(ac.getDatasetId()).withUuid(ac.getDatasetId()).build();
-        Iterable<Measurement> meas = getReader(ac, ctx).read(ctx);
+        Iterable<Measurement> meas;
+        if (kac.isStreaming()) {
+            meas = getReader(ac, ctx).stream(ctx);    // Each snapshot is written as soon as its checkpoint is reached
+        } else {
+            meas = getReader(ac, ctx).read(ctx);
+        }
         Iterable<AggregationResult<KMeansAggregation, Measurement>> results = aggregator.aggregate(dataset, meas, ctx);
 
         AggrResultWriter writer = null;
@@ -61,4 +119,40 @@ public class KMeansAggregationExecution extends AbstractAggregationExecution {
 
         stop(ctx);
     }
+
+    /**
+     * Reads the centroids of a previous k-means aggregation. The aggregation is identified either by the path of its
+     * CSV data, or by its identifier (a UUID), in which case the path is looked up in the triple store.
+     *
+     * @param warmStart Identifier or data path of the aggregation
+     * @param ctx Context of the execution
+     * @return Centroids of the aggregation
+     * @throws IOException if the data of the aggregation cannot be opened or read
+     */
+    private Iterable<Measurement> readCentroids(String warmStart, AggrContext ctx) throws IOException {
+        String dataPath = warmStart;
+        if (UUID_PATTERN.matcher(warmStart).matches()) {
+            Map<String, String> lookupParams = new HashMap<>();
+            lookupParams.put(AbstractAggrReader.INPUT_PARAM_KEY, ac.getService());
+
+            dataPath = new JenaAggrReader()
+                    .dataPath(warmStart, AggrContext.builder().parameters(lookupParams).build())
+                    .orElseThrow(() -> new IllegalArgumentException("No aggregation with id " + warmStart + " was found"));
+        }
+        if (dataPath.equals(ac.getService())) {
+            throw new IllegalArgumentException("The centroids of aggregation " + warmStart + " were written to the " +
+                    "triple store, a warm start needs their CSV data");
+        }
+        dataPath = StringUtils.removeStart(StringUtils.removeStart(dataPath, "file://"), ac.getHdfsUrl());
+
+        // The centroids were written with the output class, so they are read with it as well
+        AggrContext centroidCtx = AggrContext.builder()
+                .parameters(new HashMap<>())
+                .inputClass(ac.getOutputClass())
+                .outputClass(ac.getOutputClass())
+                .fileSystem(ctx.getFileSystem())
+                .build();
+
+        return getReader(dataPath, ac, centroidCtx).read(centroidCtx);
+    }
 }
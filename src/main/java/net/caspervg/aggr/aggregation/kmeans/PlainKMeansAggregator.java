@@ -1,36 +1,60 @@
 package net.caspervg.aggr.aggregation.kmeans;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
+import net.caspervg.aggr.aggregation.kmeans.clusters.ClusterSelection;
+import net.caspervg.aggr.aggregation.kmeans.clusters.ClusterSelectionChoice;
+import net.caspervg.aggr.aggregation.kmeans.clusters.RuleOfThumbCluster;
+import net.caspervg.aggr.aggregation.kmeans.engine.Clustering;
+import net.caspervg.aggr.aggregation.kmeans.engine.GridCoreset;
+import net.caspervg.aggr.aggregation.kmeans.engine.KMeansEngineChoice;
+import net.caspervg.aggr.aggregation.kmeans.engine.LloydEngine;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.aggregation.kmeans.seed.SeedingChoice;
 import net.caspervg.aggr.core.bean.Dataset;
 import net.caspervg.aggr.core.bean.Measurement;
 import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.core.bean.UniquelyIdentifiable;
 import net.caspervg.aggr.ext.WeightedGeoMeasurement;
-import net.caspervg.aggr.core.distance.DistanceMetric;
 import net.caspervg.aggr.core.distance.DistanceMetricChoice;
 import net.caspervg.aggr.core.util.AggrContext;
-import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.function.IntFunction;
 
 /**
  * {@inheritDoc}
  *
- * @implNote uses the Java programming model
+ * @implNote uses the Java programming model. The vectors are copied once into flat primitive arrays, and the
+ * iterations run on all cores, using the engine chosen by the {@link #ALGORITHM_PARAM} (see {@link LloydEngine}).
+ * The output measurements, with their parents and weights, are only created after the final iteration. When the
+ * number of clusters is selected automatically, the candidates are clustered concurrently on the same primitive
+ * arrays (see {@link ClusterSelection}). With a {@link #CORESET_GRID_SIZE_PARAM}, the measurements are first reduced to
+ * the weighted cells of a grid, which are clustered instead (see {@link GridCoreset}).
  */
 public class PlainKMeansAggregator extends AbstractKMeansAggregator {
 
-    private DistanceMetric<Double> distanceMetric;
+    public PlainKMeansAggregator() {
+        super();
+    }
+
+    public PlainKMeansAggregator(Iterable<Measurement> initialCentroids) {
+        super(initialCentroids);
+    }
 
     @Override
     public Iterable<AggregationResult<KMeansAggregation, Measurement>> aggregate(Dataset dataset,
                                                                               Iterable<Measurement> measurements,
                                                                               AggrContext context) {
-        this.distanceMetric = DistanceMetricChoice.valueOf(
+        DistanceMetricChoice metricChoice = DistanceMetricChoice.valueOf(
                 context.getParameters().getOrDefault(METRIC_PARAM, DEFAULT_DISTANCE_METRIC)
-        ).getMetric();
+        );
+
+        KMeansEngineChoice engineChoice = KMeansEngineChoice.valueOf(
+                context.getParameters().getOrDefault(ALGORITHM_PARAM, DEFAULT_ALGORITHM)
+        );
+        if (engineChoice == KMeansEngineChoice.HAMERLY && !metricChoice.satisfiesTriangleInequality()) {
+            throw new IllegalArgumentException("The " + metricChoice + " metric does not satisfy the triangle inequality");
+        }
 
         int maxIterations = Integer.parseInt(
                 context.getParameters().getOrDefault(ITERATIONS_PARAM, DEFAULT_MAX_ITERATIONS)
@@ -39,53 +63,65 @@ public class PlainKMeansAggregator extends AbstractKMeansAggregator {
                 context.getParameters().getOrDefault(CENTROIDS_PARAM, DEFAULT_NUM_CENTROIDS)
         );
 
-        List<Measurement> centroids = StreamSupport.stream(measurements.spliterator(), false)
-                .limit(numCentroids)
-                .collect(Collectors.toList());
-
-        int iterations = 0;
-        while(iterations < maxIterations) {
-            Map<Double[], Set<Measurement>> newMapping = new HashMap<>();
-
-            for (Measurement centroid : centroids) {
-                newMapping.put(centroid.getVector(), new HashSet<>());
-            }
-
-            for (Measurement measurement : measurements) {
-                Double[] closestCentroidVector = closestCentroidVector(centroids, measurement);
-
-                if (newMapping.containsKey(closestCentroidVector)) {
-                    newMapping.get(closestCentroidVector).add(measurement);
-                } else {
-                    throw new AssertionError("This shouldn't happen");
-                }
-            }
+        List<Measurement> measurementList = Lists.newArrayList(measurements);
+        double coresetGridSize = Double.parseDouble(
+                context.getParameters().getOrDefault(CORESET_GRID_SIZE_PARAM, DEFAULT_CORESET_GRID_SIZE)
+        );
 
-            centroids = new ArrayList<>(centroids.size());
-            for (Map.Entry<Double[], Set<Measurement>> entry : newMapping.entrySet()) {
-                Measurement nextCentroid = context.newOutputMeasurement();
-                Double[] current = entry.getKey();
-                Set<Measurement> parents = entry.getValue();
+        // With a coreset, the weighted cells are clustered instead of the measurements
+        GridCoreset coreset = coresetGridSize > 0 ? GridCoreset.of(measurementList, coresetGridSize) : null;
+        Points points = coreset != null ? coreset.getCells() : Points.of(measurementList);
+        List<Measurement> seedCandidates = coreset != null ? coreset.getRepresentatives() : measurementList;
 
-                nextCentroid.setVector(optimalPosition(current, parents));
-                nextCentroid.setParents(Sets.newHashSet(parents));
-                nextCentroid.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, parents.size());
+        SeedingChoice seedingChoice = SeedingChoice.valueOf(
+                context.getParameters().getOrDefault(SEEDING_PARAM, DEFAULT_SEEDING)
+        );
+        ClusterSelectionChoice selectionChoice = ClusterSelectionChoice.valueOf(
+                context.getParameters().getOrDefault(CLUSTER_SELECTION_PARAM, DEFAULT_CLUSTER_SELECTION)
+        );
 
-                centroids.add(nextCentroid);
+        IntFunction<Clustering> clusterer = numClusters -> {
+            int k = Math.min(numClusters, points.size());
+            double[] seeds = new double[0];
+            if (k > 0) {
+                List<Measurement> seedList = new ArrayList<>(seedingChoice.getStrategy(metricChoice).seeds(seedCandidates, k));
+                seeds = Points.of(seedList).getCoords();
             }
 
-            iterations++;
+            return engineChoice.getEngine(metricChoice, context.getParameters())
+                    .cluster(points, seeds, iterationStrategy(context, metricChoice.getMetric()));
+        };
+
+        Clustering clustering;
+        SortedMap<Integer, Double> clusterScores = new TreeMap<>();
+        if (!initialCentroids.isEmpty()) {
+            // Continue from the centroids of a previous aggregation
+            clustering = engineChoice.getEngine(metricChoice, context.getParameters())
+                    .cluster(points, initialSeeds(measurementList).getCoords(), iterationStrategy(context, metricChoice.getMetric()));
+            numCentroids = clustering.getK();
+        } else if (selectionChoice == ClusterSelectionChoice.NONE) {
+            clustering = clusterer.apply(numCentroids);
+        } else {
+            // Try a range of candidates around the rule of thumb, and keep the best clustering
+            ClusterSelection selection = new ClusterSelection(selectionChoice.getScore(metricChoice));
+            clustering = selection.select(points, new RuleOfThumbCluster(measurementList.size()), clusterer);
+            clusterScores = selection.getScores();
+            numCentroids = clustering.getK();
         }
+        List<Measurement> centroids = centroids(measurementList, clustering, coreset, context);
 
         // Return the result of the aggregation
         KMeansAggregation aggr = new KMeansAggregation(
                 dataset,
                 numCentroids,
                 maxIterations,
-                Lists.newArrayList(measurements),
+                measurementList,
                 centroids
         );
         aggr.setComponents(centroids);
+        aggr.setSkippedDistances(clustering.getSkippedDistances());
+        aggr.setPerformedIterations(clustering.getIterations());
+        aggr.setClusterScores(clusterScores);
 
         return Lists.newArrayList(
                 new AggregationResult<>(
@@ -95,48 +131,55 @@ public class PlainKMeansAggregator extends AbstractKMeansAggregator {
         );
     }
 
-    private Double[] closestCentroidVector(List<Measurement> centroids, Measurement measurement) {
-        Measurement currentClosest = centroids.get(0);
-        double minimumDistance = this.distanceMetric.distance(
-                currentClosest.getVector(),
-                measurement.getVector()
+    /**
+     * Creates the output measurements for the final centroids, with the measurements assigned to them as parents.
+     * When the cells of a coreset were clustered, the weights of the centroids are the weights of their cells, and
+     * the measurements are only mapped back to the centroids of their cells if the {@link #PROVENANCE_PARAM} is set.
+     *
+     * @param measurements Measurements that were clustered
+     * @param clustering Result of the clustering
+     * @param coreset Coreset of the measurements that was clustered instead, or {@code null}
+     * @param context Context of the operation
+     * @return Output measurement for each centroid
+     */
+    private List<Measurement> centroids(List<Measurement> measurements,
+                                        Clustering clustering,
+                                        GridCoreset coreset,
+                                        AggrContext context) {
+        int k = clustering.getK();
+        int dimension = clustering.getDimension();
+        boolean provenance = coreset == null || Boolean.parseBoolean(
+                context.getParameters().getOrDefault(PROVENANCE_PARAM, DEFAULT_PROVENANCE)
         );
 
-        for (Measurement possibleClosest : centroids) {
-            double possibleDistance = this.distanceMetric.distance(
-                    possibleClosest.getVector(),
-                    measurement.getVector()
-            );
-
-            if (possibleDistance < minimumDistance) {
-                minimumDistance = possibleDistance;
-                currentClosest = possibleClosest;
+        List<Set<UniquelyIdentifiable>> parents = new ArrayList<>(k);
+        for (int j = 0; j < k; j++) {
+            parents.add(new HashSet<>());
+        }
+        if (provenance) {
+            int[] assignment = coreset == null ? clustering.getAssignment() : coreset.assignment(clustering);
+            for (int i = 0; i < assignment.length; i++) {
+                parents.get(assignment[i]).add(measurements.get(i));
             }
         }
-
-        return currentClosest.getVector();
-    }
-
-    private Double[] optimalPosition(Double[] current, Set<Measurement> parents) {
-        if (parents.size() == 0) return current;
-        double[] sum = null;
-
-        for (Measurement parent : parents) {
-            if (sum == null) {
-                sum = new double[parent.getVector().length];
+        double[] weights = coreset == null ? null : coreset.weights(clustering);
+
+        double[] coords = clustering.getCentroids();
+        List<Measurement> centroids = new ArrayList<>(k);
+        for (int j = 0; j < k; j++) {
+            Double[] vector = new Double[dimension];
+            for (int d = 0; d < dimension; d++) {
+                vector[d] = coords[j * dimension + d];
             }
 
-            for (int i = 0; i < sum.length; i++) {
-                sum[i] += parent.getVector()[i];
-            }
-        }
+            Measurement centroid = context.newOutputMeasurement();
+            centroid.setVector(vector);
+            centroid.setParents(parents.get(j));
+            centroid.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, weights == null ? parents.get(j).size() : weights[j]);
 
-        assert sum != null;
-        double[] avg = new double[sum.length];
-        for (int i = 0; i < avg.length; i++) {
-            avg[i] = sum[i] / parents.size();
+            centroids.add(centroid);
         }
 
-        return ArrayUtils.toObject(avg);
+        return centroids;
     }
 }
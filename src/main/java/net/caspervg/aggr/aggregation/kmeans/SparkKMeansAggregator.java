@@ -1,18 +1,32 @@
 package net.caspervg.aggr.aggregation.kmeans;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Sets;
+import net.caspervg.aggr.aggregation.kmeans.engine.CenterUpdate;
+import net.caspervg.aggr.aggregation.kmeans.engine.KMeansEngineChoice;
+import net.caspervg.aggr.aggregation.kmeans.engine.MiniBatchEngine;
+import net.caspervg.aggr.aggregation.kmeans.engine.PartialSamples;
+import net.caspervg.aggr.aggregation.kmeans.engine.PartialSums;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.aggregation.kmeans.index.CentroidIndex;
+import net.caspervg.aggr.aggregation.kmeans.iteration.IterationStrategy;
+import net.caspervg.aggr.aggregation.kmeans.seed.SeedingChoice;
+import net.caspervg.aggr.aggregation.kmeans.seed.SparkKMeansParallelSeeding;
 import net.caspervg.aggr.core.bean.Dataset;
 import net.caspervg.aggr.core.bean.Measurement;
 import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.core.bean.UniquelyIdentifiable;
+import net.caspervg.aggr.core.bean.impl.BasicParent;
 import net.caspervg.aggr.ext.WeightedGeoMeasurement;
-import net.caspervg.aggr.core.distance.DistanceMetric;
 import net.caspervg.aggr.core.distance.DistanceMetricChoice;
 import net.caspervg.aggr.core.util.AggrContext;
-import org.apache.spark.api.java.JavaPairRDD;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.api.java.function.FlatMapFunction;
 import org.apache.spark.api.java.function.Function;
 import org.apache.spark.api.java.function.Function2;
+import org.apache.spark.api.java.function.PairFunction;
+import org.apache.spark.broadcast.Broadcast;
 import scala.Tuple2;
 
 import java.util.*;
@@ -20,22 +34,41 @@ import java.util.*;
 /**
  * {@inheritDoc}
  *
- * @implNote uses Spark to perform the aggregation. This method may return less centroids then requested under
- * some circumstances. Use the {@link SparkKMeansClusterAggregator} instead.
+ * @implNote uses Spark to perform the aggregation. The vectors are copied once into a cached RDD of primitive arrays.
+ * The centroids are kept on the driver as a flat array. Every iteration broadcasts an index of the centroids and makes
+ * a single pass over the points, in which each partition sums its points per centroid. Only these partial sums are
+ * sent back to the driver. Unlike the MLLib aggregator, every distance metric is supported: the centroids move to the
+ * center that fits the metric (see {@link CenterUpdate}). The median and the medoid are calculated from a bounded
+ * sample of the points of each centroid, which is merged in the same way as the sums. With the mini-batch algorithm,
+ * all batches are sampled at once and collected to the driver, which moves the centroids (see {@link MiniBatchEngine}).
+ * The weights of the centroids are counted on the executors. The parents are only grouped, by identifier, when the
+ * {@link #PROVENANCE_PARAM} is set.
  */
 public class SparkKMeansAggregator extends AbstractKMeansAggregator {
 
+    private static final int CENTER_SAMPLE_SIZE = 512;
+
+    public SparkKMeansAggregator() {
+        super();
+    }
+
+    public SparkKMeansAggregator(Iterable<Measurement> initialCentroids) {
+        super(initialCentroids);
+    }
+
     @Override
     public Iterable<AggregationResult<KMeansAggregation, Measurement>> aggregate(Dataset dataset,
                                                                               Iterable<Measurement> measurements,
                                                                               AggrContext context) {
+        requireFixedClusters(context);
+
         Objects.requireNonNull(context.getSparkContext());
 
-        Class<? extends Measurement> clazz = context.getOutputClass();
+        JavaSparkContext sparkCtx = context.getSparkContext();
 
-        DistanceMetric<Double> distanceMetric = DistanceMetricChoice.valueOf(
+        DistanceMetricChoice metricChoice = DistanceMetricChoice.valueOf(
                 context.getParameters().getOrDefault(METRIC_PARAM, DEFAULT_DISTANCE_METRIC)
-        ).getMetric();
+        );
 
         int maxIterations = Integer.parseInt(
                 context.getParameters().getOrDefault(ITERATIONS_PARAM, DEFAULT_MAX_ITERATIONS)
@@ -43,91 +76,121 @@ public class SparkKMeansAggregator extends AbstractKMeansAggregator {
         int numCentroids = Integer.parseInt(
                 context.getParameters().getOrDefault(CENTROIDS_PARAM, DEFAULT_NUM_CENTROIDS)
         );
+        KMeansEngineChoice engineChoice = KMeansEngineChoice.valueOf(
+                context.getParameters().getOrDefault(ALGORITHM_PARAM, DEFAULT_ALGORITHM)
+        );
+        if (engineChoice == KMeansEngineChoice.HAMERLY) {
+            throw new IllegalArgumentException("The " + engineChoice + " algorithm is not supported with Spark");
+        }
 
-        JavaRDD<Measurement> measRDD = context.getSparkContext().parallelize(Lists.newArrayList(measurements));
-
-        // Choose a number of measurements to act as first generation centroids
-        List<Measurement> centroidSeeds = measRDD.takeSample(false, numCentroids);
+        List<Measurement> measurementList = Lists.newArrayList(measurements);
+        JavaRDD<Measurement> measRDD = sparkCtx.parallelize(measurementList);
 
-        // Parallelize the measurements
-        JavaRDD<Measurement> centroids = context.getSparkContext().parallelize(centroidSeeds);
+        SeedingChoice seedingChoice = SeedingChoice.valueOf(
+                context.getParameters().getOrDefault(SEEDING_PARAM, DEFAULT_SEEDING)
+        );
 
-        int iterations = 0;
-        while (iterations++ < maxIterations) {
-            // Find the closest centroid for each measurement
-            JavaPairRDD<Measurement, Measurement> closest = measRDD.mapToPair(
-                    new SparkClosestCentroidStep(centroids.collect(), distanceMetric)
+        // Choose a number of measurements to act as first generation centroids
+        List<Measurement> centroidSeeds;
+        if (!initialCentroids.isEmpty()) {
+            // Continue from the centroids of a previous aggregation
+            centroidSeeds = initialCentroids;
+            numCentroids = initialCentroids.size();
+        } else if (seedingChoice == SeedingChoice.KMEANS_PARALLEL) {
+            measRDD.cache();
+            centroidSeeds = new SparkKMeansParallelSeeding(metricChoice).seeds(measRDD, numCentroids);
+            measRDD.unpersist();
+        } else if (seedingChoice == SeedingChoice.RANDOM) {
+            centroidSeeds = measRDD.takeSample(false, numCentroids);
+        } else {
+            centroidSeeds = new ArrayList<>(
+                    seedingChoice.getStrategy(metricChoice).seeds(measurementList, numCentroids)
             );
+        }
 
-            centroids = closest
-                    .mapValues((Function<Measurement, Tuple2<Measurement, Integer>>) measurement ->
-                            // Convert each measurement to a tuple of itself and a count of one
-                            // The count will be summed and is then used to calculate the total number of citizens
-                            new Tuple2<>(measurement, 1)
-                    )
-                    .reduceByKey((Function2<Tuple2<Measurement, Integer>, Tuple2<Measurement, Integer>, Tuple2<Measurement, Integer>>) (pair1, pair2) -> {
-                        // Sum the vector of all citizens
-                        Double[] vec1 = pair1._1.getVector();
-                        Double[] vec2 = pair2._1.getVector();
-
-                        Double[] sum = new Double[vec1.length];
-                        for (int i = 0; i < sum.length; i++) {
-                            sum[i] = vec1[i] + vec2[i];
-                        }
+        // The iterations only need the vectors, which are kept in memory instead of being recomputed on every pass
+        JavaRDD<double[]> pointRDD = measRDD
+                .map((Function<Measurement, double[]>) measurement -> ArrayUtils.toPrimitive(measurement.getVector()))
+                .cache();
 
-                        Measurement sumMeas = newInstance(clazz);
-                        sumMeas.setVector(sum);
+        Points seedPoints = initialCentroids.isEmpty() ? Points.of(centroidSeeds) : initialSeeds(measurementList);
+        int dimension = seedPoints.dimension();
+        int k = seedPoints.size();
 
-                        return new Tuple2<>(sumMeas, pair1._2 + pair2._2);
-                    }).map((Function<Tuple2<Measurement, Tuple2<Measurement, Integer>>, Measurement>) centroidTuple2Tuple2 -> {
-                        // Calculate the new position of the centroid (average of the citizen measurements)
-                        Tuple2<Measurement, Integer> pair = centroidTuple2Tuple2._2;
-                        Measurement sum = pair._1;
-                        Integer amount = pair._2;
+        IterationStrategy strategy = iterationStrategy(context, metricChoice.getMetric());
+        double[] centroids;
+        int iterations;
+        if (engineChoice == KMeansEngineChoice.MINI_BATCH) {
+            int batchSize = Integer.parseInt(
+                    context.getParameters().getOrDefault(BATCH_SIZE_PARAM, String.valueOf(MiniBatchEngine.DEFAULT_BATCH_SIZE))
+            );
+            Tuple2<double[], Integer> miniBatchResult = miniBatch(
+                    pointRDD,
+                    seedPoints,
+                    metricChoice,
+                    strategy,
+                    batchSize,
+                    maxIterations
+            );
+            centroids = miniBatchResult._1;
+            iterations = miniBatchResult._2;
+        } else {
+            centroids = seedPoints.getCoords();
+            iterations = 0;
 
-                        Measurement avgMeas = newInstance(clazz);
+            CenterUpdate update = CenterUpdate.of(metricChoice);
+            boolean proceed = k > 0;
+            while (proceed) {
+                double[] current = centroids;
+                Broadcast<CentroidIndex> index = sparkCtx.broadcast(CentroidIndex.of(metricChoice, current, dimension));
+                if (update == CenterUpdate.MEAN) {
+                    centroids = means(pointRDD, index, current, dimension);
+                } else {
+                    centroids = centers(pointRDD, index, current, dimension, update, metricChoice);
+                }
+                index.destroy();
 
-                        Double[] vecSum = sum.getVector();
-                        Double[] vecAvg = new Double[vecSum.length];
-                        for (int i = 0; i < vecSum.length; i++) {
-                            vecAvg[i] = vecSum[i] / (double) amount;
-                        }
+                iterations++;
+                proceed = strategy.shouldContinue(iterations, current, centroids, dimension);
+            }
+        }
 
-                        avgMeas.setVector(vecAvg);
+        boolean provenance = Boolean.parseBoolean(
+                context.getParameters().getOrDefault(PROVENANCE_PARAM, DEFAULT_PROVENANCE)
+        );
 
-                        return avgMeas;
-                    });
+        // After the iterations, map the measurements to their closest centroids. Only the k memberships or weights
+        // are collected to the driver.
+        Map<Integer, Set<UniquelyIdentifiable>> members = Collections.emptyMap();
+        Map<Integer, Long> weights = new HashMap<>();
+        if (k > 0) {
+            Broadcast<CentroidIndex> finalIndex = sparkCtx.broadcast(CentroidIndex.of(metricChoice, centroids, dimension));
+            if (provenance) {
+                members = members(measRDD, finalIndex);
+                for (Map.Entry<Integer, Set<UniquelyIdentifiable>> entry : members.entrySet()) {
+                    weights.put(entry.getKey(), (long) entry.getValue().size());
+                }
+            } else {
+                weights = pointRDD
+                        .map((Function<double[], Integer>) point -> finalIndex.value().nearest(point, 0))
+                        .countByValue();
+            }
+            finalIndex.destroy();
         }
+        pointRDD.unpersist();
 
-        // After the iterations, do a final step that will map the initial measurements to their closest centroids
-        JavaPairRDD<Measurement, Iterable<Measurement>> results = measRDD
-                .mapToPair(
-                        new SparkClosestCentroidStep(centroids.collect(), distanceMetric)
-                ).groupByKey();
-
-        Map<Measurement, Iterable<Measurement>> resultMapping = results.collectAsMap();
-        List<Measurement> finalCentroids = new ArrayList<>();
-        for (Measurement centroid : resultMapping.keySet()) {
-            Measurement finalCentroid = context.newInputMeasurement();
-            finalCentroid.setVector(centroid.getVector());
-            Set<Measurement> parents = Sets.newHashSet(resultMapping.get(centroid));
-            finalCentroid.setParents(Sets.newHashSet(parents));
-            finalCentroid.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, parents.size());
-
-            finalCentroids.add(
-                finalCentroid
-            );
-        }
+        List<Measurement> finalCentroids = centroids(members, weights, centroids, k, dimension, context);
 
         // Return the result of the aggregation
         KMeansAggregation aggr = new KMeansAggregation(
                 dataset,
                 numCentroids,
                 maxIterations,
-                Lists.newArrayList(measurements),
+                measurementList,
                 finalCentroids
         );
         aggr.setComponents(finalCentroids);
+        aggr.setPerformedIterations(iterations);
 
         return Lists.newArrayList(
                 new AggregationResult<>(
@@ -136,4 +199,188 @@ public class SparkKMeansAggregator extends AbstractKMeansAggregator {
                 )
         );
     }
+
+    /**
+     * Moves every centroid to the mean of its points. Each partition sums its points per centroid, and only these
+     * sums are merged on the driver.
+     *
+     * @param pointRDD Points to cluster
+     * @param index Broadcast index of the current centroids
+     * @param current Current centroids, as a flat array
+     * @param dimension Dimension of the points
+     * @return New centroids, centroids without points stay where they are
+     */
+    private static double[] means(JavaRDD<double[]> pointRDD,
+                                  Broadcast<CentroidIndex> index,
+                                  double[] current,
+                                  int dimension) {
+        int k = current.length / dimension;
+
+        return pointRDD
+                .mapPartitions((FlatMapFunction<Iterator<double[]>, PartialSums>) partition -> {
+                    CentroidIndex centroidIndex = index.value();
+                    PartialSums partitionSums = new PartialSums(k, dimension);
+                    while (partition.hasNext()) {
+                        double[] point = partition.next();
+                        partitionSums.add(centroidIndex.nearest(point, 0), point, 0, 1.0);
+                    }
+
+                    return Collections.singletonList(partitionSums);
+                })
+                .reduce((Function2<PartialSums, PartialSums, PartialSums>) PartialSums::merge)
+                .means(current);
+    }
+
+    /**
+     * Moves every centroid to the median or the medoid of its points. Each partition samples at most
+     * {@link #CENTER_SAMPLE_SIZE} points per centroid, and only these samples are merged on the driver. The keys of
+     * the samples only depend on the position of a point in its partition, so the samples, and therefore the centers,
+     * no longer change once the assignment of the points is stable.
+     *
+     * @param pointRDD Points to cluster
+     * @param index Broadcast index of the current centroids
+     * @param current Current centroids, as a flat array
+     * @param dimension Dimension of the points
+     * @param update Center to calculate
+     * @param metricChoice Distance metric to find the medoids with
+     * @return New centroids, centroids without points stay where they are
+     */
+    private static double[] centers(JavaRDD<double[]> pointRDD,
+                                    Broadcast<CentroidIndex> index,
+                                    double[] current,
+                                    int dimension,
+                                    CenterUpdate update,
+                                    DistanceMetricChoice metricChoice) {
+        int k = current.length / dimension;
+
+        return pointRDD
+                .mapPartitionsWithIndex((Function2<Integer, Iterator<double[]>, Iterator<PartialSamples>>) (partitionIndex, partition) -> {
+                    CentroidIndex centroidIndex = index.value();
+                    PartialSamples partitionSamples = new PartialSamples(k, dimension, CENTER_SAMPLE_SIZE);
+                    Random random = new Random(partitionIndex);
+                    while (partition.hasNext()) {
+                        double[] point = partition.next();
+                        partitionSamples.add(centroidIndex.nearest(point, 0), point, 0, random.nextDouble());
+                    }
+
+                    return Collections.singletonList(partitionSamples).iterator();
+                }, false)
+                .reduce((Function2<PartialSamples, PartialSamples, PartialSamples>) PartialSamples::merge)
+                .centers(current, update, metricChoice.getMetric());
+    }
+
+    /**
+     * Groups the identifiers of the measurements by their closest centroid. The groups are built within each
+     * partition first, so only the merged groups of the k centroids are sent to the driver.
+     *
+     * @param measRDD Measurements to group
+     * @param index Broadcast index of the final centroids
+     * @return Parents of every centroid that has any, by index of the centroid
+     */
+    private static Map<Integer, Set<UniquelyIdentifiable>> members(JavaRDD<Measurement> measRDD,
+                                                                   Broadcast<CentroidIndex> index) {
+        return measRDD
+                .mapToPair((PairFunction<Measurement, Integer, UniquelyIdentifiable>) meas -> new Tuple2<>(
+                        index.value().nearest(ArrayUtils.toPrimitive(meas.getVector()), 0),
+                        new BasicParent(meas.getUuid())
+                ))
+                .aggregateByKey(
+                        new HashSet<>(),
+                        (Function2<Set<UniquelyIdentifiable>, UniquelyIdentifiable, Set<UniquelyIdentifiable>>) (parents, parent) -> {
+                            parents.add(parent);
+                            return parents;
+                        },
+                        (Function2<Set<UniquelyIdentifiable>, Set<UniquelyIdentifiable>, Set<UniquelyIdentifiable>>) (parents1, parents2) -> {
+                            parents1.addAll(parents2);
+                            return parents1;
+                        }
+                )
+                .collectAsMap();
+    }
+
+    /**
+     * Creates the output measurements for the final centroids
+     *
+     * @param members Parents of every centroid that has any, empty if no provenance is written
+     * @param weights Number of measurements of every centroid that has any
+     * @param centroids Final centroids, as a flat array
+     * @param k Number of centroids
+     * @param dimension Dimension of the centroids
+     * @param context Context of the operation
+     * @return Output measurement for each centroid
+     */
+    private static List<Measurement> centroids(Map<Integer, Set<UniquelyIdentifiable>> members,
+                                               Map<Integer, Long> weights,
+                                               double[] centroids,
+                                               int k,
+                                               int dimension,
+                                               AggrContext context) {
+        List<Measurement> result = new ArrayList<>(k);
+        for (int j = 0; j < k; j++) {
+            Double[] vector = new Double[dimension];
+            for (int d = 0; d < dimension; d++) {
+                vector[d] = centroids[j * dimension + d];
+            }
+
+            Measurement centroid = context.newOutputMeasurement();
+            centroid.setVector(vector);
+            centroid.setParents(members.getOrDefault(j, new HashSet<>()));
+            centroid.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, weights.getOrDefault(j, 0L));
+
+            result.add(centroid);
+        }
+
+        return result;
+    }
+
+    /**
+     * Moves the centroids using random batches of points. All batches are drawn up front, in a single sample of the
+     * RDD that is collected to the driver, after which the iterations only run on the driver.
+     *
+     * @param pointRDD Points to sample from
+     * @param seeds Initial centroids
+     * @param metricChoice Distance metric to use
+     * @param strategy Strategy that decides when to stop processing batches
+     * @param batchSize Number of points in each batch
+     * @param maxIterations Maximum number of batches to process
+     * @return Final centroids, as a flat array, and the number of processed batches
+     */
+    private Tuple2<double[], Integer> miniBatch(JavaRDD<double[]> pointRDD,
+                                                Points seeds,
+                                                DistanceMetricChoice metricChoice,
+                                                IterationStrategy strategy,
+                                                int batchSize,
+                                                int maxIterations) {
+        MiniBatchEngine engine = new MiniBatchEngine(metricChoice, batchSize);
+        int dimension = seeds.dimension();
+        double[] centroids = seeds.getCoords().clone();
+        double[] seen = new double[seeds.size()];
+
+        // The batches are consecutive slices of the sample. If there are fewer points than all batches together,
+        // the sample holds every point in random order, and the slices wrap around.
+        int sampleSize = (int) Math.min(Integer.MAX_VALUE, (long) batchSize * maxIterations);
+        List<double[]> sample = pointRDD.takeSample(false, sampleSize, new Random().nextLong());
+        double[] coords = new double[sample.size() * dimension];
+        for (int i = 0; i < sample.size(); i++) {
+            System.arraycopy(sample.get(i), 0, coords, i * dimension, dimension);
+        }
+        Points pool = new Points(coords, null, dimension);
+        int[] batch = new int[Math.min(batchSize, pool.size())];
+
+        int iterations = 0;
+        boolean proceed = seeds.size() > 0 && pool.size() > 0;
+        while (proceed) {
+            for (int b = 0; b < batch.length; b++) {
+                batch[b] = (int) (((long) iterations * batch.length + b) % pool.size());
+            }
+
+            double[] previous = centroids.clone();
+            engine.step(pool, batch, centroids, seen);
+
+            iterations++;
+            proceed = strategy.shouldContinue(iterations, previous, centroids, dimension);
+        }
+
+        return new Tuple2<>(centroids, iterations);
+    }
 }
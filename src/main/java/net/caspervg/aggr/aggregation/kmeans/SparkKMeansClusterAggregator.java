@@ -1,20 +1,28 @@
 package net.caspervg.aggr.aggregation.kmeans;
 
 import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.kmeans.engine.KMeansEngineChoice;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.aggregation.kmeans.seed.SeedingChoice;
 import net.caspervg.aggr.core.bean.Dataset;
 import net.caspervg.aggr.core.bean.Measurement;
 import net.caspervg.aggr.core.bean.UniquelyIdentifiable;
+import net.caspervg.aggr.core.bean.impl.BasicParent;
 import net.caspervg.aggr.aggregation.AggregationResult;
 import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
 import net.caspervg.aggr.core.util.AggrContext;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.function.Function;
+import org.apache.spark.api.java.function.Function2;
+import org.apache.spark.api.java.function.PairFunction;
 import org.apache.spark.mllib.clustering.KMeans;
 import org.apache.spark.mllib.clustering.KMeansModel;
 import org.apache.spark.mllib.linalg.Vector;
 import org.apache.spark.mllib.linalg.Vectors;
 import org.apache.spark.rdd.RDD;
+import scala.Tuple2;
 
 import java.io.Serializable;
 import java.util.*;
@@ -22,15 +30,31 @@ import java.util.*;
 /**
  * {@inheritDoc}
  *
- * @implNote uses Spark to perform the aggregation. In particular, the static {@link KMeans#train(RDD, int, int)}
+ * @implNote uses Spark to perform the aggregation. In particular, the {@link KMeans#run(RDD)}
  * method that is supplied by the Spark-MLLib library. However, this implementation does not support
- * selecting a different distance metric.
+ * selecting a different distance metric. The k-means|| seeding is done by the library itself, other seeding
+ * strategies choose the seeds locally and pass them as the initial model. The library stops iterating once no
+ * centroid moves more than the {@link #EPSILON_PARAM}, but does not report how many iterations it performed, so
+ * the number of performed iterations is not recorded.
+ * The weights of the centroids are counted on the executors. The parents are only grouped, by identifier, when the
+ * {@link #PROVENANCE_PARAM} is set.
  */
 public class SparkKMeansClusterAggregator extends AbstractKMeansAggregator implements Serializable {
+
+    public SparkKMeansClusterAggregator() {
+        super();
+    }
+
+    public SparkKMeansClusterAggregator(Iterable<Measurement> initialCentroids) {
+        super(initialCentroids);
+    }
+
     @Override
     public Iterable<AggregationResult<KMeansAggregation, Measurement>> aggregate(Dataset dataset,
                                                                               Iterable<Measurement> measurements,
                                                                               AggrContext context) {
+        requireFixedClusters(context);
+
         Objects.requireNonNull(context.getSparkContext());
 
         int maxIterations = Integer.parseInt(
@@ -39,6 +63,12 @@ public class SparkKMeansClusterAggregator extends AbstractKMeansAggregator imple
         int numClusters = Integer.parseInt(
                 context.getParameters().getOrDefault(CENTROIDS_PARAM, DEFAULT_NUM_CENTROIDS)
         );
+        KMeansEngineChoice engineChoice = KMeansEngineChoice.valueOf(
+                context.getParameters().getOrDefault(ALGORITHM_PARAM, DEFAULT_ALGORITHM)
+        );
+        if (engineChoice == KMeansEngineChoice.HAMERLY) {
+            throw new IllegalArgumentException("The " + engineChoice + " algorithm is not supported with Spark");
+        }
 
         List<Measurement> measurementList = Lists.newArrayList(measurements);
         JavaRDD<Measurement> measRDD = context.getSparkContext().parallelize(measurementList);
@@ -51,29 +81,71 @@ public class SparkKMeansClusterAggregator extends AbstractKMeansAggregator imple
         });
         vecRDD.cache();
 
-        KMeansModel clusters = KMeans.train(vecRDD.rdd(), numClusters, maxIterations);
+        SeedingChoice seedingChoice = SeedingChoice.valueOf(
+                context.getParameters().getOrDefault(SEEDING_PARAM, DEFAULT_SEEDING)
+        );
 
-        Vector[] centers = clusters.clusterCenters();
-        List<Integer> predictedIndices = clusters.predict(vecRDD).collect();
+        double epsilon = Double.parseDouble(
+                context.getParameters().getOrDefault(EPSILON_PARAM, DEFAULT_EPSILON)
+        );
 
-        List<Set<UniquelyIdentifiable>> centroidParentsList = new ArrayList<>();
-        for (Vector ignored : centers) {
-            centroidParentsList.add(new HashSet<>());
+        // MLlib stops once no centroid moved more than epsilon. A negative epsilon stops once the centroids no longer
+        // change at all, which gives the same centroids as performing all iterations.
+        KMeans kMeans = new KMeans()
+                .setK(numClusters)
+                .setMaxIterations(maxIterations)
+                .setEpsilon(Math.max(epsilon, 0));
+        if (!initialCentroids.isEmpty()) {
+            // Continue from the centroids of a previous aggregation
+            Points seeds = initialSeeds(measurementList);
+            Vector[] seedVectors = new Vector[seeds.size()];
+            for (int j = 0; j < seeds.size(); j++) {
+                seedVectors[j] = Vectors.dense(
+                        Arrays.copyOfRange(seeds.getCoords(), seeds.offset(j), seeds.offset(j) + seeds.dimension())
+                );
+            }
+            kMeans.setK(seedVectors.length).setInitialModel(new KMeansModel(seedVectors));
+        } else if (seedingChoice == SeedingChoice.KMEANS_PARALLEL) {
+            kMeans.setInitializationMode(KMeans.K_MEANS_PARALLEL());
+        } else if (seedingChoice == SeedingChoice.RANDOM) {
+            kMeans.setInitializationMode(KMeans.RANDOM());
+        } else {
+            Set<Measurement> seeds = seedingChoice
+                    .getStrategy(DistanceMetricChoice.EUCLIDEAN)
+                    .seeds(measurementList, Math.min(numClusters, measurementList.size()));
+            Vector[] seedVectors = seeds.stream()
+                    .map(seed -> Vectors.dense(ArrayUtils.toPrimitive(seed.getVector())))
+                    .toArray(Vector[]::new);
+            kMeans.setK(seedVectors.length).setInitialModel(new KMeansModel(seedVectors));
         }
+        KMeansModel clusters = kMeans.run(vecRDD.rdd());
+
+        Vector[] centers = clusters.clusterCenters();
+        boolean provenance = Boolean.parseBoolean(
+                context.getParameters().getOrDefault(PROVENANCE_PARAM, DEFAULT_PROVENANCE)
+        );
 
-        for (int i = 0; i < predictedIndices.size(); i++) {
-            int predictedIndex = predictedIndices.get(i);
-            Set<UniquelyIdentifiable> parents = centroidParentsList.get(predictedIndex);
-            parents.add(measurementList.get(i));
+        // Only the k memberships or weights are collected to the driver
+        Map<Integer, Set<UniquelyIdentifiable>> members = Collections.emptyMap();
+        Map<Integer, Long> weights;
+        if (provenance) {
+            members = members(measRDD, clusters);
+            weights = new HashMap<>();
+            for (Map.Entry<Integer, Set<UniquelyIdentifiable>> entry : members.entrySet()) {
+                weights.put(entry.getKey(), (long) entry.getValue().size());
+            }
+        } else {
+            weights = clusters.predict(vecRDD).countByValue();
         }
+        vecRDD.unpersist();
 
         List<Measurement> centroidList = new ArrayList<>();
-        for (int i = 0; i < centroidParentsList.size(); i++) {
+        for (int i = 0; i < centers.length; i++) {
             Double[] centerVec = ArrayUtils.toObject(centers[i].toArray());
             Measurement centroid = context.newOutputMeasurement();
             centroid.setVector(centerVec);
-            centroid.setParents(centroidParentsList.get(i));
-            centroid.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, centroidParentsList.get(i).size());
+            centroid.setParents(members.getOrDefault(i, new HashSet<>()));
+            centroid.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, weights.getOrDefault(i, 0L));
 
             centroidList.add(
                     centroid
@@ -83,7 +155,7 @@ public class SparkKMeansClusterAggregator extends AbstractKMeansAggregator imple
         // Return the result of the aggregation
         KMeansAggregation aggr = new KMeansAggregation(
                 dataset,
-                numClusters,
+                clusters.k(),
                 maxIterations,
                 measurementList,
                 centroidList
@@ -97,4 +169,32 @@ public class SparkKMeansClusterAggregator extends AbstractKMeansAggregator imple
                 )
         );
     }
+
+    /**
+     * Groups the identifiers of the measurements by their closest centroid. The groups are built within each
+     * partition first, so only the merged groups of the k centroids are sent to the driver.
+     *
+     * @param measRDD Measurements to group
+     * @param model Model that holds the final centroids
+     * @return Parents of every centroid that has any, by index of the centroid
+     */
+    private static Map<Integer, Set<UniquelyIdentifiable>> members(JavaRDD<Measurement> measRDD, KMeansModel model) {
+        return measRDD
+                .mapToPair((PairFunction<Measurement, Integer, UniquelyIdentifiable>) meas -> new Tuple2<>(
+                        model.predict(Vectors.dense(ArrayUtils.toPrimitive(meas.getVector()))),
+                        new BasicParent(meas.getUuid())
+                ))
+                .aggregateByKey(
+                        new HashSet<>(),
+                        (Function2<Set<UniquelyIdentifiable>, UniquelyIdentifiable, Set<UniquelyIdentifiable>>) (parents, parent) -> {
+                            parents.add(parent);
+                            return parents;
+                        },
+                        (Function2<Set<UniquelyIdentifiable>, Set<UniquelyIdentifiable>, Set<UniquelyIdentifiable>>) (parents1, parents2) -> {
+                            parents1.addAll(parents2);
+                            return parents1;
+                        }
+                )
+                .collectAsMap();
+    }
 }
@@ -0,0 +1,225 @@
+package net.caspervg.aggr.aggregation.kmeans;
+
+import com.google.common.collect.AbstractIterator;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.aggregation.time.AbstractTimeAggregator;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.distance.DistanceMetric;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+
+import java.util.*;
+
+/**
+ * {@inheritDoc}
+ *
+ * @implNote uses the Java programming model on an unbounded sequence of measurements, with sequential (online)
+ * k-Means. The first distinct measurements become the centroids, unless centroids of a previous aggregation are
+ * given. Every next measurement moves its closest centroid towards itself, with a learning rate of its weight over
+ * the total weight of the centroid. Before that, the weights of all centroids decay with the {@link #DECAY_PARAM}, so
+ * that older measurements count less and the centroids follow the data when it changes. The measurements are
+ * consumed lazily while the results are traversed, and a snapshot of the centroids is returned every
+ * {@link #CHECKPOINT_PARAM} measurements and at the end of the input. Only the centroids and their weights are kept,
+ * so memory use does not depend on the number of measurements; the centroids therefore have no parents.
+ */
+public class StreamingKMeansAggregator extends AbstractKMeansAggregator {
+
+    public StreamingKMeansAggregator() {
+        super();
+    }
+
+    public StreamingKMeansAggregator(Iterable<Measurement> initialCentroids) {
+        super(initialCentroids);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param dataset {@inheritDoc}
+     * @param measurements Measurements to aggregate, possibly without end
+     * @param context {@inheritDoc}
+     * @return Lazily calculated snapshots of the centroids
+     * @throws IllegalArgumentException if the decay is not in (0, 1] or the checkpoint interval is not positive, or if
+     * a window, hierarchy or coreset is set
+     */
+    @Override
+    public Iterable<AggregationResult<KMeansAggregation, Measurement>> aggregate(Dataset dataset,
+                                                                              Iterable<Measurement> measurements,
+                                                                              AggrContext context) {
+        requireFixedClusters(context);
+        rejectOptions(context, AbstractTimeAggregator.WINDOW_PARAM, HIERARCHY_PARAM, CORESET_GRID_SIZE_PARAM);
+
+        DistanceMetricChoice metricChoice = DistanceMetricChoice.valueOf(
+                context.getParameters().getOrDefault(METRIC_PARAM, DEFAULT_DISTANCE_METRIC)
+        );
+        int numCentroids = Integer.parseInt(
+                context.getParameters().getOrDefault(CENTROIDS_PARAM, DEFAULT_NUM_CENTROIDS)
+        );
+        double decay = Double.parseDouble(
+                context.getParameters().getOrDefault(DECAY_PARAM, DEFAULT_DECAY)
+        );
+        long checkpoint = Long.parseLong(
+                context.getParameters().getOrDefault(CHECKPOINT_PARAM, DEFAULT_CHECKPOINT)
+        );
+
+        if (decay <= 0 || decay > 1) {
+            throw new IllegalArgumentException("Decay must be in (0, 1]");
+        }
+        if (checkpoint < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be at least 1");
+        }
+
+        return () -> new SnapshotIterator(
+                dataset,
+                measurements.iterator(),
+                initialCentroids.isEmpty() ? numCentroids : initialCentroids.size(),
+                metricChoice.getMetric(),
+                decay,
+                checkpoint,
+                context
+        );
+    }
+
+    private class SnapshotIterator extends AbstractIterator<AggregationResult<KMeansAggregation, Measurement>> {
+
+        private final Dataset dataset;
+        private final Iterator<Measurement> measurements;
+        private final DistanceMetric<Double> metric;
+        private final double decay;
+        private final long checkpoint;
+        private final AggrContext context;
+
+        private final int capacity;
+        private double[] centroids;
+        private final double[] weights;
+        private double[] point;
+        private int k;
+        private int dimension;
+
+        private long seen;
+        private boolean finished;
+
+        SnapshotIterator(Dataset dataset,
+                         Iterator<Measurement> measurements,
+                         int capacity,
+                         DistanceMetric<Double> metric,
+                         double decay,
+                         long checkpoint,
+                         AggrContext context) {
+            this.dataset = dataset;
+            this.measurements = measurements;
+            this.metric = metric;
+            this.decay = decay;
+            this.checkpoint = checkpoint;
+            this.context = context;
+            this.capacity = capacity;
+            this.weights = new double[capacity];
+
+            if (!initialCentroids.isEmpty()) {
+                // Continue from the centroids of a previous aggregation, which keep their weights
+                this.centroids = Points.of(initialCentroids).getCoords();
+                this.dimension = centroids.length / capacity;
+                this.k = capacity;
+                for (int j = 0; j < k; j++) {
+                    weights[j] = WeightedGeoMeasurement.weightOf(initialCentroids.get(j));
+                }
+            }
+        }
+
+        @Override
+        protected AggregationResult<KMeansAggregation, Measurement> computeNext() {
+            if (finished) {
+                return endOfData();
+            }
+
+            while (measurements.hasNext()) {
+                Measurement measurement = measurements.next();
+                update(measurement.getVector(), WeightedGeoMeasurement.weightOf(measurement));
+
+                if (++seen % checkpoint == 0) {
+                    return snapshot();
+                }
+            }
+
+            // The input is exhausted, the last snapshot holds the final centroids
+            finished = true;
+            return seen % checkpoint == 0 ? endOfData() : snapshot();
+        }
+
+        private void update(Double[] vector, double weight) {
+            if (centroids == null) {
+                dimension = vector.length;
+                centroids = new double[capacity * dimension];
+            }
+            if (vector.length != dimension) {
+                throw new IllegalArgumentException("Measurement has dimension " + vector.length +
+                        ", but the centroids have dimension " + dimension);
+            }
+            if (point == null) {
+                point = new double[dimension];
+            }
+
+            for (int d = 0; d < dimension; d++) {
+                point[d] = vector[d];
+            }
+
+            int closest = -1;
+            double minimumDistance = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < k; j++) {
+                weights[j] *= decay;
+
+                double distance = metric.distance(centroids, j * dimension, point, 0, dimension);
+                if (distance < minimumDistance) {
+                    minimumDistance = distance;
+                    closest = j;
+                }
+            }
+
+            // Every distinct measurement becomes a centroid until there are enough of them
+            if (k < capacity && minimumDistance > 0) {
+                System.arraycopy(point, 0, centroids, k * dimension, dimension);
+                weights[k++] = weight;
+                return;
+            }
+
+            weights[closest] += weight;
+            double rate = weights[closest] > 0 ? weight / weights[closest] : 0;
+            for (int d = 0; d < dimension; d++) {
+                int index = closest * dimension + d;
+                centroids[index] += rate * (point[d] - centroids[index]);
+            }
+        }
+
+        private AggregationResult<KMeansAggregation, Measurement> snapshot() {
+            List<Measurement> centroidMeasurements = new ArrayList<>(k);
+            for (int j = 0; j < k; j++) {
+                Double[] vector = new Double[dimension];
+                for (int d = 0; d < dimension; d++) {
+                    vector[d] = centroids[j * dimension + d];
+                }
+
+                Measurement centroid = context.newOutputMeasurement();
+                centroid.setVector(vector);
+                centroid.setParents(new HashSet<>());
+                centroid.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, weights[j]);
+
+                centroidMeasurements.add(centroid);
+            }
+
+            KMeansAggregation aggr = new KMeansAggregation(
+                    dataset,
+                    k,
+                    1,
+                    new ArrayList<>(),
+                    centroidMeasurements
+            );
+            aggr.setComponents(centroidMeasurements);
+            aggr.setMeasurements(seen);
+
+            return new AggregationResult<>(aggr, centroidMeasurements);
+        }
+    }
+}
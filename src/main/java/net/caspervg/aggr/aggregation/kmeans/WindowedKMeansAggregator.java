@@ -0,0 +1,266 @@
+package net.caspervg.aggr.aggregation.kmeans;
+
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.kmeans.engine.Clustering;
+import net.caspervg.aggr.aggregation.kmeans.engine.KMeansEngineChoice;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.aggregation.kmeans.iteration.IterationStrategy;
+import net.caspervg.aggr.aggregation.kmeans.seed.SeedingChoice;
+import net.caspervg.aggr.aggregation.kmeans.seed.SeedingStrategy;
+import net.caspervg.aggr.aggregation.time.AbstractTimeAggregator;
+import net.caspervg.aggr.aggregation.time.window.WindowStrategy;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.bean.UniquelyIdentifiable;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * {@inheritDoc}
+ *
+ * @implNote uses the Java programming model to cluster every calendar-aligned window of the {@link AbstractTimeAggregator#WINDOW_PARAM}
+ * separately, e.g. to find the hotspots of every hour. The measurements are assigned to their windows like the time
+ * aggregation does. Every window is seeded with the centroids of the window before, so that consecutive windows
+ * converge quickly and their centroids stay in place where the data does not change. To still cluster the windows
+ * concurrently, the seeds are first chained through all windows on a sample of at most {@link #SAMPLE_SIZE}
+ * measurements per window, which only takes a few cheap iterations per window. The first window is seeded with the
+ * {@link #SEEDING_PARAM}, or with the centroids of a previous aggregation if they are given. While there are fewer
+ * seeds than centroids, because the windows so far had fewer distinct measurements, every next window adds seeds from
+ * its own sample with the {@link #SEEDING_PARAM}. Centroids that end up without measurements in a window are left out
+ * of the result of that window, but still seed the next window. Once the seeds are chained, every window
+ * is clustered on all of its measurements, starting from its chained seeds, with all windows running in parallel.
+ * One aggregation is returned per window, in the order of the windows.
+ */
+public class WindowedKMeansAggregator extends AbstractKMeansAggregator {
+
+    /**
+     * Maximum number of measurements of every window to chain the seeds on
+     */
+    public static final int SAMPLE_SIZE = 1000;
+
+    public WindowedKMeansAggregator() {
+        super();
+    }
+
+    public WindowedKMeansAggregator(Iterable<Measurement> initialCentroids) {
+        super(initialCentroids);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param dataset {@inheritDoc}
+     * @param measurements {@inheritDoc}
+     * @param context {@inheritDoc}
+     * @return One result per window
+     * @throws IllegalArgumentException if no window is set, or if a hierarchy or coreset is set
+     */
+    @SuppressWarnings("OptionalGetWithoutIsPresent")
+    @Override
+    public Iterable<AggregationResult<KMeansAggregation, Measurement>> aggregate(Dataset dataset,
+                                                                              Iterable<Measurement> measurements,
+                                                                              AggrContext context) {
+        requireFixedClusters(context);
+        rejectOptions(context, HIERARCHY_PARAM, CORESET_GRID_SIZE_PARAM);
+
+        WindowStrategy window = AbstractTimeAggregator.windowStrategy(context.getParameters())
+                .orElseThrow(() -> new IllegalArgumentException("Clustering per window needs a window unit"));
+
+        DistanceMetricChoice metricChoice = DistanceMetricChoice.valueOf(
+                context.getParameters().getOrDefault(METRIC_PARAM, DEFAULT_DISTANCE_METRIC)
+        );
+        KMeansEngineChoice engineChoice = KMeansEngineChoice.valueOf(
+                context.getParameters().getOrDefault(ALGORITHM_PARAM, DEFAULT_ALGORITHM)
+        );
+        if (engineChoice == KMeansEngineChoice.HAMERLY && !metricChoice.satisfiesTriangleInequality()) {
+            throw new IllegalArgumentException("The " + metricChoice + " metric does not satisfy the triangle inequality");
+        }
+        SeedingChoice seedingChoice = SeedingChoice.valueOf(
+                context.getParameters().getOrDefault(SEEDING_PARAM, DEFAULT_SEEDING)
+        );
+        int maxIterations = Integer.parseInt(
+                context.getParameters().getOrDefault(ITERATIONS_PARAM, DEFAULT_MAX_ITERATIONS)
+        );
+        int numCentroids = Integer.parseInt(
+                context.getParameters().getOrDefault(CENTROIDS_PARAM, DEFAULT_NUM_CENTROIDS)
+        );
+        IterationStrategy strategy = iterationStrategy(context, metricChoice.getMetric());
+
+        // Assign every measurement to its windows, ordered by the start of the window
+        List<Measurement> measurementList = new ArrayList<>();
+        SortedMap<Long, List<Measurement>> measurementsPerWindow = new TreeMap<>();
+        for (Measurement measurement : measurements) {
+            measurementList.add(measurement);
+            long time = AbstractTimeAggregator.toEpochMilli(measurement.getTimestamp().get());
+            for (long windowStart : window.windowStarts(time)) {
+                measurementsPerWindow.computeIfAbsent(windowStart, start -> new ArrayList<>()).add(measurement);
+            }
+        }
+        List<Long> windowStarts = new ArrayList<>(measurementsPerWindow.keySet());
+        List<List<Measurement>> windows = new ArrayList<>(measurementsPerWindow.values());
+
+        // Chain the seeds through the windows, on a sample of every window
+        int k = initialCentroids.isEmpty() ? numCentroids : initialCentroids.size();
+        SeedingStrategy seedingStrategy = seedingChoice.getStrategy(metricChoice);
+        double[][] seeds = new double[windows.size()][];
+        double[] previous = initialCentroids.isEmpty() ? new double[0] : initialSeeds(measurementList).getCoords();
+        for (int w = 0; w < windows.size(); w++) {
+            List<Measurement> sample = sample(windows.get(w));
+            previous = topUp(previous, sample, k, seedingStrategy);
+
+            seeds[w] = engineChoice.getEngine(metricChoice, context.getParameters())
+                    .cluster(Points.of(sample), previous, strategy)
+                    .getCentroids();
+            previous = seeds[w];
+        }
+
+        // Every window only depends on its own seeds now, so the windows are clustered concurrently
+        return IntStream.range(0, windows.size())
+                .parallel()
+                .mapToObj(w -> {
+                    List<Measurement> windowMeasurements = windows.get(w);
+                    Clustering clustering = engineChoice.getEngine(metricChoice, context.getParameters())
+                            .cluster(Points.of(windowMeasurements), seeds[w], strategy);
+                    List<Measurement> centroids = centroids(windowMeasurements, clustering, context);
+
+                    KMeansAggregation aggr = new KMeansAggregation(
+                            dataset,
+                            centroids.size(),
+                            maxIterations,
+                            windowMeasurements,
+                            centroids
+                    );
+                    aggr.setComponents(centroids);
+                    aggr.setSkippedDistances(clustering.getSkippedDistances());
+                    aggr.setPerformedIterations(clustering.getIterations());
+
+                    long windowStart = windowStarts.get(w);
+                    aggr.setWindow(
+                            AbstractTimeAggregator.fromEpochMilli(windowStart),
+                            AbstractTimeAggregator.fromEpochMilli(window.windowEnd(windowStart))
+                    );
+
+                    return new AggregationResult<>(aggr, centroids);
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Takes measurements at regular steps through the window
+     *
+     * @param measurements Measurements of the window
+     * @return At most {@link #SAMPLE_SIZE} measurements of the window
+     */
+    private static List<Measurement> sample(List<Measurement> measurements) {
+        if (measurements.size() <= SAMPLE_SIZE) {
+            return measurements;
+        }
+
+        double step = measurements.size() / (double) SAMPLE_SIZE;
+        List<Measurement> sample = new ArrayList<>(SAMPLE_SIZE);
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            sample.add(measurements.get((int) (i * step)));
+        }
+
+        return sample;
+    }
+
+    /**
+     * Adds seeds from the sample of a window until there are {@code k} seeds. The first window gets all of its seeds
+     * this way, and a window that had fewer distinct measurements than {@code k} leaves the next window to add the rest.
+     *
+     * @param seeds Components of the seeds so far, one seed after the other
+     * @param sample Sample of the window
+     * @param k Number of seeds to reach
+     * @param seedingStrategy Strategy to select the new seeds with
+     * @return Components of the seeds, the given seeds first
+     */
+    private static double[] topUp(double[] seeds, List<Measurement> sample, int k, SeedingStrategy seedingStrategy) {
+        if (sample.isEmpty()) {
+            return seeds;
+        }
+        int dimension = sample.get(0).getVector().length;
+        int missing = k - seeds.length / dimension;
+        if (missing <= 0) {
+            return seeds;
+        }
+
+        // Only measurements that do not coincide with a seed yet can become a new seed
+        Set<List<Double>> taken = new HashSet<>();
+        for (int offset = 0; offset < seeds.length; offset += dimension) {
+            List<Double> vector = new ArrayList<>(dimension);
+            for (int d = 0; d < dimension; d++) {
+                vector.add(seeds[offset + d]);
+            }
+            taken.add(vector);
+        }
+        List<Measurement> candidates = new ArrayList<>();
+        for (Measurement measurement : sample) {
+            if (taken.add(Arrays.asList(measurement.getVector()))) {
+                candidates.add(measurement);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return seeds;
+        }
+
+        double[] added = Points.of(new ArrayList<>(
+                seedingStrategy.seeds(candidates, Math.min(missing, candidates.size()))
+        )).getCoords();
+        double[] all = Arrays.copyOf(seeds, seeds.length + added.length);
+        System.arraycopy(added, 0, all, seeds.length, added.length);
+
+        return all;
+    }
+
+    /**
+     * Creates the output measurements for the centroids of a window, with the measurements assigned to them as
+     * parents. Centroids without any measurement of the window are left out, e.g. when the window has fewer
+     * measurements than centroids.
+     *
+     * @param measurements Measurements of the window
+     * @param clustering Clustering of the window
+     * @param context Context of the operation
+     * @return Output measurement for each centroid with measurements
+     */
+    private static List<Measurement> centroids(List<Measurement> measurements, Clustering clustering, AggrContext context) {
+        int k = clustering.getK();
+        int dimension = clustering.getDimension();
+
+        List<Set<UniquelyIdentifiable>> parents = new ArrayList<>(k);
+        for (int j = 0; j < k; j++) {
+            parents.add(new HashSet<>());
+        }
+        int[] assignment = clustering.getAssignment();
+        for (int i = 0; i < assignment.length; i++) {
+            parents.get(assignment[i]).add(measurements.get(i));
+        }
+
+        double[] coords = clustering.getCentroids();
+        List<Measurement> centroids = new ArrayList<>(k);
+        for (int j = 0; j < k; j++) {
+            if (parents.get(j).isEmpty()) {
+                continue;
+            }
+
+            Double[] vector = new Double[dimension];
+            for (int d = 0; d < dimension; d++) {
+                vector[d] = coords[j * dimension + d];
+            }
+
+            Measurement centroid = context.newOutputMeasurement();
+            centroid.setVector(vector);
+            centroid.setParents(parents.get(j));
+            centroid.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, (double) parents.get(j).size());
+
+            centroids.add(centroid);
+        }
+
+        return centroids;
+    }
+}
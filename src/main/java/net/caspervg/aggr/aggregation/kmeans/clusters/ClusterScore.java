@@ -0,0 +1,37 @@
+package net.caspervg.aggr.aggregation.kmeans.clusters;
+
+import net.caspervg.aggr.aggregation.kmeans.engine.Clustering;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+
+import java.util.SortedMap;
+
+/**
+ * Scores the clusterings for different numbers of clusters, so that the best number of clusters can be selected
+ */
+public interface ClusterScore {
+    /**
+     * Calculates the score of a clustering
+     *
+     * @param points Points that were clustered
+     * @param clustering Clustering of the points
+     * @return Score of the clustering
+     */
+    double score(Points points, Clustering clustering);
+
+    /**
+     * Selects the best number of clusters
+     *
+     * @param scores Score of the clustering for every number of clusters that was tried
+     * @return Best number of clusters
+     */
+    int best(SortedMap<Integer, Double> scores);
+
+    /**
+     * Retrieves the minimum number of clusters that this score can judge
+     *
+     * @return Minimum number of clusters
+     */
+    default int minClusters() {
+        return 1;
+    }
+}
@@ -0,0 +1,85 @@
+package net.caspervg.aggr.aggregation.kmeans.clusters;
+
+import net.caspervg.aggr.aggregation.kmeans.engine.Clustering;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Selects the number of clusters automatically. A range of candidates around the number of clusters that is suggested
+ * by a {@link ClusterStrategy} is clustered concurrently, on the same points, after which every clustering is scored
+ * by a {@link ClusterScore}. The clustering of the best candidate is kept, so the points do not have to be clustered
+ * again.
+ */
+public class ClusterSelection {
+
+    private static final int STEPS_PER_OCTAVE = 4;
+
+    private ClusterScore score;
+    private SortedMap<Integer, Double> scores;
+
+    /**
+     * Creates a new ClusterSelection
+     *
+     * @param score Score to judge the clusterings with
+     */
+    public ClusterSelection(ClusterScore score) {
+        this.score = score;
+        this.scores = new TreeMap<>();
+    }
+
+    /**
+     * Clusters the points for every candidate and returns the clustering with the best score
+     *
+     * @param points Points to cluster
+     * @param suggestion Strategy that suggests the number of clusters around which the candidates are chosen
+     * @param clusterer Clusters the points into the given number of clusters
+     * @return Clustering of the best candidate
+     */
+    public Clustering select(Points points, ClusterStrategy suggestion, IntFunction<Clustering> clusterer) {
+        int[] candidates = candidates(suggestion.clusters(), score.minClusters(), points.size());
+
+        Map<Integer, Clustering> clusterings = Arrays.stream(candidates)
+                .parallel()
+                .boxed()
+                .collect(Collectors.toConcurrentMap(k -> k, clusterer::apply));
+
+        this.scores = new TreeMap<>(clusterings.entrySet()
+                .parallelStream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> score.score(points, entry.getValue()))));
+
+        return clusterings.get(score.best(scores));
+    }
+
+    /**
+     * Retrieves the score of every candidate of the last selection
+     *
+     * @return Score per number of clusters
+     */
+    public SortedMap<Integer, Double> getScores() {
+        return scores;
+    }
+
+    /**
+     * Chooses the candidates between half and twice the suggested number of clusters, spaced evenly on a
+     * logarithmic scale
+     *
+     * @param suggested Suggested number of clusters
+     * @param min Minimum number of clusters
+     * @param n Number of points, which is the maximum number of clusters
+     * @return Distinct candidates, in ascending order
+     */
+    public static int[] candidates(int suggested, int min, int n) {
+        int lower = Math.min(min, n);
+
+        return IntStream.rangeClosed(-STEPS_PER_OCTAVE, STEPS_PER_OCTAVE)
+                .map(step -> (int) Math.round(suggested * Math.pow(2, step / (double) STEPS_PER_OCTAVE)))
+                .map(k -> Math.max(lower, Math.min(n, k)))
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+}
@@ -0,0 +1,23 @@
+package net.caspervg.aggr.aggregation.kmeans.clusters;
+
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+import java.util.function.Function;
+
+public enum ClusterSelectionChoice {
+    NONE(metricChoice -> {
+        throw new IllegalArgumentException("No score is used if the number of clusters is not selected");
+    }),
+    ELBOW(ElbowScore::new),
+    SILHOUETTE(SilhouetteScore::new);
+
+    private Function<DistanceMetricChoice, ClusterScore> factory;
+
+    ClusterSelectionChoice(Function<DistanceMetricChoice, ClusterScore> factory) {
+        this.factory = factory;
+    }
+
+    public ClusterScore getScore(DistanceMetricChoice metricChoice) {
+        return factory.apply(metricChoice);
+    }
+}
@@ -0,0 +1,63 @@
+package net.caspervg.aggr.aggregation.kmeans.clusters;
+
+import net.caspervg.aggr.aggregation.kmeans.engine.Clustering;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.core.distance.DistanceMetric;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Scores a clustering with the (weighted) sum of the squared distances between the points and their centroids. More
+ * clusters always give a smaller sum, so the best number of clusters is the elbow of the curve: the number of clusters
+ * after which extra clusters no longer reduce the sum by much. The elbow is the point that lies furthest below the
+ * line between the first and the last point, after scaling both axes to {@code [0, 1]}.
+ */
+public class ElbowScore implements ClusterScore {
+
+    private DistanceMetric<Double> metric;
+
+    public ElbowScore(DistanceMetricChoice metricChoice) {
+        this.metric = metricChoice.getMetric();
+    }
+
+    @Override
+    public double score(Points points, Clustering clustering) {
+        double[] coords = points.getCoords();
+        double[] centroids = clustering.getCentroids();
+        int[] assignment = clustering.getAssignment();
+        int dimension = points.dimension();
+
+        double sum = 0;
+        for (int i = 0; i < points.size(); i++) {
+            double distance = metric.distance(coords, points.offset(i), centroids, assignment[i] * dimension, dimension);
+            sum += points.weight(i) * distance * distance;
+        }
+
+        return sum;
+    }
+
+    @Override
+    public int best(SortedMap<Integer, Double> scores) {
+        double minK = scores.firstKey();
+        double maxK = scores.lastKey();
+        double minScore = scores.values().stream().mapToDouble(Double::doubleValue).min().orElse(0);
+        double maxScore = scores.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+
+        int best = scores.firstKey();
+        double bestGap = Double.NEGATIVE_INFINITY;
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            double x = maxK > minK ? (entry.getKey() - minK) / (maxK - minK) : 0;
+            double y = maxScore > minScore ? (entry.getValue() - minScore) / (maxScore - minScore) : 0;
+
+            double gap = (1 - x) - y;
+            if (gap > bestGap) {
+                bestGap = gap;
+                best = entry.getKey();
+            }
+        }
+
+        return best;
+    }
+}
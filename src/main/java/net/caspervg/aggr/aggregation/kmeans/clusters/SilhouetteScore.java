@@ -0,0 +1,88 @@
+package net.caspervg.aggr.aggregation.kmeans.clusters;
+
+import net.caspervg.aggr.aggregation.kmeans.engine.Clustering;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.core.distance.DistanceMetric;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.SortedMap;
+
+/**
+ * Scores a clustering with the mean <a href="https://en.wikipedia.org/wiki/Silhouette_(clustering)">silhouette</a>
+ * of the points: how much closer a point is to the other points of its own cluster than to the points of the nearest
+ * other cluster. The silhouette needs the distances between all pairs of points, so it is calculated on a sample of
+ * at most {@link #SAMPLE_SIZE} points. The same points are sampled for every clustering of the same points. The best
+ * number of clusters has the highest score.
+ */
+public class SilhouetteScore implements ClusterScore {
+
+    public static final int SAMPLE_SIZE = 1000;
+    private static final long SAMPLE_SEED = 1L;
+
+    private DistanceMetric<Double> metric;
+
+    public SilhouetteScore(DistanceMetricChoice metricChoice) {
+        this.metric = metricChoice.getMetric();
+    }
+
+    @Override
+    public double score(Points points, Clustering clustering) {
+        int[] sample = points.sample(SAMPLE_SIZE, new Random(SAMPLE_SEED));
+        double[] coords = points.getCoords();
+        int[] assignment = clustering.getAssignment();
+        int k = clustering.getK();
+        int dimension = points.dimension();
+
+        double total = 0;
+        double[] sums = new double[k];
+        int[] counts = new int[k];
+        for (int i : sample) {
+            Arrays.fill(sums, 0);
+            Arrays.fill(counts, 0);
+            for (int j : sample) {
+                if (i != j) {
+                    sums[assignment[j]] += metric.distance(coords, points.offset(i), coords, points.offset(j), dimension);
+                    counts[assignment[j]]++;
+                }
+            }
+
+            // Points that are alone in their cluster (in the sample) have a silhouette of zero
+            int own = assignment[i];
+            if (counts[own] == 0) {
+                continue;
+            }
+            double a = sums[own] / counts[own];
+            double b = Double.POSITIVE_INFINITY;
+            for (int c = 0; c < k; c++) {
+                if (c != own && counts[c] > 0) {
+                    b = Math.min(b, sums[c] / counts[c]);
+                }
+            }
+            if (b < Double.POSITIVE_INFINITY && Math.max(a, b) > 0) {
+                total += (b - a) / Math.max(a, b);
+            }
+        }
+
+        return sample.length > 0 ? total / sample.length : 0;
+    }
+
+    @Override
+    public int best(SortedMap<Integer, Double> scores) {
+        int best = scores.firstKey();
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            if (entry.getValue() > scores.get(best)) {
+                best = entry.getKey();
+            }
+        }
+
+        return best;
+    }
+
+    @Override
+    public int minClusters() {
+        return 2;
+    }
+}
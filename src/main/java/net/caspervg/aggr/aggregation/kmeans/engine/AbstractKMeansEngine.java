@@ -0,0 +1,77 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import net.caspervg.aggr.aggregation.kmeans.index.CentroidIndex;
+import net.caspervg.aggr.core.distance.DistanceMetric;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+import java.util.stream.IntStream;
+
+/**
+ * Provides the parts that most {@link KMeansEngine} implementations share: splitting the points into chunks that
+ * are processed in parallel, and indexing the centroids to find the closest centroid of a point.
+ */
+public abstract class AbstractKMeansEngine implements KMeansEngine {
+
+    private static final int MIN_CHUNK_SIZE = 4096;
+    private static final int CHUNKS_PER_CORE = 4;
+
+    protected final DistanceMetricChoice metricChoice;
+    protected final DistanceMetric<Double> metric;
+
+    protected AbstractKMeansEngine(DistanceMetricChoice metricChoice) {
+        this.metricChoice = metricChoice;
+        this.metric = metricChoice.getMetric();
+    }
+
+    /**
+     * Processes all points in parallel chunks. Every chunk gets its own partial sums, which are merged afterwards.
+     * Steps may write to shared per-point arrays, as long as they only touch the points of their own chunk.
+     *
+     * @param n Number of points
+     * @param k Number of centroids
+     * @param dimension Number of components of each vector
+     * @param step Step to perform on every chunk
+     * @return Merged sums of all chunks
+     */
+    protected PartialSums inChunks(int n, int k, int dimension, ChunkStep step) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, (n + cores * CHUNKS_PER_CORE - 1) / (cores * CHUNKS_PER_CORE));
+        int numChunks = Math.max(1, (n + chunkSize - 1) / chunkSize);
+
+        return IntStream.range(0, numChunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    PartialSums sums = new PartialSums(k, dimension);
+                    step.run(chunk * chunkSize, Math.min(n, (chunk + 1) * chunkSize), sums);
+                    return sums;
+                })
+                .reduce(PartialSums::merge)
+                .orElseGet(() -> new PartialSums(k, dimension));
+    }
+
+    /**
+     * Creates an index to find the closest centroids, see {@link CentroidIndex#of(DistanceMetricChoice, double[], int)}
+     *
+     * @param centroids Components of all centroids
+     * @param dimension Number of components of each vector
+     * @return Index of the centroids
+     */
+    protected CentroidIndex index(double[] centroids, int dimension) {
+        return CentroidIndex.of(metricChoice, centroids, dimension);
+    }
+
+    /**
+     * Work to perform on a chunk of points
+     */
+    @FunctionalInterface
+    protected interface ChunkStep {
+        /**
+         * Processes the points in the range
+         *
+         * @param from Index of the first point (inclusive)
+         * @param to Index of the last point (exclusive)
+         * @param sums Partial sums of this chunk
+         */
+        void run(int from, int to, PartialSums sums);
+    }
+}
@@ -0,0 +1,42 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+/**
+ * Way in which a centroid moves to the center of its points. The mean only minimizes the sum of the distances for the
+ * Euclidean metric, so other metrics use a different center.
+ */
+public enum CenterUpdate {
+    /**
+     * Weighted mean of the points, which minimizes the sum of the squared Euclidean distances. The mean latitude and
+     * longitude is also used for the geodesic metrics, which are locally Euclidean.
+     */
+    MEAN,
+    /**
+     * Component-wise median of the points, which minimizes the sum of the Manhattan distances
+     */
+    MEDIAN,
+    /**
+     * Point of the cluster with the smallest sum of distances to the other points, for metrics without a mean
+     */
+    MEDOID;
+
+    /**
+     * Selects the center update that fits a distance metric
+     *
+     * @param metricChoice Distance metric that assigns the points to the centroids
+     * @return Center update for the metric
+     */
+    public static CenterUpdate of(DistanceMetricChoice metricChoice) {
+        switch (metricChoice) {
+            case EUCLIDEAN:
+            case HAVERSINE:
+            case EQUIRECTANGULAR:
+                return MEAN;
+            case MANHATTAN:
+                return MEDIAN;
+            default:
+                return MEDOID;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import java.io.Serializable;
+
+/**
+ * Result of a {@link KMeansEngine}: the final centroids, the centroid that every point was assigned to and
+ * the number of iterations that were performed.
+ */
+public class Clustering implements Serializable {
+
+    private final double[] centroids;
+    private final int[] assignment;
+    private final int dimension;
+    private final int iterations;
+    private final long skippedDistances;
+
+    /**
+     * Creates a new Clustering
+     *
+     * @param centroids Components of all centroids, one centroid after the other
+     * @param assignment Index of the centroid of each point
+     * @param dimension Number of components of each centroid
+     * @param iterations Number of iterations that were performed
+     */
+    public Clustering(double[] centroids, int[] assignment, int dimension, int iterations) {
+        this(centroids, assignment, dimension, iterations, 0);
+    }
+
+    /**
+     * Creates a new Clustering of an engine that avoids distance calculations
+     *
+     * @param centroids Components of all centroids, one centroid after the other
+     * @param assignment Index of the centroid of each point
+     * @param dimension Number of components of each centroid
+     * @param iterations Number of iterations that were performed
+     * @param skippedDistances Number of point-centroid distances that did not have to be calculated
+     */
+    public Clustering(double[] centroids, int[] assignment, int dimension, int iterations, long skippedDistances) {
+        this.centroids = centroids;
+        this.assignment = assignment;
+        this.dimension = dimension;
+        this.iterations = iterations;
+        this.skippedDistances = skippedDistances;
+    }
+
+    /**
+     * Retrieves the components of all centroids
+     *
+     * @return Flat array of components, the centroid {@code j} starts at index {@code j * dimension}
+     */
+    public double[] getCentroids() {
+        return centroids;
+    }
+
+    /**
+     * Retrieves the centroid that every point was assigned to in the last iteration
+     *
+     * @return Index of the centroid of each point
+     */
+    public int[] getAssignment() {
+        return assignment;
+    }
+
+    /**
+     * Retrieves the number of centroids
+     *
+     * @return Number of centroids
+     */
+    public int getK() {
+        return centroids.length / dimension;
+    }
+
+    /**
+     * Retrieves the number of components of each centroid
+     *
+     * @return Dimension of the centroids
+     */
+    public int getDimension() {
+        return dimension;
+    }
+
+    /**
+     * Retrieves the number of iterations that were performed
+     *
+     * @return Number of iterations
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Retrieves the number of point-centroid distances that were skipped, compared to calculating the distance
+     * from every point to every centroid in every iteration
+     *
+     * @return Number of skipped distance calculations
+     */
+    public long getSkippedDistances() {
+        return skippedDistances;
+    }
+}
@@ -0,0 +1,151 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import net.caspervg.aggr.aggregation.grid.AbstractGridAggregator;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+
+import java.util.*;
+
+/**
+ * Reduces measurements to the cells of a fine grid, so that k-means runs on far fewer points. Every vector is rounded
+ * to the grid like the grid aggregation does (see {@link AbstractGridAggregator#round(double, double)}), and every
+ * non-empty cell becomes a single point, weighted by the total weight of its measurements (see
+ * {@link WeightedGeoMeasurement#weightOf(Measurement)}). Moving a measurement to its cell moves it by at most half a
+ * cell in every component, so with a grid that is fine compared to the clusters, weighted k-means on the cells gives
+ * nearly the same centroids as on the measurements.
+ */
+public class GridCoreset {
+
+    private final Points cells;
+    private final int[] cellOf;
+    private final List<Measurement> representatives;
+
+    private GridCoreset(Points cells, int[] cellOf, List<Measurement> representatives) {
+        this.cells = cells;
+        this.cellOf = cellOf;
+        this.representatives = representatives;
+    }
+
+    /**
+     * Rounds the measurements to the grid and merges the measurements of every cell
+     *
+     * @param measurements Measurements to reduce, all vectors must have the same length
+     * @param gridSize Sensitivity of the grid
+     * @return Coreset of the measurements
+     * @throws IllegalArgumentException if the grid size is not positive
+     */
+    public static GridCoreset of(List<Measurement> measurements, double gridSize) {
+        if (gridSize <= 0) {
+            throw new IllegalArgumentException("Grid size must be positive");
+        }
+
+        int dimension = measurements.isEmpty() ? 1 : measurements.get(0).getVector().length;
+        Map<Cell, Integer> cellIndices = new HashMap<>();
+        int[] cellOf = new int[measurements.size()];
+        List<Measurement> representatives = new ArrayList<>();
+        double[] coords = new double[16 * dimension];
+        double[] weights = new double[16];
+
+        for (int i = 0; i < measurements.size(); i++) {
+            Measurement measurement = measurements.get(i);
+            Double[] vector = measurement.getVector();
+            double[] rounded = new double[dimension];
+            for (int d = 0; d < dimension; d++) {
+                rounded[d] = AbstractGridAggregator.round(vector[d], gridSize);
+            }
+
+            Integer cell = cellIndices.get(new Cell(rounded));
+            if (cell == null) {
+                cell = representatives.size();
+                cellIndices.put(new Cell(rounded), cell);
+                representatives.add(measurement);
+
+                if (cell == weights.length) {
+                    coords = Arrays.copyOf(coords, 2 * coords.length);
+                    weights = Arrays.copyOf(weights, 2 * weights.length);
+                }
+                System.arraycopy(rounded, 0, coords, cell * dimension, dimension);
+            }
+
+            cellOf[i] = cell;
+            weights[cell] += WeightedGeoMeasurement.weightOf(measurement);
+        }
+
+        int size = representatives.size();
+        return new GridCoreset(
+                new Points(Arrays.copyOf(coords, size * dimension), Arrays.copyOf(weights, size), dimension),
+                cellOf,
+                representatives
+        );
+    }
+
+    /**
+     * Retrieves the weighted cells
+     *
+     * @return One point per non-empty cell, at the rounded vector and weighted by the weight of its measurements
+     */
+    public Points getCells() {
+        return cells;
+    }
+
+    /**
+     * Retrieves a measurement of every cell, e.g. to choose seeds from
+     *
+     * @return The first measurement of every cell, in the order of the cells
+     */
+    public List<Measurement> getRepresentatives() {
+        return representatives;
+    }
+
+    /**
+     * Maps the assignment of the cells back to the measurements
+     *
+     * @param clustering Clustering of the cells
+     * @return Index of the centroid of every measurement, which is the centroid of its cell
+     */
+    public int[] assignment(Clustering clustering) {
+        int[] cellAssignment = clustering.getAssignment();
+        int[] assignment = new int[cellOf.length];
+        for (int i = 0; i < cellOf.length; i++) {
+            assignment[i] = cellAssignment[cellOf[i]];
+        }
+
+        return assignment;
+    }
+
+    /**
+     * Sums the weights of the cells per centroid
+     *
+     * @param clustering Clustering of the cells
+     * @return Total weight of every centroid
+     */
+    public double[] weights(Clustering clustering) {
+        int[] cellAssignment = clustering.getAssignment();
+        double[] weights = new double[clustering.getK()];
+        for (int c = 0; c < cells.size(); c++) {
+            weights[cellAssignment[c]] += cells.weight(c);
+        }
+
+        return weights;
+    }
+
+    private static class Cell {
+        private final double[] vector;
+        private final int hash;
+
+        private Cell(double[] vector) {
+            this.vector = vector;
+            this.hash = Arrays.hashCode(vector);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Cell && Arrays.equals(vector, ((Cell) o).vector);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
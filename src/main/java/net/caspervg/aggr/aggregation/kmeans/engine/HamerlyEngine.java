@@ -0,0 +1,153 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import net.caspervg.aggr.aggregation.kmeans.index.CentroidIndex;
+import net.caspervg.aggr.aggregation.kmeans.iteration.IterationStrategy;
+import net.caspervg.aggr.aggregation.kmeans.index.Neighbours;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of the {@link KMeansEngine} interface that produces the same result as {@link LloydEngine},
+ * but uses the triangle inequality to skip most distance calculations (G. Hamerly, "Making k-means even faster",
+ * 2010).
+ *
+ * Every point keeps an upper bound on the distance to its own centroid and a lower bound on the distance to
+ * any other centroid. A point can only change centroid if its upper bound exceeds both its lower bound and half
+ * the distance from its centroid to the nearest other centroid. After the centroids move, the bounds are
+ * loosened by the distance that the centroids moved, instead of being recalculated.
+ *
+ * A single lower bound per point (instead of one per centroid as in Elkan's algorithm) keeps the memory use
+ * linear in the number of points, and works best for low-dimensional data such as coordinates.
+ *
+ * <b>Note:</b> the bounds are only valid for distance metrics that satisfy the triangle inequality.
+ */
+public class HamerlyEngine extends AbstractKMeansEngine {
+
+    /**
+     * Creates a new HamerlyEngine
+     *
+     * @param metricChoice Distance metric to use, must satisfy the triangle inequality
+     */
+    public HamerlyEngine(DistanceMetricChoice metricChoice) {
+        super(metricChoice);
+    }
+
+    @Override
+    public Clustering cluster(Points points, double[] seeds, IterationStrategy strategy) {
+        int n = points.size();
+        int dimension = points.dimension();
+        int k = seeds.length / dimension;
+        double[] coords = points.getCoords();
+
+        double[] centroids = seeds.clone();
+        int[] assignment = new int[n];
+        double[] upper = new double[n];
+        double[] lower = new double[n];
+
+        long distances = 0;
+        int iterations = 0;
+        boolean proceed = true;
+        while (proceed) {
+            double[] current = centroids;
+            CentroidIndex index = index(current, dimension);
+            double[] halfSeparation = halfSeparation(current, k, dimension);
+            boolean first = iterations == 0;
+
+            PartialSums sums = inChunks(n, k, dimension, (from, to, chunkSums) -> {
+                for (int i = from; i < to; i++) {
+                    int offset = points.offset(i);
+
+                    if (first) {
+                        chunkSums.countDistances(scan(index, coords, offset, i, assignment, upper, lower));
+                    } else {
+                        double bound = Math.max(halfSeparation[assignment[i]], lower[i]);
+                        if (upper[i] > bound) {
+                            // Tighten the upper bound, and only look at all centroids if that was not enough
+                            upper[i] = metric.distance(current, assignment[i] * dimension, coords, offset, dimension);
+                            chunkSums.countDistances(1);
+
+                            if (upper[i] > bound) {
+                                chunkSums.countDistances(scan(index, coords, offset, i, assignment, upper, lower));
+                            }
+                        }
+                    }
+
+                    chunkSums.add(assignment[i], coords, offset, points.weight(i));
+                }
+            });
+            distances += sums.getDistances();
+
+            centroids = sums.means(current);
+            iterations++;
+            proceed = strategy.shouldContinue(iterations, current, centroids, dimension);
+
+            if (proceed) {
+                loosenBounds(current, centroids, k, dimension, assignment, upper, lower);
+            }
+        }
+
+        long skipped = (long) n * k * iterations - distances;
+        return new Clustering(centroids, assignment, dimension, iterations, skipped);
+    }
+
+    /**
+     * Searches the two closest centroids, and sets the assignment and both bounds of a point exactly
+     *
+     * @return Number of distances that were calculated
+     */
+    private int scan(CentroidIndex index, double[] coords, int offset,
+                     int i, int[] assignment, double[] upper, double[] lower) {
+        Neighbours neighbours = index.nearest(coords, offset, 2);
+
+        assignment[i] = neighbours.getIndex(0);
+        upper[i] = neighbours.getDistance(0);
+        lower[i] = neighbours.size() > 1 ? neighbours.getDistance(1) : Double.MAX_VALUE;
+
+        return neighbours.getComputed();
+    }
+
+    /**
+     * Calculates half the distance from every centroid to the nearest other centroid. A point that is closer than
+     * this to its centroid can not be closer to any other centroid.
+     */
+    private double[] halfSeparation(double[] centroids, int k, int dimension) {
+        double[] half = new double[k];
+        Arrays.fill(half, Double.MAX_VALUE);
+
+        for (int j = 0; j < k; j++) {
+            for (int other = j + 1; other < k; other++) {
+                double distance = metric.distance(centroids, j * dimension, centroids, other * dimension, dimension) / 2;
+                half[j] = Math.min(half[j], distance);
+                half[other] = Math.min(half[other], distance);
+            }
+        }
+
+        return half;
+    }
+
+    /**
+     * Loosens the bounds of every point by the distance that the centroids moved
+     */
+    private void loosenBounds(double[] previous, double[] centroids, int k, int dimension,
+                              int[] assignment, double[] upper, double[] lower) {
+        double[] moved = new double[k];
+        int furthest = 0;
+        double secondFurthest = 0;
+        for (int j = 0; j < k; j++) {
+            moved[j] = metric.distance(previous, j * dimension, centroids, j * dimension, dimension);
+            if (moved[j] > moved[furthest]) {
+                secondFurthest = moved[furthest];
+                furthest = j;
+            } else if (j != furthest && moved[j] > secondFurthest) {
+                secondFurthest = moved[j];
+            }
+        }
+
+        double maxMoved = moved[furthest];
+        for (int i = 0; i < assignment.length; i++) {
+            upper[i] += moved[assignment[i]];
+            lower[i] -= (assignment[i] == furthest) ? secondFurthest : maxMoved;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import net.caspervg.aggr.aggregation.kmeans.iteration.IterationStrategy;
+import net.caspervg.aggr.aggregation.kmeans.iteration.MaxIteration;
+
+/**
+ * Runs the iterations of a k-Means algorithm on primitive arrays, independently of how the points were read and
+ * how the resulting centroids will be written.
+ */
+public interface KMeansEngine {
+    /**
+     * Clusters the points, starting from the given seeds. At least one iteration is performed, after which the
+     * strategy decides whether to continue.
+     *
+     * @param points Points to cluster
+     * @param seeds Components of the initial centroids, one centroid after the other. The array is not modified.
+     * @param strategy Strategy that decides when to stop iterating
+     * @return Final centroids and assignment of the points
+     */
+    Clustering cluster(Points points, double[] seeds, IterationStrategy strategy);
+
+    /**
+     * Clusters the points, starting from the given seeds, for a fixed number of iterations
+     *
+     * @param points Points to cluster
+     * @param seeds Components of the initial centroids, one centroid after the other. The array is not modified.
+     * @param maxIterations Number of iterations to perform
+     * @return Final centroids and assignment of the points
+     */
+    default Clustering cluster(Points points, double[] seeds, int maxIterations) {
+        return cluster(points, seeds, new MaxIteration(maxIterations));
+    }
+}
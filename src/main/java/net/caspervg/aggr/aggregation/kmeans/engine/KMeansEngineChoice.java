@@ -0,0 +1,36 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import net.caspervg.aggr.aggregation.kmeans.AbstractKMeansAggregator;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+import java.util.Map;
+import java.util.function.BiFunction;
+
+public enum KMeansEngineChoice {
+    LLOYD((metricChoice, parameters) -> new LloydEngine(metricChoice)),
+    HAMERLY((metricChoice, parameters) -> new HamerlyEngine(metricChoice)),
+    MINI_BATCH((metricChoice, parameters) -> new MiniBatchEngine(
+            metricChoice,
+            Integer.parseInt(parameters.getOrDefault(
+                    AbstractKMeansAggregator.BATCH_SIZE_PARAM,
+                    String.valueOf(MiniBatchEngine.DEFAULT_BATCH_SIZE)
+            ))
+    ));
+
+    private BiFunction<DistanceMetricChoice, Map<String, String>, KMeansEngine> factory;
+
+    KMeansEngineChoice(BiFunction<DistanceMetricChoice, Map<String, String>, KMeansEngine> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Creates the engine
+     *
+     * @param metricChoice Distance metric to use
+     * @param parameters Parameters of the aggregation, for options of specific engines
+     * @return Engine to run the iterations
+     */
+    public KMeansEngine getEngine(DistanceMetricChoice metricChoice, Map<String, String> parameters) {
+        return factory.apply(metricChoice, parameters);
+    }
+}
@@ -0,0 +1,57 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import net.caspervg.aggr.aggregation.kmeans.index.CentroidIndex;
+import net.caspervg.aggr.aggregation.kmeans.iteration.IterationStrategy;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+/**
+ * Implementation of the {@link KMeansEngine} interface that uses Lloyd's algorithm: every iteration assigns each
+ * point to its closest centroid, after which each centroid moves to the (weighted) mean of its points. Centroids
+ * without points keep their position.
+ *
+ * The assignment step runs in parallel on chunks of points. Every chunk keeps its own partial sums, which are
+ * merged afterwards, so no locking is needed. The closest centroids are found using a {@link CentroidIndex} that is
+ * rebuilt at the start of every iteration.
+ */
+public class LloydEngine extends AbstractKMeansEngine {
+
+    /**
+     * Creates a new LloydEngine
+     *
+     * @param metricChoice Distance metric to use to find the closest centroid
+     */
+    public LloydEngine(DistanceMetricChoice metricChoice) {
+        super(metricChoice);
+    }
+
+    @Override
+    public Clustering cluster(Points points, double[] seeds, IterationStrategy strategy) {
+        int n = points.size();
+        int dimension = points.dimension();
+        int k = seeds.length / dimension;
+        double[] coords = points.getCoords();
+
+        double[] centroids = seeds.clone();
+        int[] assignment = new int[n];
+
+        int iterations = 0;
+        boolean proceed = true;
+        while (proceed) {
+            double[] current = centroids;
+            CentroidIndex index = index(current, dimension);
+            PartialSums sums = inChunks(n, k, dimension, (from, to, chunkSums) -> {
+                for (int i = from; i < to; i++) {
+                    int offset = points.offset(i);
+                    assignment[i] = index.nearest(coords, offset);
+                    chunkSums.add(assignment[i], coords, offset, points.weight(i));
+                }
+            });
+
+            centroids = sums.means(current);
+            iterations++;
+            proceed = strategy.shouldContinue(iterations, current, centroids, dimension);
+        }
+
+        return new Clustering(centroids, assignment, dimension, iterations);
+    }
+}
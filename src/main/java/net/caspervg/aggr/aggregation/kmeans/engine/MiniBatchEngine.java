@@ -0,0 +1,122 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import net.caspervg.aggr.aggregation.kmeans.index.CentroidIndex;
+import net.caspervg.aggr.aggregation.kmeans.iteration.IterationStrategy;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+import java.util.Random;
+
+/**
+ * Implementation of the {@link KMeansEngine} interface that uses mini-batch k-Means (D. Sculley, "Web-scale k-means
+ * clustering", 2010). Every iteration only looks at a random batch of points. Each point of the batch pulls its
+ * closest centroid towards it, with a learning rate of one over the total weight that the centroid has seen so far,
+ * so centroids settle down as they collect more points.
+ *
+ * The result is an approximation of the result of {@link LloydEngine}, but an iteration only takes time
+ * proportional to the batch size instead of the number of points. After the last iteration, every point is
+ * assigned to its closest centroid once, so that the weights and parents of the centroids are complete.
+ */
+public class MiniBatchEngine extends AbstractKMeansEngine {
+
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final int batchSize;
+    private final Random random;
+
+    /**
+     * Creates a new MiniBatchEngine
+     *
+     * @param metricChoice Distance metric to use to find the closest centroid
+     * @param batchSize Number of points to sample in every iteration
+     */
+    public MiniBatchEngine(DistanceMetricChoice metricChoice, int batchSize) {
+        this(metricChoice, batchSize, new Random());
+    }
+
+    /**
+     * Creates a new MiniBatchEngine that samples the batches using the given random number generator
+     *
+     * @param metricChoice Distance metric to use to find the closest centroid
+     * @param batchSize Number of points to sample in every iteration
+     * @param random Random number generator to sample the batches with
+     */
+    public MiniBatchEngine(DistanceMetricChoice metricChoice, int batchSize, Random random) {
+        super(metricChoice);
+
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+
+        this.batchSize = batchSize;
+        this.random = random;
+    }
+
+    @Override
+    public Clustering cluster(Points points, double[] seeds, IterationStrategy strategy) {
+        int n = points.size();
+        int dimension = points.dimension();
+        int k = seeds.length / dimension;
+        double[] coords = points.getCoords();
+
+        double[] centroids = seeds.clone();
+        double[] seen = new double[k];
+        int[] batch = new int[Math.min(batchSize, n)];
+
+        int iterations = 0;
+        boolean proceed = true;
+        while (proceed) {
+            for (int b = 0; b < batch.length; b++) {
+                batch[b] = random.nextInt(n);
+            }
+
+            double[] previous = centroids.clone();
+            step(points, batch, centroids, seen);
+            iterations++;
+            proceed = strategy.shouldContinue(iterations, previous, centroids, dimension);
+        }
+
+        // Assign every point once, for the weights and parents of the final centroids
+        int[] assignment = new int[n];
+        CentroidIndex index = index(centroids, dimension);
+        inChunks(n, k, dimension, (from, to, chunkSums) -> {
+            for (int i = from; i < to; i++) {
+                assignment[i] = index.nearest(coords, points.offset(i));
+            }
+        });
+
+        return new Clustering(centroids, assignment, dimension, iterations);
+    }
+
+    /**
+     * Performs a single mini-batch iteration: every point of the batch is assigned to its closest centroid, after
+     * which each point moves its centroid towards itself.
+     *
+     * @param points Points to take the batch from
+     * @param batch Indices of the points in the batch
+     * @param centroids Components of all centroids, updated in place
+     * @param seen Total weight that each centroid has seen so far, updated in place
+     */
+    public void step(Points points, int[] batch, double[] centroids, double[] seen) {
+        int dimension = points.dimension();
+        double[] coords = points.getCoords();
+
+        CentroidIndex index = index(centroids, dimension);
+        int[] closest = new int[batch.length];
+        for (int b = 0; b < batch.length; b++) {
+            closest[b] = index.nearest(coords, points.offset(batch[b]));
+        }
+
+        for (int b = 0; b < batch.length; b++) {
+            int centroid = closest[b];
+            double weight = points.weight(batch[b]);
+            seen[centroid] += weight;
+
+            double rate = seen[centroid] > 0 ? weight / seen[centroid] : 0;
+            int offset = points.offset(batch[b]);
+            for (int d = 0; d < dimension; d++) {
+                int component = centroid * dimension + d;
+                centroids[component] += rate * (coords[offset + d] - centroids[component]);
+            }
+        }
+    }
+}
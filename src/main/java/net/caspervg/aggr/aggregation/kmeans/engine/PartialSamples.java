@@ -0,0 +1,173 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import net.caspervg.aggr.core.distance.DistanceMetric;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Bounded sample of the points per centroid, for a chunk of points. Every point comes with a random key, and each
+ * centroid keeps the points with the smallest keys. This is a uniform sample of its points, and merging the samples of
+ * different chunks gives the same result in any order, so that chunks (e.g. partitions of a Spark RDD) can be
+ * processed in parallel. The size of the merged samples does not depend on the number of points.
+ *
+ * The samples are used to compute the centers that have no running sum, like the median or the medoid. Those centers
+ * are exact for centroids with fewer points than the sample size.
+ */
+public class PartialSamples implements Serializable {
+    private final int k;
+    private final int dimension;
+    private final int capacity;
+
+    private final double[][] keys;
+    private final double[][] coords;
+    private final int[] sizes;
+    private final long[] counts;
+
+    /**
+     * Creates new, empty, samples
+     *
+     * @param k Number of centroids
+     * @param dimension Dimension of the points
+     * @param capacity Maximum number of points to keep per centroid
+     */
+    public PartialSamples(int k, int dimension, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+
+        this.k = k;
+        this.dimension = dimension;
+        this.capacity = capacity;
+        this.keys = new double[k][];
+        this.coords = new double[k][];
+        this.sizes = new int[k];
+        this.counts = new long[k];
+    }
+
+    /**
+     * Offers a point to the sample of a centroid
+     *
+     * @param centroid Index of the centroid
+     * @param points Array that contains the point
+     * @param offset Index of the first component of the point
+     * @param key Random key of the point, the points with the smallest keys are kept
+     */
+    public void add(int centroid, double[] points, int offset, double key) {
+        counts[centroid]++;
+        offer(centroid, points, offset, key);
+    }
+
+    private void offer(int centroid, double[] points, int offset, double key) {
+        if (keys[centroid] == null) {
+            keys[centroid] = new double[capacity];
+            coords[centroid] = new double[capacity * dimension];
+        }
+
+        double[] centroidKeys = keys[centroid];
+        int slot;
+        if (sizes[centroid] < capacity) {
+            slot = sizes[centroid]++;
+        } else {
+            slot = 0;
+            for (int s = 1; s < capacity; s++) {
+                if (centroidKeys[s] > centroidKeys[slot]) {
+                    slot = s;
+                }
+            }
+            if (key >= centroidKeys[slot]) {
+                return;
+            }
+        }
+
+        centroidKeys[slot] = key;
+        System.arraycopy(points, offset, coords[centroid], slot * dimension, dimension);
+    }
+
+    public PartialSamples merge(PartialSamples other) {
+        for (int j = 0; j < k; j++) {
+            for (int s = 0; s < other.sizes[j]; s++) {
+                offer(j, other.coords[j], s * dimension, other.keys[j][s]);
+            }
+            counts[j] += other.counts[j];
+        }
+
+        return this;
+    }
+
+    /**
+     * Retrieves the number of points that were offered to the sample of a centroid
+     *
+     * @param centroid Index of the centroid
+     * @return Number of points of the centroid
+     */
+    public long count(int centroid) {
+        return counts[centroid];
+    }
+
+    /**
+     * Calculates the center of the sampled points of every centroid
+     *
+     * @param previous Previous centroids, which are kept for centroids without points
+     * @param update Center to calculate, either the median or the medoid
+     * @param metric Distance metric to find the medoid with
+     * @return New centroids
+     */
+    public double[] centers(double[] previous, CenterUpdate update, DistanceMetric<Double> metric) {
+        double[] centers = previous.clone();
+        for (int j = 0; j < k; j++) {
+            if (sizes[j] == 0) {
+                continue;
+            }
+
+            switch (update) {
+                case MEDIAN:
+                    median(j, centers);
+                    break;
+                case MEDOID:
+                    medoid(j, centers, metric);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Samples cannot calculate the " + update + " of the points");
+            }
+        }
+
+        return centers;
+    }
+
+    private void median(int centroid, double[] centers) {
+        int size = sizes[centroid];
+        double[] values = new double[size];
+        for (int d = 0; d < dimension; d++) {
+            for (int s = 0; s < size; s++) {
+                values[s] = coords[centroid][s * dimension + d];
+            }
+            Arrays.sort(values);
+
+            int middle = size / 2;
+            centers[centroid * dimension + d] = size % 2 == 1 ?
+                    values[middle] :
+                    (values[middle - 1] + values[middle]) / 2;
+        }
+    }
+
+    private void medoid(int centroid, double[] centers, DistanceMetric<Double> metric) {
+        int size = sizes[centroid];
+        double[] points = coords[centroid];
+
+        int best = 0;
+        double bestSum = Double.POSITIVE_INFINITY;
+        for (int s = 0; s < size; s++) {
+            double sum = 0;
+            for (int t = 0; t < size && sum < bestSum; t++) {
+                sum += metric.distance(points, s * dimension, points, t * dimension, dimension);
+            }
+            if (sum < bestSum) {
+                bestSum = sum;
+                best = s;
+            }
+        }
+
+        System.arraycopy(points, best * dimension, centers, centroid * dimension, dimension);
+    }
+}
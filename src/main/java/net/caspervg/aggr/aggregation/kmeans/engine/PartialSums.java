@@ -0,0 +1,80 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import java.io.Serializable;
+
+/**
+ * Weighted sum of the points per centroid, for a chunk of points. Partial sums of different chunks can be merged,
+ * so that chunks can be processed in parallel without locking. Partial sums are serializable, so they can also be
+ * computed per partition of a Spark RDD.
+ */
+public class PartialSums implements Serializable {
+    private final double[] sums;
+    private final double[] weights;
+    private final int dimension;
+    private long distances;
+
+    public PartialSums(int k, int dimension) {
+        this.sums = new double[k * dimension];
+        this.weights = new double[k];
+        this.dimension = dimension;
+    }
+
+    /**
+     * Adds a point to the sum of a centroid
+     *
+     * @param centroid Index of the centroid
+     * @param coords Array that contains the point
+     * @param offset Index of the first component of the point
+     * @param weight Weight of the point
+     */
+    public void add(int centroid, double[] coords, int offset, double weight) {
+        int centroidOffset = centroid * dimension;
+        for (int d = 0; d < dimension; d++) {
+            sums[centroidOffset + d] += weight * coords[offset + d];
+        }
+        weights[centroid] += weight;
+    }
+
+    /**
+     * Records that a number of point-to-centroid distances were calculated
+     *
+     * @param count Number of distances
+     */
+    public void countDistances(int count) {
+        distances += count;
+    }
+
+    public long getDistances() {
+        return distances;
+    }
+
+    public PartialSums merge(PartialSums other) {
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] += other.sums[i];
+        }
+        for (int j = 0; j < weights.length; j++) {
+            weights[j] += other.weights[j];
+        }
+        distances += other.distances;
+
+        return this;
+    }
+
+    /**
+     * Calculates the weighted mean of the points of every centroid
+     *
+     * @param previous Previous centroids, which are kept for centroids without points
+     * @return New centroids
+     */
+    public double[] means(double[] previous) {
+        double[] means = new double[sums.length];
+        for (int j = 0; j < weights.length; j++) {
+            for (int d = 0; d < dimension; d++) {
+                int index = j * dimension + d;
+                means[index] = weights[j] > 0 ? sums[index] / weights[j] : previous[index];
+            }
+        }
+
+        return means;
+    }
+}
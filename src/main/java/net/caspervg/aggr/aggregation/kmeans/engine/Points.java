@@ -0,0 +1,138 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import net.caspervg.aggr.core.bean.Measurement;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Vectors of many measurements, stored component after component in a single flat array. The vector of point
+ * {@code i} starts at index {@code i * dimension}. Points may optionally carry a weight.
+ */
+public class Points implements Serializable {
+
+    private final double[] coords;
+    private final double[] weights;
+    private final int size;
+    private final int dimension;
+
+    /**
+     * Creates a new set of points
+     *
+     * @param coords Components of all vectors, one vector after the other
+     * @param weights Weight of each point, or {@code null} if every point has weight one
+     * @param dimension Number of components of each vector
+     * @throws IllegalArgumentException if the number of components or weights does not match
+     */
+    public Points(double[] coords, double[] weights, int dimension) {
+        if (dimension < 1 || coords.length % dimension != 0) {
+            throw new IllegalArgumentException("Number of components must be a multiple of the dimension");
+        }
+
+        this.coords = coords;
+        this.weights = weights;
+        this.size = coords.length / dimension;
+        this.dimension = dimension;
+
+        if (weights != null && weights.length != size) {
+            throw new IllegalArgumentException("Need exactly one weight per point");
+        }
+    }
+
+    /**
+     * Copies the vectors of the measurements into a new set of unweighted points
+     *
+     * @param measurements Measurements to copy, all vectors must have the same length
+     * @return Points of the measurements, in the same order
+     */
+    public static Points of(List<Measurement> measurements) {
+        int dimension = measurements.isEmpty() ? 1 : measurements.get(0).getVector().length;
+        double[] coords = new double[measurements.size() * dimension];
+
+        int offset = 0;
+        for (Measurement measurement : measurements) {
+            Double[] vector = measurement.getVector();
+            for (int i = 0; i < dimension; i++) {
+                coords[offset++] = vector[i];
+            }
+        }
+
+        return new Points(coords, null, dimension);
+    }
+
+    /**
+     * Retrieves the components of all vectors
+     *
+     * @return Flat array of components
+     */
+    public double[] getCoords() {
+        return coords;
+    }
+
+    /**
+     * Retrieves the number of points
+     *
+     * @return Number of points
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the number of components of each vector
+     *
+     * @return Dimension of the vectors
+     */
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Retrieves the index of the first component of a point in {@link #getCoords()}
+     *
+     * @param index Index of the point
+     * @return Offset of the point
+     */
+    public int offset(int index) {
+        return index * dimension;
+    }
+
+    /**
+     * Retrieves the weight of a point
+     *
+     * @param index Index of the point
+     * @return Weight of the point
+     */
+    public double weight(int index) {
+        return weights == null ? 1.0 : weights[index];
+    }
+
+    /**
+     * Samples the indices of the points without replacement
+     *
+     * @param sampleSize Maximum number of points to sample
+     * @param random Source of randomness
+     * @return Indices of at most {@code sampleSize} distinct points, all indices in order if there are not more points
+     */
+    public int[] sample(int sampleSize, Random random) {
+        int[] indices = new int[size];
+        for (int i = 0; i < size; i++) {
+            indices[i] = i;
+        }
+        if (size <= sampleSize) {
+            return indices;
+        }
+
+        // Partial Fisher-Yates shuffle
+        for (int i = 0; i < sampleSize; i++) {
+            int j = i + random.nextInt(size - i);
+            int swap = indices[i];
+            indices[i] = indices[j];
+            indices[j] = swap;
+        }
+
+        return Arrays.copyOf(indices, sampleSize);
+    }
+}
@@ -0,0 +1,77 @@
+package net.caspervg.aggr.aggregation.kmeans.index;
+
+import net.caspervg.aggr.core.distance.DistanceMetric;
+
+/**
+ * Holds the centroids and the distance metric of a {@link CentroidIndex}. If the metric has a prepared form, the
+ * centroids are prepared once, and every point once per query, so that the distances in between are cheap.
+ */
+public abstract class AbstractCentroidIndex implements CentroidIndex {
+
+    protected final DistanceMetric<Double> metric;
+    protected final double[] centroids;
+    protected final int dimension;
+    protected final int k;
+
+    // Centroids in the prepared form of the metric, or the centroids themselves
+    protected final double[] prepared;
+    protected final int preparedDimension;
+
+    protected AbstractCentroidIndex(DistanceMetric<Double> metric, double[] centroids, int dimension) {
+        this.metric = metric;
+        this.centroids = centroids;
+        this.dimension = dimension;
+        this.k = centroids.length / dimension;
+        this.prepared = metric.hasPreparedForm() ? metric.prepare(centroids, dimension) : centroids;
+        this.preparedDimension = metric.hasPreparedForm() ? metric.preparedDimension(dimension) : dimension;
+    }
+
+    @Override
+    public int nearest(double[] coords, int offset) {
+        return nearest(coords, offset, 1).getIndex(0);
+    }
+
+    /**
+     * Transforms a point into the prepared form of the metric
+     *
+     * @param coords Array that contains the point
+     * @param offset Index of the first component of the point
+     * @return Array that contains the prepared point at index zero, or the original array if the metric has no
+     * prepared form
+     */
+    protected double[] prepare(double[] coords, int offset) {
+        if (!metric.hasPreparedForm()) {
+            return coords;
+        }
+
+        double[] query = new double[preparedDimension];
+        metric.prepare(coords, offset, dimension, query, 0);
+        return query;
+    }
+
+    /**
+     * Calculates the distance between two centroids
+     *
+     * @param centroid1 Index of the first centroid
+     * @param centroid2 Index of the second centroid
+     * @return Distance between both centroids
+     */
+    protected double distance(int centroid1, int centroid2) {
+        return metric.preparedDistance(prepared, centroid1 * preparedDimension, prepared, centroid2 * preparedDimension, dimension);
+    }
+
+    /**
+     * Calculates the distance from a point to a centroid and offers the centroid to the neighbours
+     *
+     * @param query Array that contains the point, as returned by {@link #prepare(double[], int)}
+     * @param offset Index of the first component of the point
+     * @param centroid Index of the centroid
+     * @param neighbours Neighbours found so far
+     * @return Distance from the point to the centroid
+     */
+    protected double visit(double[] query, int offset, int centroid, Neighbours neighbours) {
+        double distance = metric.preparedDistance(prepared, centroid * preparedDimension, query, offset, dimension);
+        neighbours.offer(centroid, distance);
+        return distance;
+    }
+}
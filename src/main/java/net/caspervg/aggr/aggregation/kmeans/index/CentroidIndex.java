@@ -0,0 +1,69 @@
+package net.caspervg.aggr.aggregation.kmeans.index;
+
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+import java.io.Serializable;
+
+/**
+ * Finds the centroids that are closest to a point. An index is built once for a fixed set of centroids, e.g. at
+ * the start of every iteration of a k-Means algorithm, and can then be queried from multiple threads.
+ *
+ * On ties, the centroid with the lowest index is returned, so that every index gives the same result as a
+ * linear scan.
+ */
+public interface CentroidIndex extends Serializable {
+
+    /**
+     * Number of centroids below which a linear scan is faster than searching a tree
+     */
+    int MIN_TREE_SIZE = 16;
+
+    /**
+     * Finds the centroid that is closest to a point
+     *
+     * @param coords Array that contains the point
+     * @param offset Index of the first component of the point
+     * @return Index of the closest centroid
+     */
+    int nearest(double[] coords, int offset);
+
+    /**
+     * Finds the centroids that are closest to a point
+     *
+     * @param coords Array that contains the point
+     * @param offset Index of the first component of the point
+     * @param count Number of centroids to find
+     * @return Closest centroids, ordered by distance
+     */
+    Neighbours nearest(double[] coords, int offset, int count);
+
+    /**
+     * Creates the best index for a set of centroids and a distance metric. Metrics of the Minkowski family use a
+     * {@link KDTreeIndex}, other metrics that satisfy the triangle inequality use a {@link VPTreeIndex}. Small sets
+     * of centroids and other metrics use a {@link LinearIndex}.
+     *
+     * @param choice Distance metric to use
+     * @param centroids Components of all centroids, one centroid after the other. The array is not copied.
+     * @param dimension Number of components of each centroid
+     * @return Index of the centroids
+     */
+    static CentroidIndex of(DistanceMetricChoice choice, double[] centroids, int dimension) {
+        int k = centroids.length / dimension;
+        if (k < MIN_TREE_SIZE) {
+            return new LinearIndex(choice.getMetric(), centroids, dimension);
+        }
+
+        switch (choice) {
+            case EUCLIDEAN:
+            case MANHATTAN:
+            case CHEBYSHEV:
+                return new KDTreeIndex(choice.getMetric(), centroids, dimension);
+            default:
+                if (choice.satisfiesTriangleInequality()) {
+                    return new VPTreeIndex(choice.getMetric(), centroids, dimension);
+                } else {
+                    return new LinearIndex(choice.getMetric(), centroids, dimension);
+                }
+        }
+    }
+}
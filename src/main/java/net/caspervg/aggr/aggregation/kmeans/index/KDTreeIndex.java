@@ -0,0 +1,118 @@
+package net.caspervg.aggr.aggregation.kmeans.index;
+
+import net.caspervg.aggr.core.distance.DistanceMetric;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Implementation of the {@link CentroidIndex} interface that uses a
+ * <a href="https://en.wikipedia.org/wiki/K-d_tree">k-d tree</a>. Every node splits its centroids on the component
+ * with the largest spread. A subtree is skipped when the distance from the point to its splitting plane is larger
+ * than the distance to the centroids found so far.
+ *
+ * <b>Note:</b> the distance to the splitting plane must be a lower bound of the distance to every vector on the
+ * other side, which holds for the Minkowski family of metrics (Euclidean, Manhattan and Chebyshev). Those metrics
+ * have no prepared form, so the points are searched as they are.
+ */
+public class KDTreeIndex extends AbstractCentroidIndex {
+
+    // Centroids in tree order, the node of the range [from, to) holds the centroid in the middle of the range
+    private final int[] order;
+    private final int[] axes;
+
+    /**
+     * Creates a new KDTreeIndex
+     *
+     * @param metric Distance metric of the Minkowski family to use
+     * @param centroids Components of all centroids, one centroid after the other
+     * @param dimension Number of components of each centroid
+     * @throws IllegalArgumentException if the metric has a prepared form
+     */
+    public KDTreeIndex(DistanceMetric<Double> metric, double[] centroids, int dimension) {
+        super(metric, centroids, dimension);
+
+        if (metric.hasPreparedForm()) {
+            throw new IllegalArgumentException("A k-d tree needs a metric without a prepared form");
+        }
+
+        Integer[] sorted = new Integer[k];
+        for (int j = 0; j < k; j++) {
+            sorted[j] = j;
+        }
+        this.axes = new int[k];
+        build(sorted, 0, k);
+
+        this.order = new int[k];
+        for (int j = 0; j < k; j++) {
+            order[j] = sorted[j];
+        }
+    }
+
+    private void build(Integer[] sorted, int from, int to) {
+        if (to - from <= 0) {
+            return;
+        }
+
+        int axis = widestAxis(sorted, from, to);
+        Arrays.sort(sorted, from, to, Comparator.comparingDouble(j -> centroids[j * dimension + axis]));
+
+        int middle = (from + to) >>> 1;
+        axes[middle] = axis;
+        build(sorted, from, middle);
+        build(sorted, middle + 1, to);
+    }
+
+    private int widestAxis(Integer[] sorted, int from, int to) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int d = 0; d < dimension; d++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                double value = centroids[sorted[i] * dimension + d];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = d;
+            }
+        }
+
+        return widest;
+    }
+
+    @Override
+    public Neighbours nearest(double[] coords, int offset, int count) {
+        Neighbours neighbours = new Neighbours(count);
+        search(coords, offset, 0, k, neighbours);
+
+        return neighbours;
+    }
+
+    private void search(double[] coords, int offset, int from, int to, Neighbours neighbours) {
+        if (to - from <= 0) {
+            return;
+        }
+
+        int middle = (from + to) >>> 1;
+        int centroid = order[middle];
+        int axis = axes[middle];
+        visit(coords, offset, centroid, neighbours);
+
+        // Centroids before the middle are not larger on the axis, centroids after it are not smaller
+        double diff = coords[offset + axis] - centroids[centroid * dimension + axis];
+        if (diff < 0) {
+            search(coords, offset, from, middle, neighbours);
+            if (-diff <= neighbours.bound()) {
+                search(coords, offset, middle + 1, to, neighbours);
+            }
+        } else {
+            search(coords, offset, middle + 1, to, neighbours);
+            if (diff <= neighbours.bound()) {
+                search(coords, offset, from, middle, neighbours);
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package net.caspervg.aggr.aggregation.kmeans.index;
+
+import net.caspervg.aggr.core.distance.DistanceMetric;
+
+/**
+ * Implementation of the {@link CentroidIndex} interface that calculates the distance to every centroid. Works with
+ * any distance metric, and is the fastest option for a small number of centroids. The centroids are compared on the
+ * rank of the metric, and only the distances to the found centroids are calculated.
+ */
+public class LinearIndex extends AbstractCentroidIndex {
+
+    /**
+     * Creates a new LinearIndex
+     *
+     * @param metric Distance metric to use
+     * @param centroids Components of all centroids, one centroid after the other
+     * @param dimension Number of components of each centroid
+     */
+    public LinearIndex(DistanceMetric<Double> metric, double[] centroids, int dimension) {
+        super(metric, centroids, dimension);
+    }
+
+    @Override
+    public int nearest(double[] coords, int offset) {
+        double[] query = prepare(coords, offset);
+        int queryOffset = query == coords ? offset : 0;
+
+        int closest = 0;
+        double minimumRank = Double.MAX_VALUE;
+
+        for (int j = 0; j < k; j++) {
+            double rank = metric.preparedRank(prepared, j * preparedDimension, query, queryOffset, dimension);
+            if (rank < minimumRank) {
+                minimumRank = rank;
+                closest = j;
+            }
+        }
+
+        return closest;
+    }
+
+    @Override
+    public Neighbours nearest(double[] coords, int offset, int count) {
+        double[] query = prepare(coords, offset);
+        int queryOffset = query == coords ? offset : 0;
+
+        Neighbours neighbours = new Neighbours(count);
+        for (int j = 0; j < k; j++) {
+            neighbours.offer(j, metric.preparedRank(prepared, j * preparedDimension, query, queryOffset, dimension));
+        }
+        neighbours.rankDistances(metric);
+
+        return neighbours;
+    }
+}
@@ -0,0 +1,113 @@
+package net.caspervg.aggr.aggregation.kmeans.index;
+
+import net.caspervg.aggr.core.distance.DistanceMetric;
+
+import java.util.Arrays;
+
+/**
+ * Closest centroids to a point, as found by a {@link CentroidIndex}
+ */
+public class Neighbours {
+
+    private final int[] indices;
+    private final double[] distances;
+    private int size;
+    private int computed;
+
+    Neighbours(int count) {
+        this.indices = new int[count];
+        this.distances = new double[count];
+        Arrays.fill(this.distances, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Offers a centroid. It is kept if it is closer than the furthest centroid that was kept so far, or if it is
+     * equally far and has a lower index.
+     *
+     * @param index Index of the centroid
+     * @param distance Distance from the point to the centroid
+     */
+    void offer(int index, double distance) {
+        computed++;
+
+        int position = size;
+        while (position > 0 && closer(index, distance, indices[position - 1], distances[position - 1])) {
+            position--;
+        }
+        if (position >= indices.length) {
+            return;
+        }
+
+        int last = Math.min(size, indices.length - 1);
+        System.arraycopy(indices, position, indices, position + 1, last - position);
+        System.arraycopy(distances, position, distances, position + 1, last - position);
+        indices[position] = index;
+        distances[position] = distance;
+        size = Math.min(size + 1, indices.length);
+    }
+
+    /**
+     * Retrieves the distance that a centroid must beat to be kept
+     *
+     * @return Distance to the furthest kept centroid, or infinity if fewer centroids were kept than requested
+     */
+    double bound() {
+        return size < indices.length ? Double.POSITIVE_INFINITY : distances[size - 1];
+    }
+
+    /**
+     * Converts the kept distances from ranks of the metric to distances, for centroids that were offered with
+     * {@link DistanceMetric#preparedRank(double[], int, double[], int, int)}
+     *
+     * @param metric Distance metric that ranked the centroids
+     */
+    void rankDistances(DistanceMetric<?> metric) {
+        for (int i = 0; i < size; i++) {
+            distances[i] = metric.rankDistance(distances[i]);
+        }
+    }
+
+    private static boolean closer(int index, double distance, int otherIndex, double otherDistance) {
+        // Also accepts distances that are not a number, so that every point gets a centroid
+        return distance < otherDistance || (distance == otherDistance && index < otherIndex) ||
+                (Double.isNaN(otherDistance) && !Double.isNaN(distance));
+    }
+
+    /**
+     * Retrieves the number of centroids that were found
+     *
+     * @return Number of centroids
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the index of a found centroid
+     *
+     * @param rank Rank of the centroid, zero for the closest centroid
+     * @return Index of the centroid
+     */
+    public int getIndex(int rank) {
+        return indices[rank];
+    }
+
+    /**
+     * Retrieves the distance to a found centroid
+     *
+     * @param rank Rank of the centroid, zero for the closest centroid
+     * @return Distance from the point to the centroid
+     */
+    public double getDistance(int rank) {
+        return distances[rank];
+    }
+
+    /**
+     * Retrieves the number of distances that were calculated to find the centroids
+     *
+     * @return Number of distance calculations
+     */
+    public int getComputed() {
+        return computed;
+    }
+}
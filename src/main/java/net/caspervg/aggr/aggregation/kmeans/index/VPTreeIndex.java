@@ -0,0 +1,100 @@
+package net.caspervg.aggr.aggregation.kmeans.index;
+
+import net.caspervg.aggr.core.distance.DistanceMetric;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Implementation of the {@link CentroidIndex} interface that uses a
+ * <a href="https://en.wikipedia.org/wiki/Vantage-point_tree">vantage-point tree</a>. Every node picks a vantage
+ * centroid and splits the other centroids into the half that is closer to it than the median distance and the half
+ * that is further away. Using the triangle inequality, a half is skipped when it can not contain a centroid that is
+ * closer than the centroids found so far. Unlike the {@link KDTreeIndex}, this only relies on the distances
+ * themselves, so it works for every metric, e.g. Canberra or Karlsruhe.
+ *
+ * <b>Note:</b> the distance metric must satisfy the triangle inequality.
+ */
+public class VPTreeIndex extends AbstractCentroidIndex {
+
+    // Centroids in tree order, the node of the range [from, to) holds its vantage centroid at the start of the range
+    private final int[] order;
+    private final double[] radii;
+
+    /**
+     * Creates a new VPTreeIndex
+     *
+     * @param metric Distance metric to use, must satisfy the triangle inequality
+     * @param centroids Components of all centroids, one centroid after the other
+     * @param dimension Number of components of each centroid
+     */
+    public VPTreeIndex(DistanceMetric<Double> metric, double[] centroids, int dimension) {
+        super(metric, centroids, dimension);
+
+        Integer[] sorted = new Integer[k];
+        for (int j = 0; j < k; j++) {
+            sorted[j] = j;
+        }
+        this.radii = new double[k];
+        build(sorted, new double[k], 0, k);
+
+        this.order = new int[k];
+        for (int j = 0; j < k; j++) {
+            order[j] = sorted[j];
+        }
+    }
+
+    private void build(Integer[] sorted, double[] distances, int from, int to) {
+        if (to - from <= 1) {
+            return;
+        }
+
+        int vantage = sorted[from];
+        for (int i = from + 1; i < to; i++) {
+            distances[sorted[i]] = distance(vantage, sorted[i]);
+        }
+        Arrays.sort(sorted, from + 1, to, Comparator.comparingDouble(j -> distances[j]));
+
+        int middle = (from + 1 + to) >>> 1;
+        radii[from] = distances[sorted[middle]];
+        build(sorted, distances, from + 1, middle);
+        build(sorted, distances, middle, to);
+    }
+
+    @Override
+    public Neighbours nearest(double[] coords, int offset, int count) {
+        double[] query = prepare(coords, offset);
+
+        Neighbours neighbours = new Neighbours(count);
+        search(query, query == coords ? offset : 0, 0, k, neighbours);
+
+        return neighbours;
+    }
+
+    private void search(double[] coords, int offset, int from, int to, Neighbours neighbours) {
+        if (to - from <= 0) {
+            return;
+        }
+
+        double distance = visit(coords, offset, order[from], neighbours);
+        if (to - from == 1) {
+            return;
+        }
+
+        // Centroids inside the radius are at least (distance - radius) away, centroids outside it at least
+        // (radius - distance)
+        int middle = (from + 1 + to) >>> 1;
+        double radius = radii[from];
+        if (distance < radius) {
+            search(coords, offset, from + 1, middle, neighbours);
+            if (radius - distance <= neighbours.bound()) {
+                search(coords, offset, middle, to, neighbours);
+            }
+        } else {
+            search(coords, offset, middle, to, neighbours);
+            if (distance - radius <= neighbours.bound()) {
+                search(coords, offset, from + 1, middle, neighbours);
+            }
+        }
+    }
+}
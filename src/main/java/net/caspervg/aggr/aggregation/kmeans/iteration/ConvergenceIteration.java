@@ -3,53 +3,94 @@ package net.caspervg.aggr.aggregation.kmeans.iteration;
 import net.caspervg.aggr.core.bean.Measurement;
 import net.caspervg.aggr.core.distance.DistanceMetric;
 import net.caspervg.aggr.core.distance.EuclideanDistanceMetric;
-import net.caspervg.aggr.core.bean.util.MeasurementVectorComparator;
 
-import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
-public class ConvergenceIteration {
+public class ConvergenceIteration implements IterationStrategy {
 
     private double epsilon;
-    private DistanceMetric<Double> metric = new EuclideanDistanceMetric<>();
+    private IterationStrategy maxIteration;
+    private DistanceMetric<Double> metric;
 
     public ConvergenceIteration() {
         this(0.01);
     }
 
     public ConvergenceIteration(double epsilon) {
+        this(epsilon, new MaxIteration());
+    }
+
+    public ConvergenceIteration(double epsilon, IterationStrategy maxIteration) {
+        this(epsilon, maxIteration, new EuclideanDistanceMetric<>());
+    }
+
+    public ConvergenceIteration(double epsilon, IterationStrategy maxIteration, DistanceMetric<Double> metric) {
         this.epsilon = epsilon;
+        this.maxIteration = maxIteration;
+        this.metric = metric;
     }
 
     /**
      * Checks if the distances between the previous and current generation centroids
      * are smaller than {@code epsilon}. If that is the case, it will call for the k-Means
-     * algorithm to stop iterating.
+     * algorithm to stop iterating. It also stops when the maximum number of iterations is reached.
+     *
+     * Every centroid is only compared to the centroid at the same position in the other list, so the check takes
+     * linear time in the number of centroids.
      *
-     * @param iterations {@inheritDoc}
+     * @param iteration {@inheritDoc}
      * @param prevCentroids {@inheritDoc}
      * @param nextCentroids {@inheritDoc}
      * @return {@inheritDoc}
      */
-    public boolean shouldContinue(int iterations, List<Measurement> prevCentroids, List<Measurement> nextCentroids) {
-        Collections.sort(prevCentroids, new MeasurementVectorComparator());
-        Collections.sort(nextCentroids, new MeasurementVectorComparator());
+    @Override
+    public boolean shouldContinue(int iteration, List<Measurement> prevCentroids, List<Measurement> nextCentroids) {
+        if (!maxIteration.shouldContinue(iteration, prevCentroids, nextCentroids)) {
+            return false;
+        }
+        if (prevCentroids.size() != nextCentroids.size()) {
+            return true;
+        }
 
         Iterator<Measurement> iterator = prevCentroids.iterator();
-
-        boolean done = false;
         for (Measurement nextCentroid : nextCentroids) {
             Measurement prevCentroid = iterator.next();
             double distance = metric.distance(nextCentroid.getVector(), prevCentroid.getVector());
-            if (distance <= this.epsilon) {
-                done = true;
-            } else {
-                done = false;
-                break;
+            if (!(distance <= this.epsilon)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if the distances between the previous and current generation centroids
+     * are smaller than {@code epsilon}, see {@link #shouldContinue(int, List, List)}.
+     *
+     * @param iteration {@inheritDoc}
+     * @param prevCentroids {@inheritDoc}
+     * @param nextCentroids {@inheritDoc}
+     * @param dimension {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean shouldContinue(int iteration, double[] prevCentroids, double[] nextCentroids, int dimension) {
+        if (!maxIteration.shouldContinue(iteration, prevCentroids, nextCentroids, dimension)) {
+            return false;
+        }
+        if (prevCentroids.length != nextCentroids.length) {
+            return true;
+        }
+
+        for (int offset = 0; offset < nextCentroids.length; offset += dimension) {
+            double distance = metric.distance(nextCentroids, offset, prevCentroids, offset, dimension);
+            if (!(distance <= this.epsilon)) {
+                return true;
             }
         }
 
-        return !done;
+        return false;
     }
 }
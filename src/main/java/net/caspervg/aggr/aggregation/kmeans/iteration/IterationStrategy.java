@@ -10,10 +10,23 @@ public interface IterationStrategy {
      *
      * @param iteration Current iteration number
      * @param prevCentroids Centroids that were calculated in the previous iteration
-     * @param nextCentroids Centroids that were calculated in the current iteration
+     * @param nextCentroids Centroids that were calculated in the current iteration, in the same order
      * @return {@code true} if the k-Means algorithm should continue into the next iteration
      *         {@code false} otherwise
      * @throws IllegalArgumentException if the centroid collections are empty
      */
     boolean shouldContinue(int iteration, List<Measurement> prevCentroids, List<Measurement> nextCentroids);
+
+    /**
+     * Checks if the k-Means algorithm should continue iterating, for centroids that are stored in flat arrays
+     *
+     * @param iteration Current iteration number
+     * @param prevCentroids Components of the centroids that were calculated in the previous iteration
+     * @param nextCentroids Components of the centroids that were calculated in the current iteration, in the same
+     *                      order
+     * @param dimension Number of components of each centroid
+     * @return {@code true} if the k-Means algorithm should continue into the next iteration
+     *         {@code false} otherwise
+     */
+    boolean shouldContinue(int iteration, double[] prevCentroids, double[] nextCentroids, int dimension);
 }
@@ -29,4 +29,17 @@ public class MaxIteration implements IterationStrategy {
         return iteration < maxIterations;
     }
 
+    /**
+     * Checks if the iteration number is larger than the max number of iterations.
+     *
+     * @param iteration {@inheritDoc}
+     * @param prevCentroids {@inheritDoc}
+     * @param nextCentroids {@inheritDoc}
+     * @param dimension {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public boolean shouldContinue(int iteration, double[] prevCentroids, double[] nextCentroids, int dimension) {
+        return iteration < maxIterations;
+    }
 }
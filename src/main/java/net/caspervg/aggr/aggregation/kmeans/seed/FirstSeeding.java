@@ -5,6 +5,7 @@ import net.caspervg.aggr.core.bean.Measurement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 public class FirstSeeding implements SeedingStrategy {
@@ -17,6 +18,7 @@ public class FirstSeeding implements SeedingStrategy {
      */
     @Override
     public Set<Measurement> seeds(Collection<Measurement> measurements, int n) {
-        return new HashSet<>(new ArrayList<>(measurements).subList(0, n - 1));
+        List<Measurement> measurementList = new ArrayList<>(measurements);
+        return new HashSet<>(measurementList.subList(0, Math.min(n, measurementList.size())));
     }
 }
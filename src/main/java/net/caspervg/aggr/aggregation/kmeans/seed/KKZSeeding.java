@@ -1,21 +1,25 @@
 package net.caspervg.aggr.aggregation.kmeans.seed;
 
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
 import net.caspervg.aggr.core.bean.Measurement;
 import net.caspervg.aggr.core.distance.DistanceMetric;
-import net.caspervg.aggr.core.distance.EuclideanDistanceMetric;
-import org.apache.commons.math3.linear.ArrayRealVector;
-import org.apache.commons.math3.linear.RealVector;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
 
 import java.util.*;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import static java.util.stream.Collectors.toList;
-
 
 public class KKZSeeding implements SeedingStrategy {
 
-    private final DistanceMetric<Double> metric = new EuclideanDistanceMetric<>();
+    private final DistanceMetricChoice metricChoice;
+
+    public KKZSeeding() {
+        this(DistanceMetricChoice.EUCLIDEAN);
+    }
+
+    public KKZSeeding(DistanceMetricChoice metricChoice) {
+        this.metricChoice = metricChoice;
+    }
 
     /**
      * {@inheritDoc}
@@ -31,63 +35,94 @@ public class KKZSeeding implements SeedingStrategy {
      */
     @Override
     public Set<Measurement> seeds(Collection<Measurement> measurements, int n) {
-        Set<Measurement> centroids = new HashSet<>();
+        if (measurements.isEmpty()) {
+            throw new IllegalArgumentException("Need at least one measurement");
+        }
+
         List<Measurement> measurementList = new ArrayList<>(measurements);
 
-        /*
-         * Calculate the norms of all vectors in the training set.
-         */
-        List<Double> norms = measurementList
-                .stream()
-                .map(Measurement::getVector)
-                .map(ArrayRealVector::new)
-                .map(RealVector::getNorm)
-                .collect(toList());
+        Set<Measurement> centroids = new HashSet<>();
+        for (int index : seeds(Points.of(measurementList), n)) {
+            centroids.add(measurementList.get(index));
+        }
+
+        return centroids;
+    }
+
+    /**
+     * Selects the seeds from a set of points. The distance of every point to its closest seed is kept, and only
+     * updated against the newest seed, in parallel.
+     *
+     * @param points Points to select from
+     * @param n Number of seeds to select
+     * @return Indices of the selected points, fewer than {@code n} if there are not enough distinct points
+     */
+    public int[] seeds(Points points, int n) {
+        int size = points.size();
+        if (n >= size) {
+            return IntStream.range(0, size).toArray();
+        }
+
+        DistanceMetric<Double> metric = metricChoice.getMetric();
+        double[] coords = points.getCoords();
+        int dimension = points.dimension();
 
         /*
          * Choose the vector with the maximum norm as the first codeword
          */
-        int highestNormIndex = IntStream.range(0, norms.size())
-                .boxed()
-                .max(Comparator.comparing(norms::get))
-                .orElseThrow(() -> new IllegalArgumentException("Need at least one measurement"));
-        centroids.add(measurementList.remove(highestNormIndex));
+        int highestNormIndex = 0;
+        double highestNorm = -1;
+        for (int i = 0; i < size; i++) {
+            double norm = 0;
+            for (int c = points.offset(i); c < points.offset(i) + dimension; c++) {
+                norm += coords[c] * coords[c];
+            }
+            if (norm > highestNorm) {
+                highestNorm = norm;
+                highestNormIndex = i;
+            }
+        }
 
+        int[] chosen = new int[n];
+        chosen[0] = highestNormIndex;
+        int numChosen = 1;
+
+        double[] smallestDistances = new double[size];
+        Arrays.fill(smallestDistances, Double.POSITIVE_INFINITY);
 
         /*
          * The procedure stops if we obtain a codebook of size N
          */
-        while (centroids.size() < n) {
+        while (numChosen < n) {
             /*
-             * Calculate the distance of all training vectors from the existing choices
+             * Update the distance of all training vectors from the existing choices, only the newest choice can be
+             * closer than before
              */
-            List<Double> smallestDistances = measurementList
-                    .stream()
-                    .map(value -> smallestDistance(centroids, value))
-                    .collect(Collectors.toList());
+            int newest = chosen[numChosen - 1];
+            IntStream.range(0, size).parallel().forEach(i -> {
+                double distance = metric.distance(coords, points.offset(newest), coords, points.offset(i), dimension);
+                if (distance < smallestDistances[i]) {
+                    smallestDistances[i] = distance;
+                }
+            });
 
             /*
              * The training vector with the largest distance from the codebook is chosen
              * to be the (i+1)th codeword.
              */
-            int highestDistanceIndex = IntStream.range(0, norms.size())
-                    .boxed()
-                    .max(Comparator.comparing(smallestDistances::get))
-                    .orElseThrow(IllegalStateException::new);
-            centroids.add(measurementList.remove(highestDistanceIndex));
-        }
-
-        return centroids;
-    }
-
-    private double smallestDistance(Collection<Measurement> centroids, Measurement meas) {
-        double smallestDistance = Double.MAX_VALUE;
-        for (Measurement point : centroids) {
-            double distance = metric.distance(point.getVector(), meas.getVector());
-            if (distance < smallestDistance) {
-                smallestDistance = distance;
+            int highestDistanceIndex = 0;
+            for (int i = 1; i < size; i++) {
+                if (smallestDistances[i] > smallestDistances[highestDistanceIndex]) {
+                    highestDistanceIndex = i;
+                }
             }
+            if (smallestDistances[highestDistanceIndex] == 0) {
+                // Every training vector coincides with a codeword
+                break;
+            }
+            chosen[numChosen++] = highestDistanceIndex;
         }
-        return smallestDistance;
+
+        return Arrays.copyOf(chosen, numChosen);
     }
 }
@@ -0,0 +1,200 @@
+package net.caspervg.aggr.aggregation.kmeans.seed;
+
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.aggregation.kmeans.index.CentroidIndex;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.distance.DistanceMetric;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+public class KMeansParallelSeeding implements SeedingStrategy {
+
+    /**
+     * Number of sampling rounds, the original article shows that five rounds are enough
+     */
+    public static final int ROUNDS = 5;
+
+    /**
+     * Expected number of candidates to sample per round, as a multiple of the number of seeds
+     */
+    public static final double OVERSAMPLING = 2.0;
+
+    private final DistanceMetricChoice metricChoice;
+    private final Random random;
+
+    public KMeansParallelSeeding(DistanceMetricChoice metricChoice) {
+        this(metricChoice, new Random());
+    }
+
+    public KMeansParallelSeeding(DistanceMetricChoice metricChoice, Random random) {
+        this.metricChoice = metricChoice;
+        this.random = random;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Calculates the initial seeds using the k-means|| method proposed by Bahmani et al. in 2012, as part of the
+     * article "Scalable K-Means++". Starting from a single random measurement, every round samples about
+     * {@code 2n} candidates, each with a probability proportional to its squared distance to the closest candidate
+     * so far. The candidates are then weighted by the number of measurements closest to them, and reduced to
+     * {@code n} seeds using k-means++. The distances are updated in parallel, and only against the new candidates.
+     *
+     * @see <a href='http://vldb.org/pvldb/vol5/p622_bahmanmoseley_vldb2012.pdf'>PVLDB 5(7):622 - 633</a>
+     * @param measurements {@inheritDoc}
+     * @param n {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Set<Measurement> seeds(Collection<Measurement> measurements, int n) {
+        List<Measurement> measurementList = new ArrayList<>(measurements);
+
+        Set<Measurement> seeds = new HashSet<>();
+        for (int index : seeds(Points.of(measurementList), n)) {
+            seeds.add(measurementList.get(index));
+        }
+
+        return seeds;
+    }
+
+    /**
+     * Selects the seeds from a set of points
+     *
+     * @param points Points to select from
+     * @param n Number of seeds to select
+     * @return Indices of the selected points
+     */
+    public int[] seeds(Points points, int n) {
+        int size = points.size();
+        if (n >= size) {
+            return IntStream.range(0, size).toArray();
+        }
+
+        DistanceMetric<Double> metric = metricChoice.getMetric();
+        double[] coords = points.getCoords();
+        int dimension = points.dimension();
+
+        double[] costs = new double[size];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        List<Integer> candidates = new ArrayList<>();
+        List<Integer> added = Collections.singletonList(random.nextInt(size));
+
+        for (int round = 0; round < ROUNDS && !added.isEmpty(); round++) {
+            candidates.addAll(added);
+
+            // Only the distances to the new candidates have to be calculated
+            List<Integer> newCandidates = added;
+            IntStream.range(0, size).parallel().forEach(i -> {
+                for (int candidate : newCandidates) {
+                    double distance = metric.distance(coords, points.offset(candidate), coords, points.offset(i), dimension);
+                    costs[i] = Math.min(costs[i], distance * distance);
+                }
+            });
+
+            double total = 0;
+            for (int i = 0; i < size; i++) {
+                total += points.weight(i) * costs[i];
+            }
+
+            added = new ArrayList<>();
+            for (int i = 0; i < size && total > 0; i++) {
+                if (random.nextDouble() < OVERSAMPLING * n * points.weight(i) * costs[i] / total) {
+                    added.add(i);
+                }
+            }
+        }
+        candidates.addAll(added);
+
+        // Weigh every candidate by the measurements that are closest to it
+        double[] candidateCoords = new double[candidates.size() * dimension];
+        for (int c = 0; c < candidates.size(); c++) {
+            System.arraycopy(coords, points.offset(candidates.get(c)), candidateCoords, c * dimension, dimension);
+        }
+        CentroidIndex index = CentroidIndex.of(metricChoice, candidateCoords, dimension);
+        double[] weights = IntStream.range(0, size)
+                .parallel()
+                .collect(
+                        () -> new double[candidates.size()],
+                        (sums, i) -> sums[index.nearest(coords, points.offset(i))] += points.weight(i),
+                        (sums, other) -> {
+                            for (int c = 0; c < sums.length; c++) {
+                                sums[c] += other[c];
+                            }
+                        }
+                );
+
+        int[] chosen = reduce(new Points(candidateCoords, weights, dimension), n, metric, random);
+        Set<Integer> seeds = new LinkedHashSet<>();
+        for (int c : chosen) {
+            seeds.add(candidates.get(c));
+        }
+
+        // Top up with random points if there were not enough distinct candidates
+        while (seeds.size() < n) {
+            seeds.add(random.nextInt(size));
+        }
+
+        return seeds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Reduces a set of weighted candidates to the requested number of seeds using k-means++: every seed is chosen
+     * with a probability proportional to its weight and its squared distance to the closest seed so far.
+     *
+     * @param candidates Weighted candidates
+     * @param n Number of seeds to select
+     * @param metric Distance metric to use
+     * @param random Random number generator to use
+     * @return Indices of the selected candidates, at most {@code n}
+     */
+    public static int[] reduce(Points candidates, int n, DistanceMetric<Double> metric, Random random) {
+        int size = candidates.size();
+        if (n >= size) {
+            return IntStream.range(0, size).toArray();
+        }
+
+        double[] coords = candidates.getCoords();
+        int dimension = candidates.dimension();
+        double[] costs = new double[size];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        boolean[] taken = new boolean[size];
+        int[] chosen = new int[n];
+
+        for (int s = 0; s < n; s++) {
+            double total = 0;
+            for (int c = 0; c < size; c++) {
+                if (!taken[c]) {
+                    total += candidates.weight(c) * (s == 0 ? 1 : costs[c]);
+                }
+            }
+
+            int next = -1;
+            double target = random.nextDouble() * total;
+            for (int c = 0; c < size && next < 0; c++) {
+                if (!taken[c]) {
+                    target -= candidates.weight(c) * (s == 0 ? 1 : costs[c]);
+                    if (target < 0) {
+                        next = c;
+                    }
+                }
+            }
+            // All remaining candidates coincide with a seed (or rounding left some probability mass)
+            for (int c = 0; c < size && next < 0; c++) {
+                if (!taken[c]) {
+                    next = c;
+                }
+            }
+
+            chosen[s] = next;
+            taken[next] = true;
+            for (int c = 0; c < size; c++) {
+                double distance = metric.distance(coords, candidates.offset(next), coords, candidates.offset(c), dimension);
+                costs[c] = Math.min(costs[c], distance * distance);
+            }
+        }
+
+        return chosen;
+    }
+}
@@ -21,6 +21,6 @@ public class RandomSeeding implements SeedingStrategy {
     public Set<Measurement> seeds(Collection<Measurement> measurements, int n) {
         List<Measurement> measurementList = new ArrayList<>(measurements);
         Collections.shuffle(measurementList);
-        return FIRST_SEEDING.seeds(measurements, n);
+        return FIRST_SEEDING.seeds(measurementList, n);
     }
 }
@@ -0,0 +1,23 @@
+package net.caspervg.aggr.aggregation.kmeans.seed;
+
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+
+import java.util.function.Function;
+
+public enum SeedingChoice {
+    FIRST(metricChoice -> new FirstSeeding()),
+    RANDOM(metricChoice -> new RandomSeeding()),
+    KKZ(KKZSeeding::new),
+    KMEANS_PARALLEL(KMeansParallelSeeding::new),
+    SINGLE_PASS(SinglePassSeeding::new);
+
+    private Function<DistanceMetricChoice, SeedingStrategy> factory;
+
+    SeedingChoice(Function<DistanceMetricChoice, SeedingStrategy> factory) {
+        this.factory = factory;
+    }
+
+    public SeedingStrategy getStrategy(DistanceMetricChoice metricChoice) {
+        return factory.apply(metricChoice);
+    }
+}
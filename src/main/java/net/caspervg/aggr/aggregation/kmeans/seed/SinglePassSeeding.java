@@ -1,22 +1,48 @@
 package net.caspervg.aggr.aggregation.kmeans.seed;
 
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
 import net.caspervg.aggr.core.bean.Measurement;
 import net.caspervg.aggr.core.distance.DistanceMetric;
-import net.caspervg.aggr.core.distance.EuclideanDistanceMetric;
-import org.apache.commons.lang.ArrayUtils;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
 
 import java.util.*;
 import java.util.stream.IntStream;
 
 public class SinglePassSeeding implements SeedingStrategy {
 
-    private final DistanceMetric<Double> metric = new EuclideanDistanceMetric<>();
+    /**
+     * Maximum number of points to estimate the sum of the distances from every point to all other points with
+     */
+    public static final int SAMPLE_SIZE = 1000;
+
+    private final DistanceMetricChoice metricChoice;
+    private final Random random;
+
+    public SinglePassSeeding() {
+        this(DistanceMetricChoice.EUCLIDEAN);
+    }
+
+    public SinglePassSeeding(DistanceMetricChoice metricChoice) {
+        this(metricChoice, new Random(1));
+    }
+
+    public SinglePassSeeding(DistanceMetricChoice metricChoice, Random random) {
+        this.metricChoice = metricChoice;
+        this.random = random;
+    }
 
     /**
      * {@inheritDoc}
      *
      * Calculates the initial seeds using method proposed by Pavan et al. in 2010, as part of
-     * the article "Single Pass Seed Selection Algorithm for k-Means".
+     * the article "Single Pass Seed Selection Algorithm for k-Means". The first seed is the point with the smallest
+     * sum of distances to the other points. Every next seed is the point at which the running sum of the squared
+     * distances to the closest seed first reaches the sum of the distances from the first seed to its {@code n/k}
+     * nearest points.
+     *
+     * The distance matrix of the article is never built: the sums of the distances are estimated from a sample of at
+     * most {@link #SAMPLE_SIZE} points (exact for smaller sets), and the distances to the closest seed are only updated
+     * against the newest seed. Memory is linear in the number of measurements.
      *
      * @see <a href='http://thescipub.com/PDF/jcssp.2010.60.66.pdf'>jcssp.2010.60.66</a>
      * @param measurements {@inheritDoc}
@@ -27,99 +53,108 @@ public class SinglePassSeeding implements SeedingStrategy {
     public Set<Measurement> seeds(Collection<Measurement> measurements, int numClusters) {
         List<Measurement> measurementList = new ArrayList<>(measurements);
 
-        int n = measurementList.size();
-        int k = numClusters;
-
         Set<Measurement> centroids = new HashSet<>();
+        for (int index : seeds(Points.of(measurementList), numClusters)) {
+            centroids.add(measurementList.get(index));
+        }
 
-        double[][] dist = new double[measurementList.size()][measurementList.size()];
+        return centroids;
+    }
 
-        /*
-         * Calculate distance matrix Dist in which Dist (i,j) represents distance from i to j
-         */
-        for (int i = 0; i < dist.length; i++) {
-            for (int j = 0; j < dist[i].length; j++) {
-                dist[i][j] = metric.distance(measurementList.get(i).getVector(), measurementList.get(j).getVector());
-            }
+    /**
+     * Selects the seeds from a set of points
+     *
+     * @param points Points to select from
+     * @param k Number of seeds to select
+     * @return Indices of the selected points, fewer than {@code k} if there are not enough distinct points
+     */
+    public int[] seeds(Points points, int k) {
+        int n = points.size();
+        if (k >= n) {
+            return IntStream.range(0, n).toArray();
         }
 
+        DistanceMetric<Double> metric = metricChoice.getMetric();
+        double[] coords = points.getCoords();
+        int dimension = points.dimension();
+
         /*
-         * Find Sumv in which Sumv[i] is the sum of the distances from ith point to all other points.
+         * Find Sumv in which Sumv[i] is the (estimated) sum of the distances from ith point to all other points,
+         * and set Index to the point with the smallest sum
          */
-        double[] sumv = new double[dist.length];
-        for (int i = 0; i < sumv.length; i++) {
+        int[] sample = points.sample(SAMPLE_SIZE, random);
+        double[] sumv = new double[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
             double sum = 0;
-            for (int j = 0; j < dist[i].length; j++) {
-                sum += dist[i][j];
+            for (int j : sample) {
+                sum += metric.distance(coords, points.offset(i), coords, points.offset(j), dimension);
             }
             sumv[i] = sum;
+        });
+        int index = 0;
+        for (int i = 1; i < n; i++) {
+            if (sumv[i] < sumv[index]) {
+                index = i;
+            }
         }
 
         /*
-         * Find the point i which is min (Sumv) and set Index = i
+         * For each point x_i, D(x_i) is the distance between x_i and the nearest seed, which is Index for now
          */
-        int index = IntStream.range(0, sumv.length)
-                                .boxed()
-                                .min((o1, o2) -> Double.compare(sumv[o1], sumv[o2]))
-                                .get();
+        int first = index;
+        double[] d = new double[n];
+        IntStream.range(0, n).parallel().forEach(i ->
+                d[i] = metric.distance(coords, points.offset(first), coords, points.offset(i), dimension)
+        );
 
         /*
-         * Add First to C as the first centroid
+         * Find y as the sum of distances of first n/k nearest points from the Index
          */
-        centroids.add(measurementList.get(index));
-
-        /*
-         * Repeat steps 5-8 until you have k centers
-         */
-        //noinspection LoopStatementThatDoesntLoop
-        while (centroids.size() < numClusters) {
-            /*
-             * For each point x_i, set D(x_i) to be the distance between x_i and the nearest point in C
-            */
-            double[] d = new double[measurementList.size()];
-            for (int i = 0; i < measurementList.size(); i++) {
-                d[i] = smallestDistance(centroids, measurementList.get(i));
-            }
-
-            /*
-             * Find y as the sum of distances of first n/k nearest points from the Index
-             */
-            double[] minv = ArrayUtils.clone(dist[index]);
-            double y = 0;
-            for (int i = 0; i < Math.ceil(n / (double) k); i++) {
-                y += minv[i];
-            }
+        double[] nearest = d.clone();
+        Arrays.sort(nearest);
+        double y = 0;
+        for (int i = 0; i < Math.ceil(n / (double) k); i++) {
+            y += nearest[i];
+        }
 
+        int[] chosen = new int[k];
+        chosen[0] = index;
+        int numChosen = 1;
+        while (numChosen < k) {
             /*
-             * Find the unique integer i so that D(x_1)²+D(x_2)²+...+D(x_i)² >= y > D(x_1)²+D(x_2)²+...+D(x_i-1)²
+             * Find the unique integer i so that D(x_1)²+D(x_2)²+...+D(x_i)² >= y > D(x_1)²+D(x_2)²+...+D(x_i-1)²,
+             * or the point farthest from the seeds if the squared distances never add up to y
              */
-            for (int i = 0; i < d.length - 1; i++) {
-                double preSum = 0;
-                for (int j = 0; j < i-1; j++) {
-                    preSum += d[j]*d[j];
+            int next = -1;
+            int farthest = 0;
+            double preSum = 0;
+            for (int i = 0; i < n && next < 0; i++) {
+                preSum += d[i] * d[i];
+                if (preSum >= y && d[i] > 0) {
+                    next = i;
                 }
-
-                if (preSum + d[i]*d[i] >= y && y > preSum) {
-                    /*
-                     * Add x_i to C
-                     */
-                    centroids.add(measurementList.get(i));
+                if (d[i] > d[farthest]) {
+                    farthest = i;
+                }
+            }
+            if (next < 0) {
+                if (d[farthest] == 0) {
+                    // Every point coincides with a seed
                     break;
                 }
+                next = farthest;
             }
-        }
-
-        return centroids;
-    }
 
-    private double smallestDistance(Set<Measurement> points, Measurement meas) {
-        double smallestDistance = Double.MAX_VALUE;
-        for (Measurement point : points) {
-            double distance = metric.distance(point.getVector(), meas.getVector());
-            if (distance < smallestDistance) {
-                smallestDistance = distance;
-            }
+            /*
+             * Add x_i to C, and update the distances to the nearest seed
+             */
+            chosen[numChosen++] = next;
+            int seed = next;
+            IntStream.range(0, n).parallel().forEach(i ->
+                    d[i] = Math.min(d[i], metric.distance(coords, points.offset(seed), coords, points.offset(i), dimension))
+            );
         }
-        return smallestDistance;
+
+        return Arrays.copyOf(chosen, numChosen);
     }
 }
@@ -0,0 +1,109 @@
+package net.caspervg.aggr.aggregation.kmeans.seed;
+
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.aggregation.kmeans.index.CentroidIndex;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import org.apache.spark.api.java.JavaRDD;
+import org.apache.spark.api.java.function.Function;
+import org.apache.spark.api.java.function.Function2;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distributed version of the {@link KMeansParallelSeeding}. Every round costs two passes over the measurements:
+ * one to sum the costs and one to sample the new candidates. Only the candidates are collected to the driver,
+ * which reduces them to the seeds.
+ */
+public class SparkKMeansParallelSeeding {
+
+    private final DistanceMetricChoice metricChoice;
+    private final Random random;
+
+    public SparkKMeansParallelSeeding(DistanceMetricChoice metricChoice) {
+        this(metricChoice, new Random());
+    }
+
+    public SparkKMeansParallelSeeding(DistanceMetricChoice metricChoice, Random random) {
+        this.metricChoice = metricChoice;
+        this.random = random;
+    }
+
+    /**
+     * Chooses {@code n} measurements to be the first iteration seeds for the k-Means algorithm.
+     *
+     * @param measurements Measurements to select from, should be cached
+     * @param n Number of seeds to select
+     * @return Selected measurements
+     */
+    public List<Measurement> seeds(JavaRDD<Measurement> measurements, int n) {
+        List<Measurement> candidates = new ArrayList<>(measurements.takeSample(false, 1, random.nextLong()));
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        double oversampling = KMeansParallelSeeding.OVERSAMPLING * n;
+        for (int round = 0; round < KMeansParallelSeeding.ROUNDS; round++) {
+            CentroidIndex index = index(candidates);
+            JavaRDD<Double> costs = measurements.map((Function<Measurement, Double>) meas -> cost(index, meas));
+
+            double total = costs.reduce((Function2<Double, Double, Double>) Double::sum);
+            if (total == 0) {
+                break;
+            }
+
+            candidates.addAll(measurements
+                    .filter((Function<Measurement, Boolean>) meas ->
+                            ThreadLocalRandom.current().nextDouble() < oversampling * cost(index, meas) / total
+                    )
+                    .collect()
+            );
+        }
+
+        if (candidates.size() <= n) {
+            return candidates;
+        }
+
+        // Weigh every candidate by the measurements that are closest to it
+        CentroidIndex index = index(candidates);
+        Map<Integer, Long> counts = measurements
+                .map((Function<Measurement, Integer>) meas -> index.nearest(coords(meas), 0))
+                .countByValue();
+
+        double[] weights = new double[candidates.size()];
+        for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+            weights[entry.getKey()] = entry.getValue();
+        }
+
+        Points candidatePoints = Points.of(candidates);
+        Points weighted = new Points(candidatePoints.getCoords(), weights, candidatePoints.dimension());
+
+        List<Measurement> seeds = new ArrayList<>(n);
+        for (int c : KMeansParallelSeeding.reduce(weighted, n, metricChoice.getMetric(), random)) {
+            seeds.add(candidates.get(c));
+        }
+
+        return seeds;
+    }
+
+    private CentroidIndex index(List<Measurement> candidates) {
+        Points points = Points.of(candidates);
+        return CentroidIndex.of(metricChoice, points.getCoords(), points.dimension());
+    }
+
+    private static double cost(CentroidIndex index, Measurement meas) {
+        double distance = index.nearest(coords(meas), 0, 1).getDistance(0);
+        return distance * distance;
+    }
+
+    private static double[] coords(Measurement meas) {
+        Double[] vector = meas.getVector();
+        double[] coords = new double[vector.length];
+        for (int d = 0; d < vector.length; d++) {
+            coords[d] = vector[d];
+        }
+
+        return coords;
+    }
+}
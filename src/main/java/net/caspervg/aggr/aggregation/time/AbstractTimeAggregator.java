@@ -1,17 +1,170 @@
 package net.caspervg.aggr.aggregation.time;
 
 import net.caspervg.aggr.aggregation.AbstractAggregator;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.time.window.HoppingWindow;
+import net.caspervg.aggr.aggregation.time.window.TumblingWindow;
+import net.caspervg.aggr.aggregation.time.window.WindowStrategy;
+import net.caspervg.aggr.aggregation.time.window.WindowUnit;
+import net.caspervg.aggr.core.bean.Dataset;
 import net.caspervg.aggr.core.bean.Measurement;
+import org.apache.commons.lang3.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Groups the measurements into multiple sets. Each set is defined by a start- and end time, and will
  * contain only measurements in between those times. The boundaries are calculated by dividing the
  * total duration (between the first and the last measurement) into sections of identical length. Depending
  * on the {@link AbstractTimeAggregator#DETAIL_PARAM}, multiple levels may be created.
+ *
+ * Alternatively, if the {@link #WINDOW_PARAM} is set, the measurements are grouped into windows that are aligned to
+ * the calendar in the {@link #ZONE_PARAM} time zone. Windows are {@link #WINDOW_SIZE_PARAM} units long and start every
+ * {@link #WINDOW_HOP_PARAM} units, so they may overlap. These windows do not depend on the data, which makes their
+ * boundaries and identifiers stable across runs. If the input is ordered by timestamp, these windows can also be
+ * aggregated while streaming through the input (see {@link #STREAMING_PARAM}).
  */
 public abstract class AbstractTimeAggregator extends AbstractAggregator<TimeAggregation, Measurement> implements TimeAggregator {
     public static final String DETAIL_PARAM = "detail";
 
+    public static final String WINDOW_PARAM = "window";
+    public static final String WINDOW_SIZE_PARAM = "window_size";
+    public static final String WINDOW_HOP_PARAM = "window_hop";
+    public static final String ZONE_PARAM = "zone";
+    public static final String STREAMING_PARAM = "streaming";
+
     protected static final String DEFAULT_NUM_DETAIL = "8";
+    protected static final String DEFAULT_WINDOW_SIZE = "1";
+    protected static final String DEFAULT_ZONE = "UTC";
+
+    /**
+     * Creates the calendar-aligned window strategy that is requested by the parameters, if any.
+     *
+     * @param parameters Parameters of the aggregation
+     * @return Window strategy, or {@link Optional#empty()} if the data should be divided by detail instead
+     */
+    public static Optional<WindowStrategy> windowStrategy(Map<String, String> parameters) {
+        String window = parameters.get(WINDOW_PARAM);
+        if (StringUtils.isBlank(window)) {
+            return Optional.empty();
+        }
+
+        int size = Integer.parseInt(parameters.getOrDefault(WINDOW_SIZE_PARAM, DEFAULT_WINDOW_SIZE));
+        int hop = Integer.parseInt(parameters.getOrDefault(WINDOW_HOP_PARAM, String.valueOf(size)));
+        ZoneId zone = ZoneId.of(parameters.getOrDefault(ZONE_PARAM, DEFAULT_ZONE));
+
+        WindowUnit unit = WindowUnit.valueOf(window.toUpperCase());
+        if (hop == size) {
+            return Optional.of(new TumblingWindow(unit, size, zone));
+        }
+
+        return Optional.of(new HoppingWindow(unit, size, hop, zone));
+    }
+
+    /**
+     * Fills a child measurement with the data of its parent. The identifier of the child only depends on
+     * the parent and the window strategy, so that it is stable across runs.
+     *
+     * @param parent Measurement to copy
+     * @param window Window strategy that is used
+     * @param child Fresh output measurement
+     * @return The child measurement
+     */
+    @SuppressWarnings("OptionalGetWithoutIsPresent")
+    protected static Measurement windowChild(Measurement parent, WindowStrategy window, Measurement child) {
+        child.setUuid(stableUuid(parent.getUuid(), window.toString()));
+        child.setVector(parent.getVector());
+        child.setData(parent.getData());
+        child.setTimestamp(parent.getTimestamp().get());
+
+        return child;
+    }
+
+    /**
+     * Creates the result for a single window. The identifier of the aggregation only depends on the dataset,
+     * the window strategy and the start of the window, so that it is stable across runs.
+     *
+     * @param dataset Dataset of the measurements
+     * @param window Window strategy that is used
+     * @param windowStart Start of the window, in milliseconds since the epoch
+     * @param parents Measurements in the window
+     * @param children Child measurements in the window
+     * @return Result of the aggregation for this window
+     */
+    protected static AggregationResult<TimeAggregation, Measurement> windowResult(Dataset dataset,
+                                                                                  WindowStrategy window,
+                                                                                  long windowStart,
+                                                                                  List<Measurement> parents,
+                                                                                  List<Measurement> children) {
+        TimeAggregation aggregation = new TimeAggregation(
+                stableUuid(dataset.getUuid(), window.toString(), String.valueOf(windowStart)),
+                dataset,
+                fromEpochMilli(windowStart),
+                fromEpochMilli(window.windowEnd(windowStart)),
+                parents,
+                children
+        );
+
+        return new AggregationResult<>(aggregation, children);
+    }
+
+    /**
+     * Returns the number of buckets on the most detailed level. Levels are created for every power of two
+     * that does not exceed the requested detail, so this is the largest such power of two.
+     *
+     * @param numDetail Requested detail
+     * @return Number of buckets on the finest level
+     */
+    public static int finestDetail(int numDetail) {
+        return numDetail < 1 ? 1 : Integer.highestOneBit(numDetail);
+    }
+
+    /**
+     * Calculates the index of the bucket that a point in time belongs to, given the offset from the start of
+     * the first bucket. Points beyond the last bucket (e.g. the final measurement) end up in the last bucket.
+     *
+     * @param offset Offset (in milliseconds) from the start of the first bucket
+     * @param timeStep Length (in milliseconds) of a single bucket
+     * @param detail Number of buckets
+     * @return Index of the bucket
+     */
+    public static int bucketIndex(long offset, long timeStep, int detail) {
+        if (timeStep <= 0) {
+            return 0;
+        }
+
+        return (int) Math.min(offset / timeStep, detail - 1);
+    }
+
+    /**
+     * Converts a timestamp to milliseconds since the epoch. Timestamps are interpreted as UTC, like the writers do.
+     *
+     * @param timestamp Timestamp to convert
+     * @return Milliseconds since the epoch
+     */
+    public static long toEpochMilli(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Converts milliseconds since the epoch back to a (UTC) timestamp.
+     *
+     * @param epochMilli Milliseconds since the epoch
+     * @return Timestamp
+     */
+    public static LocalDateTime fromEpochMilli(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneOffset.UTC);
+    }
 
+    private static String stableUuid(String... parts) {
+        return UUID.nameUUIDFromBytes(String.join("|", parts).getBytes(StandardCharsets.UTF_8)).toString();
+    }
 }
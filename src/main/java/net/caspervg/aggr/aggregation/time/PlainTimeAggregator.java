@@ -4,20 +4,19 @@ import com.google.common.collect.Lists;
 import net.caspervg.aggr.core.bean.Dataset;
 import net.caspervg.aggr.core.bean.Measurement;
 import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.time.window.WindowStrategy;
 import net.caspervg.aggr.core.util.AggrContext;
-import net.caspervg.aggr.core.bean.util.TimedMeasurementComparator;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.*;
 
 /**
  * {@inheritDoc}
  *
- * @implNote uses the Java programming model
+ * @implNote uses the Java programming model. The measurements are bucketed in a single pass (counting sort) on the
+ * finest level, every coarser level is a slice of consecutive finest-level buckets. The children are copied once
+ * per bucket, so every level has its own children. Calendar-aligned windows are also assigned in a single pass.
  */
 public class PlainTimeAggregator extends AbstractTimeAggregator {
     @SuppressWarnings("OptionalGetWithoutIsPresent")
@@ -31,50 +30,75 @@ public class PlainTimeAggregator extends AbstractTimeAggregator {
             return new HashSet<>();
         }
 
-        // Find the time range
-        // Assuming there is at least one measurement in the list!
-        LocalDateTime minTimestamp = measurementList.parallelStream().min(new TimedMeasurementComparator()).get().getTimestamp().get();
-        LocalDateTime maxTimestamp = measurementList.parallelStream().max(new TimedMeasurementComparator()).get().getTimestamp().get();
-        long duration = minTimestamp.until(maxTimestamp, ChronoUnit.MILLIS);
+        Optional<WindowStrategy> window = windowStrategy(context.getParameters());
+        if (window.isPresent()) {
+            return aggregateWindows(dataset, measurementList, window.get(), context);
+        }
+
+        // Find the time range in a single pass, remembering the time of each measurement
+        int size = measurementList.size();
+        long[] times = new long[size];
+        long minTime = Long.MAX_VALUE;
+        long maxTime = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            times[i] = toEpochMilli(measurementList.get(i).getTimestamp().get());
+            minTime = Math.min(minTime, times[i]);
+            maxTime = Math.max(maxTime, times[i]);
+        }
+        long duration = maxTime - minTime;
+        LocalDateTime minTimestamp = fromEpochMilli(minTime);
+        LocalDateTime maxTimestamp = fromEpochMilli(maxTime);
 
-        Set<AggregationResult<TimeAggregation, Measurement>> aggregationResults = new HashSet<>();
         int numDetail = Integer.parseInt(context.getParameters().getOrDefault(DETAIL_PARAM, DEFAULT_NUM_DETAIL));
+        int finest = finestDetail(numDetail);
+        long fineStep = duration / finest;
+
+        // Assign every measurement to a bucket on the finest level and count the bucket sizes
+        int[] buckets = new int[size];
+        int[] offsets = new int[finest + 1];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = bucketIndex(times[i] - minTime, fineStep, finest);
+            offsets[buckets[i] + 1]++;
+        }
+        for (int b = 0; b < finest; b++) {
+            offsets[b + 1] += offsets[b];
+        }
+
+        // Place the measurements in bucket order
+        Measurement[] sortedParents = new Measurement[size];
+        int[] positions = Arrays.copyOf(offsets, finest);
+        for (int i = 0; i < size; i++) {
+            sortedParents[positions[buckets[i]]++] = measurementList.get(i);
+        }
+        List<Measurement> parents = Arrays.asList(sortedParents);
 
-        for (int detail = 1; detail <= numDetail; detail *= 2) {
-            // Divide the total time range into multiple steps based on the required detail
-            long timeStep = duration / detail;
+        Set<AggregationResult<TimeAggregation, Measurement>> aggregationResults = new HashSet<>();
+        for (int detail = 1; detail <= finest; detail *= 2) {
+            // Each bucket on this level spans a number of consecutive buckets on the finest level
+            int span = finest / detail;
+            long timeStep = fineStep * span;
 
             for (int i = 0; i < detail; i++) {
                 LocalDateTime start = minTimestamp.plus(timeStep * i, ChronoUnit.MILLIS);
-                LocalDateTime end = minTimestamp.plus(timeStep * (i + 1), ChronoUnit.MILLIS);
-
-                // Filter only the measurements that fall within the desired time bounds
-                List<Measurement> filteredMeasurements =
-                        measurementList
-                        .stream()
-                        .filter(measurement -> {
-                            LocalDateTime timestamp = measurement.getTimestamp().get();
-                            return (timestamp.isEqual(start) || (timestamp.isAfter(start) && timestamp.isBefore(end)));
-                        })
-                        .collect(Collectors.toList());
-
-                List<Measurement> childMeasurements =
-                        filteredMeasurements
-                                .stream()
-                                .map(parent -> {
-                                            Measurement child = context.newOutputMeasurement();
-                                            child.setVector(parent.getVector());
-                                            child.setData(parent.getData());
-                                            child.setTimestamp(parent.getTimestamp().get());
-
-                                            return child;
-                                        }
-                                )
-                                .collect(Collectors.toList());
+                LocalDateTime end = (i == detail - 1) ? maxTimestamp : minTimestamp.plus(timeStep * (i + 1), ChronoUnit.MILLIS);
+
+                int from = offsets[i * span];
+                int to = offsets[(i + 1) * span];
+                List<Measurement> bucketParents = parents.subList(from, to);
+
+                // Every bucket gets its own children, so that the levels do not share measurements
+                List<Measurement> childMeasurements = new ArrayList<>(to - from);
+                for (Measurement parent : bucketParents) {
+                    Measurement child = context.newOutputMeasurement();
+                    child.setVector(parent.getVector());
+                    child.setData(parent.getData());
+                    child.setTimestamp(parent.getTimestamp().get());
+                    childMeasurements.add(child);
+                }
 
                 // Add this aggregation to the result
                 aggregationResults.add(new AggregationResult<>(
-                        new TimeAggregation(dataset, start, end, filteredMeasurements, childMeasurements),
+                        new TimeAggregation(dataset, start, end, bucketParents, childMeasurements),
                         childMeasurements
                 ));
             }
@@ -82,4 +106,31 @@ public class PlainTimeAggregator extends AbstractTimeAggregator {
 
         return aggregationResults;
     }
+
+    @SuppressWarnings("OptionalGetWithoutIsPresent")
+    private Iterable<AggregationResult<TimeAggregation, Measurement>> aggregateWindows(Dataset dataset,
+                                                                                      List<Measurement> measurementList,
+                                                                                      WindowStrategy window,
+                                                                                      AggrContext context) {
+        Map<Long, List<Measurement>> parentsPerWindow = new TreeMap<>();
+        Map<Long, List<Measurement>> childrenPerWindow = new TreeMap<>();
+
+        for (Measurement parent : measurementList) {
+            Measurement child = windowChild(parent, window, context.newOutputMeasurement());
+
+            for (long windowStart : window.windowStarts(toEpochMilli(parent.getTimestamp().get()))) {
+                parentsPerWindow.computeIfAbsent(windowStart, start -> new ArrayList<>()).add(parent);
+                childrenPerWindow.computeIfAbsent(windowStart, start -> new ArrayList<>()).add(child);
+            }
+        }
+
+        List<AggregationResult<TimeAggregation, Measurement>> aggregationResults = new ArrayList<>();
+        for (Map.Entry<Long, List<Measurement>> entry : parentsPerWindow.entrySet()) {
+            aggregationResults.add(
+                    windowResult(dataset, window, entry.getKey(), entry.getValue(), childrenPerWindow.get(entry.getKey()))
+            );
+        }
+
+        return aggregationResults;
+    }
 }
@@ -4,25 +4,28 @@ import com.google.common.collect.Lists;
 import net.caspervg.aggr.core.bean.Dataset;
 import net.caspervg.aggr.core.bean.Measurement;
 import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.time.window.WindowStrategy;
 import net.caspervg.aggr.core.util.AggrContext;
-import net.caspervg.aggr.core.bean.util.TimedMeasurementComparator;
+import org.apache.spark.HashPartitioner;
+import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.api.java.JavaRDD;
 import org.apache.spark.api.java.JavaSparkContext;
-import org.apache.spark.api.java.function.Function;
+import org.apache.spark.api.java.function.Function2;
+import org.apache.spark.api.java.function.PairFlatMapFunction;
+import scala.Tuple2;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.*;
 
 /**
  * {@inheritDoc}
  *
- * @implNote uses Spark to perform the aggregation
+ * @implNote uses Spark to perform the aggregation. Every measurement is keyed by each (level, bucket) pair it belongs
+ * to, after which all buckets are built in a single shuffle. The key of bucket {@code i} on the level with
+ * {@code detail} buckets is {@code detail + i}, so all keys of all levels are distinct. Calendar-aligned windows are
+ * keyed by their start time instead.
  */
 public class SparkTimeAggregator extends AbstractTimeAggregator implements Serializable {
 
@@ -35,47 +38,84 @@ public class SparkTimeAggregator extends AbstractTimeAggregator implements Seria
 
         List<Measurement> measurementList = Lists.newArrayList(measurements);
 
-        JavaSparkContext sparkCtx = context.getSparkContext();
-        Class<? extends Measurement> clazz = context.getOutputClass();
-        JavaRDD<Measurement> measRDD = sparkCtx.parallelize(measurementList);
-
         if (measurementList.size() < 1) {
             return new HashSet<>();
         }
 
-        LocalDateTime minTimestamp = measRDD.min(new TimedMeasurementComparator()).getTimestamp().get();
-        LocalDateTime maxTimestamp = measRDD.max(new TimedMeasurementComparator()).getTimestamp().get();
-        long duration = minTimestamp.until(maxTimestamp, ChronoUnit.MILLIS);
+        JavaSparkContext sparkCtx = context.getSparkContext();
+        Class<? extends Measurement> clazz = context.getOutputClass();
+        Optional<WindowStrategy> window = windowStrategy(context.getParameters());
+        if (window.isPresent()) {
+            return aggregateWindows(dataset, sparkCtx.parallelize(measurementList), window.get(), clazz);
+        }
+
+        JavaRDD<Measurement> measRDD = sparkCtx.parallelize(measurementList).cache();
+
+        // Find the time range with a single job
+        long[] range = measRDD.aggregate(
+                new long[]{Long.MAX_VALUE, Long.MIN_VALUE},
+                (Function2<long[], Measurement, long[]>) (acc, measurement) -> {
+                    long time = toEpochMilli(measurement.getTimestamp().get());
+                    acc[0] = Math.min(acc[0], time);
+                    acc[1] = Math.max(acc[1], time);
+                    return acc;
+                },
+                (Function2<long[], long[], long[]>) (acc1, acc2) -> {
+                    acc1[0] = Math.min(acc1[0], acc2[0]);
+                    acc1[1] = Math.max(acc1[1], acc2[1]);
+                    return acc1;
+                }
+        );
+        long minTime = range[0];
+        long duration = range[1] - range[0];
+        LocalDateTime minTimestamp = fromEpochMilli(range[0]);
+        LocalDateTime maxTimestamp = fromEpochMilli(range[1]);
 
-        Set<AggregationResult<TimeAggregation, Measurement>> aggregationResults = new HashSet<>();
         int numDetail = Integer.parseInt(context.getParameters().getOrDefault(DETAIL_PARAM, DEFAULT_NUM_DETAIL));
-        for (int detail = 1; detail <= numDetail; detail *= 2) {
-            long timeStep = duration / detail;
+        int finest = finestDetail(numDetail);
+        long fineStep = duration / finest;
+
+        // Key each measurement (and its single child copy) by the bucket it belongs to on every level
+        JavaPairRDD<Integer, Tuple2<Measurement, Measurement>> keyedMeas = measRDD.flatMapToPair(
+                (PairFlatMapFunction<Measurement, Integer, Tuple2<Measurement, Measurement>>) parent -> {
+                    int fineBucket = bucketIndex(toEpochMilli(parent.getTimestamp().get()) - minTime, fineStep, finest);
+
+                    Measurement child = newInstance(clazz);
+                    child.setVector(parent.getVector());
+                    child.setData(parent.getData());
+                    child.setTimestamp(parent.getTimestamp().get());
+                    Tuple2<Measurement, Measurement> pair = new Tuple2<>(parent, child);
+
+                    List<Tuple2<Integer, Tuple2<Measurement, Measurement>>> keys = new ArrayList<>();
+                    for (int detail = 1; detail <= finest; detail *= 2) {
+                        keys.add(new Tuple2<>(detail + fineBucket / (finest / detail), pair));
+                    }
+                    return keys;
+                }
+        );
+
+        Map<Integer, Iterable<Tuple2<Measurement, Measurement>>> bucketMap = keyedMeas
+                .groupByKey(new HashPartitioner(2 * finest))
+                .collectAsMap();
+        measRDD.unpersist();
+
+        Set<AggregationResult<TimeAggregation, Measurement>> aggregationResults = new HashSet<>();
+        for (int detail = 1; detail <= finest; detail *= 2) {
+            long timeStep = fineStep * (finest / detail);
 
             for (int i = 0; i < detail; i++) {
                 LocalDateTime start = minTimestamp.plus(timeStep * i, ChronoUnit.MILLIS);
-                LocalDateTime end = minTimestamp.plus(timeStep * (i + 1), ChronoUnit.MILLIS);
-
-                JavaRDD<Measurement> filteredMeas = measRDD.filter((Function<Measurement, Boolean>) measurement -> {
-                    LocalDateTime timestamp = measurement.getTimestamp().get();
-                    return (timestamp.isEqual(start) || (timestamp.isAfter(start) && timestamp.isBefore(end)));
-                });
-
-                List<Measurement> childMeasurements = filteredMeas.collect()
-                        .stream()
-                        .map(parent -> {
-                                    Measurement child = newInstance(clazz);
-                                    child.setVector(parent.getVector());
-                                    child.setData(parent.getData());
-                                    child.setTimestamp(parent.getTimestamp().get());
-
-                                    return child;
-                                }
-                        )
-                        .collect(Collectors.toList());
+                LocalDateTime end = (i == detail - 1) ? maxTimestamp : minTimestamp.plus(timeStep * (i + 1), ChronoUnit.MILLIS);
+
+                List<Measurement> parentMeasurements = new ArrayList<>();
+                List<Measurement> childMeasurements = new ArrayList<>();
+                for (Tuple2<Measurement, Measurement> pair : bucketMap.getOrDefault(detail + i, Collections.emptyList())) {
+                    parentMeasurements.add(pair._1);
+                    childMeasurements.add(pair._2);
+                }
 
                 aggregationResults.add(new AggregationResult<>(
-                        new TimeAggregation(dataset, start, end, filteredMeas.collect(), childMeasurements),
+                        new TimeAggregation(dataset, start, end, parentMeasurements, childMeasurements),
                         childMeasurements
                 ));
             }
@@ -83,4 +123,37 @@ public class SparkTimeAggregator extends AbstractTimeAggregator implements Seria
 
         return aggregationResults;
     }
+
+    @SuppressWarnings("OptionalGetWithoutIsPresent")
+    private Iterable<AggregationResult<TimeAggregation, Measurement>> aggregateWindows(Dataset dataset,
+                                                                                      JavaRDD<Measurement> measRDD,
+                                                                                      WindowStrategy window,
+                                                                                      Class<? extends Measurement> clazz) {
+        // Key each measurement (and its single child copy) by the start of every window it belongs to
+        Map<Long, Iterable<Tuple2<Measurement, Measurement>>> windowMap = measRDD.flatMapToPair(
+                (PairFlatMapFunction<Measurement, Long, Tuple2<Measurement, Measurement>>) parent -> {
+                    Tuple2<Measurement, Measurement> pair = new Tuple2<>(parent, windowChild(parent, window, newInstance(clazz)));
+
+                    List<Tuple2<Long, Tuple2<Measurement, Measurement>>> keys = new ArrayList<>();
+                    for (long windowStart : window.windowStarts(toEpochMilli(parent.getTimestamp().get()))) {
+                        keys.add(new Tuple2<>(windowStart, pair));
+                    }
+                    return keys;
+                }
+        ).groupByKey().collectAsMap();
+
+        List<AggregationResult<TimeAggregation, Measurement>> aggregationResults = new ArrayList<>();
+        for (Map.Entry<Long, Iterable<Tuple2<Measurement, Measurement>>> entry : new TreeMap<>(windowMap).entrySet()) {
+            List<Measurement> parentMeasurements = new ArrayList<>();
+            List<Measurement> childMeasurements = new ArrayList<>();
+            for (Tuple2<Measurement, Measurement> pair : entry.getValue()) {
+                parentMeasurements.add(pair._1);
+                childMeasurements.add(pair._2);
+            }
+
+            aggregationResults.add(windowResult(dataset, window, entry.getKey(), parentMeasurements, childMeasurements));
+        }
+
+        return aggregationResults;
+    }
 }
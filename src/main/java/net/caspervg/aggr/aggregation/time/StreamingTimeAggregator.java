@@ -0,0 +1,106 @@
+package net.caspervg.aggr.aggregation.time;
+
+import com.google.common.collect.AbstractIterator;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.time.window.WindowStrategy;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+
+import java.util.*;
+
+/**
+ * {@inheritDoc}
+ *
+ * @implNote uses the Java programming model on measurements that are ordered by timestamp. The measurements are
+ * consumed lazily while the results are traversed, and only the windows that are still open are kept in memory.
+ * A window is emitted as soon as a measurement at or after its end arrives, so memory use depends on the
+ * window size instead of on the size of the dataset. Only calendar-aligned windows are supported, as the
+ * detail levels depend on the time range of the entire dataset.
+ */
+public class StreamingTimeAggregator extends AbstractTimeAggregator {
+
+    /**
+     * {@inheritDoc}
+     *
+     * @param dataset {@inheritDoc}
+     * @param measurements Measurements to aggregate, ordered by timestamp
+     * @param context {@inheritDoc}
+     * @return Lazily calculated results of the aggregation, ordered by the start of their window
+     * @throws IllegalArgumentException if the {@link #WINDOW_PARAM} is not set
+     */
+    @Override
+    public Iterable<AggregationResult<TimeAggregation, Measurement>> aggregate(Dataset dataset,
+                                                                               Iterable<Measurement> measurements,
+                                                                               AggrContext context) {
+        Optional<WindowStrategy> window = windowStrategy(context.getParameters());
+        if (!window.isPresent()) {
+            throw new IllegalArgumentException("Streaming time aggregation requires the " + WINDOW_PARAM + " parameter");
+        }
+
+        return () -> new WindowIterator(dataset, measurements.iterator(), window.get(), context);
+    }
+
+    private static class WindowIterator extends AbstractIterator<AggregationResult<TimeAggregation, Measurement>> {
+
+        private final Dataset dataset;
+        private final Iterator<Measurement> measurements;
+        private final WindowStrategy window;
+        private final AggrContext context;
+
+        // Windows that may still receive measurements, by start time
+        private final TreeMap<Long, List<Measurement>> openParents = new TreeMap<>();
+        private final TreeMap<Long, List<Measurement>> openChildren = new TreeMap<>();
+        private final Deque<AggregationResult<TimeAggregation, Measurement>> closed = new ArrayDeque<>();
+        private long lastTime = Long.MIN_VALUE;
+
+        WindowIterator(Dataset dataset, Iterator<Measurement> measurements, WindowStrategy window, AggrContext context) {
+            this.dataset = dataset;
+            this.measurements = measurements;
+            this.window = window;
+            this.context = context;
+        }
+
+        @SuppressWarnings("OptionalGetWithoutIsPresent")
+        @Override
+        protected AggregationResult<TimeAggregation, Measurement> computeNext() {
+            while (closed.isEmpty() && measurements.hasNext()) {
+                Measurement parent = measurements.next();
+                long time = toEpochMilli(parent.getTimestamp().get());
+                if (time < lastTime) {
+                    throw new IllegalStateException("Measurements must be ordered by timestamp, but " +
+                            parent.getTimestamp().get() + " arrived after " + fromEpochMilli(lastTime));
+                }
+                lastTime = time;
+
+                // No later measurement can fall in a window that ends before this one
+                while (!openParents.isEmpty() && window.windowEnd(openParents.firstKey()) <= time) {
+                    close(openParents.firstKey());
+                }
+
+                Measurement child = windowChild(parent, window, context.newOutputMeasurement());
+                for (long windowStart : window.windowStarts(time)) {
+                    openParents.computeIfAbsent(windowStart, start -> new ArrayList<>()).add(parent);
+                    openChildren.computeIfAbsent(windowStart, start -> new ArrayList<>()).add(child);
+                }
+            }
+
+            // The input is exhausted, so every remaining window is complete
+            if (closed.isEmpty() && !openParents.isEmpty()) {
+                close(openParents.firstKey());
+            }
+
+            return closed.isEmpty() ? endOfData() : closed.poll();
+        }
+
+        private void close(long windowStart) {
+            closed.add(windowResult(
+                    dataset,
+                    window,
+                    windowStart,
+                    openParents.remove(windowStart),
+                    openChildren.remove(windowStart)
+            ));
+        }
+    }
+}
@@ -32,9 +32,17 @@ public class TimeAggregationExecution extends AbstractAggregationExecution {
         params.put(AbstractAggrReader.INPUT_PARAM_KEY, ac.getInput());
         params.put(OUTPUT_PARAM_KEY, ac.getOutput());
         params.put(AbstractTimeAggregator.DETAIL_PARAM, String.valueOf(tac.getMaxDetail()));
+        if (tac.getWindow() != null) {
+            params.put(AbstractTimeAggregator.WINDOW_PARAM, tac.getWindow().name());
+            params.put(AbstractTimeAggregator.WINDOW_SIZE_PARAM, String.valueOf(tac.getWindowSize()));
+            params.put(AbstractTimeAggregator.WINDOW_HOP_PARAM, String.valueOf(tac.getWindowHop()));
+            params.put(AbstractTimeAggregator.ZONE_PARAM, tac.getZone());
+        }
 
         TimeAggregator aggregator;
-        if (ac.isSpark()) {
+        if (tac.isStreaming()) {
+            aggregator = new StreamingTimeAggregator();
+        } else if (ac.isSpark()) {
             aggregator = new SparkTimeAggregator();
         } else {
             aggregator = new PlainTimeAggregator();
@@ -42,7 +50,12 @@ public class TimeAggregationExecution extends AbstractAggregationExecution {
         AggrContext ctx = createContext(params, ac);
 
         Dataset dataset = Dataset.Builder.setup().withTitle(ac.getDatasetId()).withUuid(ac.getDatasetId()).build();
-        Iterable<Measurement> meas = getReader(ac, ctx).read(ctx);
+        Iterable<Measurement> meas;
+        if (tac.isStreaming()) {
+            meas = getReader(ac, ctx).stream(ctx);    // Each result is written as soon as its window closes
+        } else {
+            meas = getReader(ac, ctx).read(ctx);
+        }
         Iterable<AggregationResult<TimeAggregation, Measurement>> results = aggregator.aggregate(dataset, meas, ctx);
 
         AggrResultWriter writer = null;
@@ -0,0 +1,97 @@
+package net.caspervg.aggr.aggregation.time.window;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneRules;
+
+public class HoppingWindow implements WindowStrategy {
+
+    private static final long MILLIS_PER_SECOND = 1000;
+
+    private WindowUnit unit;
+    private int size;
+    private int hop;
+    private ZoneId zone;
+    private transient ZoneRules rules;
+
+    /**
+     * Creates a new HoppingWindow. Windows are {@code size} units long, and a new window starts every
+     * {@code hop} units. The windows are aligned to the calendar in the given time zone, e.g. hourly windows
+     * start on the hour and daily windows start at midnight (local time).
+     *
+     * @param unit Unit of the size and hop
+     * @param size Length of each window, in units
+     * @param hop Time between the start of consecutive windows, in units
+     * @param zone Time zone to align the windows in
+     * @throws IllegalArgumentException if the size or hop is smaller than one
+     */
+    public HoppingWindow(WindowUnit unit, int size, int hop, ZoneId zone) {
+        if (size < 1 || hop < 1) {
+            throw new IllegalArgumentException("Window size and hop must be at least one unit");
+        }
+
+        this.unit = unit;
+        this.size = size;
+        this.hop = hop;
+        this.zone = zone;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The windows are found by flooring the local time to a multiple of the hop, and stepping back for as long
+     * as the window still covers the point in time.
+     *
+     * @param epochMilli {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public long[] windowStarts(long epochMilli) {
+        long hopMillis = hop * unit.getMillis();
+        long local = toLocal(epochMilli) - unit.getAnchor();
+
+        long last = Math.floorDiv(local, hopMillis);
+        long first = Math.floorDiv(local - size * unit.getMillis(), hopMillis) + 1;
+
+        long[] starts = new long[(int) (last - first + 1)];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = toEpoch((first + i) * hopMillis + unit.getAnchor());
+        }
+
+        return starts;
+    }
+
+    @Override
+    public long windowEnd(long windowStart) {
+        return toEpoch(toLocal(windowStart) + size * unit.getMillis());
+    }
+
+    private long toLocal(long epochMilli) {
+        return epochMilli + rules().getOffset(Instant.ofEpochMilli(epochMilli)).getTotalSeconds() * MILLIS_PER_SECOND;
+    }
+
+    private long toEpoch(long localMilli) {
+        LocalDateTime local = LocalDateTime.ofEpochSecond(Math.floorDiv(localMilli, MILLIS_PER_SECOND), 0, ZoneOffset.UTC);
+        return localMilli - rules().getOffset(local).getTotalSeconds() * MILLIS_PER_SECOND;
+    }
+
+    private ZoneRules rules() {
+        if (rules == null) {
+            rules = zone.getRules();
+        }
+        return rules;
+    }
+
+    @Override
+    public String toString() {
+        // Also used for a TumblingWindow, which has the same windows, so that the identifiers do not change
+        return "HoppingWindow{" +
+                "unit=" + unit +
+                ", size=" + size +
+                ", hop=" + hop +
+                ", zone=" + zone +
+                '}';
+    }
+}
@@ -0,0 +1,17 @@
+package net.caspervg.aggr.aggregation.time.window;
+
+import java.time.ZoneId;
+
+public class TumblingWindow extends HoppingWindow {
+    /**
+     * Creates a new TumblingWindow: consecutive, non-overlapping windows of {@code size} units that are aligned
+     * to the calendar in the given time zone. Every point in time belongs to exactly one window.
+     *
+     * @param unit Unit of the size
+     * @param size Length of each window, in units
+     * @param zone Time zone to align the windows in
+     */
+    public TumblingWindow(WindowUnit unit, int size, ZoneId zone) {
+        super(unit, size, size, zone);
+    }
+}
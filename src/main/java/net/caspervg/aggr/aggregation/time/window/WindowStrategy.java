@@ -0,0 +1,23 @@
+package net.caspervg.aggr.aggregation.time.window;
+
+import java.io.Serializable;
+
+public interface WindowStrategy extends Serializable {
+    /**
+     * Calculates the windows that contain the given point in time. Implementations must only use arithmetic on
+     * the point in time, so that the assignment does not depend on any other measurement.
+     *
+     * @param epochMilli Point in time, in milliseconds since the epoch
+     * @return Start (in milliseconds since the epoch) of every window that contains the point in time
+     */
+    long[] windowStarts(long epochMilli);
+
+    /**
+     * Calculates the end of the window that starts at the given point in time. The end itself is not
+     * part of the window.
+     *
+     * @param windowStart Start of the window, in milliseconds since the epoch
+     * @return End of the window, in milliseconds since the epoch
+     */
+    long windowEnd(long windowStart);
+}
@@ -0,0 +1,36 @@
+package net.caspervg.aggr.aggregation.time.window;
+
+import java.util.concurrent.TimeUnit;
+
+public enum WindowUnit {
+    MINUTE(TimeUnit.MINUTES.toMillis(1), 0),
+    HOUR(TimeUnit.HOURS.toMillis(1), 0),
+    DAY(TimeUnit.DAYS.toMillis(1), 0),
+    WEEK(TimeUnit.DAYS.toMillis(7), TimeUnit.DAYS.toMillis(4));    // 1970-01-05 is the first Monday after the epoch
+
+    private long millis;
+    private long anchor;
+
+    WindowUnit(long millis, long anchor) {
+        this.millis = millis;
+        this.anchor = anchor;
+    }
+
+    /**
+     * Retrieves the length of this unit on a day without daylight saving transitions
+     *
+     * @return Length in milliseconds
+     */
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * Retrieves the (local) time after the epoch at which the first window of this unit starts
+     *
+     * @return Anchor in milliseconds
+     */
+    public long getAnchor() {
+        return anchor;
+    }
+}
@@ -21,4 +21,17 @@ public class CanberraDistanceMetric<T extends Number> extends AbstractDistanceMe
 
         return sum;
     }
+
+    @Override
+    public double distance(double[] vectors1, int offset1, double[] vectors2, int offset2, int dimension) {
+        double sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            double p = vectors1[offset1 + i];
+            double q = vectors2[offset2 + i];
+
+            sum += (Math.abs(p - q)) / (Math.abs(p) + Math.abs(q));
+        }
+
+        return sum;
+    }
 }
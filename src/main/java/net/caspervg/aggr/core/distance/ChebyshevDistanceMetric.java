@@ -11,7 +11,7 @@ public class ChebyshevDistanceMetric<T extends Number> extends AbstractDistanceM
     public double distance(T[] vector1, T[] vector2) {
         super.checkArguments(vector1, vector2);
 
-        double maxDimensionDistance = Double.MIN_VALUE;
+        double maxDimensionDistance = 0;
         for (int i = 0; i < vector1.length; i++) {
             double p = vector1[i].doubleValue();
             double q = vector2[i].doubleValue();
@@ -25,4 +25,14 @@ public class ChebyshevDistanceMetric<T extends Number> extends AbstractDistanceM
 
         return maxDimensionDistance;
     }
+
+    @Override
+    public double distance(double[] vectors1, int offset1, double[] vectors2, int offset2, int dimension) {
+        double maxDimensionDistance = 0;
+        for (int i = 0; i < dimension; i++) {
+            maxDimensionDistance = Math.max(maxDimensionDistance, Math.abs(vectors1[offset1 + i] - vectors2[offset2 + i]));
+        }
+
+        return maxDimensionDistance;
+    }
 }
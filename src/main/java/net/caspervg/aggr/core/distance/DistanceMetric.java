@@ -6,7 +6,6 @@ package net.caspervg.aggr.core.distance;
  *
  * @param <T> Type of vectors to calculate distance between
  */
-@FunctionalInterface
 public interface DistanceMetric<T extends Number> {
     /**
      * Calculates the distance between two vectors using some metric.
@@ -16,4 +15,113 @@ public interface DistanceMetric<T extends Number> {
      * @return Distance between two vectors using some metric
      */
     double distance(T[] vector1, T[] vector2);
+
+    /**
+     * Calculates the distance between two vectors that are stored in flat arrays, using the same metric as
+     * {@link #distance(Number[], Number[])}. This avoids boxing in hot loops, e.g. when assigning many points to
+     * their closest centroid. Implementations do not check the arguments.
+     *
+     * @param vectors1 Array that contains the first vector
+     * @param offset1 Index of the first component of the first vector
+     * @param vectors2 Array that contains the second vector
+     * @param offset2 Index of the first component of the second vector
+     * @param dimension Number of components of both vectors
+     * @return Distance between two vectors using some metric
+     */
+    double distance(double[] vectors1, int offset1, double[] vectors2, int offset2, int dimension);
+
+    /**
+     * Checks if this metric has a prepared form of its vectors, see
+     * {@link #prepare(double[], int, int, double[], int)}
+     *
+     * @return {@code true} if preparing the vectors speeds up the distance calculations
+     */
+    default boolean hasPreparedForm() {
+        return false;
+    }
+
+    /**
+     * Retrieves the number of components of a vector in its prepared form
+     *
+     * @param dimension Number of components of the original vector
+     * @return Number of components of the prepared vector
+     */
+    default int preparedDimension(int dimension) {
+        return dimension;
+    }
+
+    /**
+     * Transforms a vector into a form from which this metric calculates distances faster, e.g. with the terms that
+     * only depend on that vector (like the cosine of a latitude) calculated in advance. A vector that is compared
+     * many times, like a centroid, should be prepared once. Metrics without a prepared form copy the vector.
+     *
+     * @param vectors Array that contains the vector
+     * @param offset Index of the first component of the vector
+     * @param dimension Number of components of the vector
+     * @param prepared Array to write the prepared vector to
+     * @param preparedOffset Index of the first component of the prepared vector
+     */
+    default void prepare(double[] vectors, int offset, int dimension, double[] prepared, int preparedOffset) {
+        System.arraycopy(vectors, offset, prepared, preparedOffset, dimension);
+    }
+
+    /**
+     * Transforms all vectors in a flat array into their prepared form
+     *
+     * @param vectors Components of all vectors, one vector after the other
+     * @param dimension Number of components of each vector
+     * @return Prepared vectors, one vector after the other
+     */
+    default double[] prepare(double[] vectors, int dimension) {
+        int size = vectors.length / dimension;
+        int preparedDimension = preparedDimension(dimension);
+
+        double[] prepared = new double[size * preparedDimension];
+        for (int i = 0; i < size; i++) {
+            prepare(vectors, i * dimension, dimension, prepared, i * preparedDimension);
+        }
+
+        return prepared;
+    }
+
+    /**
+     * Calculates the distance between two prepared vectors, which is the distance between the original vectors.
+     * Implementations do not check the arguments.
+     *
+     * @param prepared1 Array that contains the first prepared vector
+     * @param offset1 Index of the first component of the first prepared vector
+     * @param prepared2 Array that contains the second prepared vector
+     * @param offset2 Index of the first component of the second prepared vector
+     * @param dimension Number of components of both original vectors
+     * @return Distance between two vectors using some metric
+     */
+    default double preparedDistance(double[] prepared1, int offset1, double[] prepared2, int offset2, int dimension) {
+        return distance(prepared1, offset1, prepared2, offset2, dimension);
+    }
+
+    /**
+     * Calculates a value that ranks pairs of prepared vectors in the same order as their distance, but may be cheaper
+     * to calculate, e.g. without the final square root or inverse sine. Use {@link #rankDistance(double)} to convert
+     * the rank of the closest pair to its distance. Implementations do not check the arguments.
+     *
+     * @param prepared1 Array that contains the first prepared vector
+     * @param offset1 Index of the first component of the first prepared vector
+     * @param prepared2 Array that contains the second prepared vector
+     * @param offset2 Index of the first component of the second prepared vector
+     * @param dimension Number of components of both original vectors
+     * @return Value that increases with the distance between both vectors, by default the distance itself
+     */
+    default double preparedRank(double[] prepared1, int offset1, double[] prepared2, int offset2, int dimension) {
+        return preparedDistance(prepared1, offset1, prepared2, offset2, dimension);
+    }
+
+    /**
+     * Converts a value calculated by {@link #preparedRank(double[], int, double[], int, int)} to a distance
+     *
+     * @param rank Rank of a pair of vectors
+     * @return Distance between both vectors
+     */
+    default double rankDistance(double rank) {
+        return rank;
+    }
 }
@@ -1,19 +1,33 @@
 package net.caspervg.aggr.core.distance;
 
 public enum DistanceMetricChoice {
-    EUCLIDEAN(new EuclideanDistanceMetric<>()),
-    MANHATTAN(new ManhattanDistanceMetric<>()),
-    CHEBYSHEV(new ChebyshevDistanceMetric<>()),
-    CANBERRA(new CanberraDistanceMetric<>()),
-    KARLSRUHE(new KarlsruheDistanceMetric<>());
+    EUCLIDEAN(new EuclideanDistanceMetric<>(), true),
+    MANHATTAN(new ManhattanDistanceMetric<>(), true),
+    CHEBYSHEV(new ChebyshevDistanceMetric<>(), true),
+    CANBERRA(new CanberraDistanceMetric<>(), true),
+    KARLSRUHE(new KarlsruheDistanceMetric<>(), true),
+    HAVERSINE(new HaversineDistanceMetric<>(), true),
+    EQUIRECTANGULAR(new EquirectangularDistanceMetric<>(), false);
 
     private DistanceMetric<Double> metric;
+    private boolean triangleInequality;
 
-    DistanceMetricChoice(DistanceMetric<Double> metric) {
+    DistanceMetricChoice(DistanceMetric<Double> metric, boolean triangleInequality) {
         this.metric = metric;
+        this.triangleInequality = triangleInequality;
     }
 
     public DistanceMetric<Double> getMetric() {
         return metric;
     }
+
+    /**
+     * Checks if the metric satisfies the triangle inequality, which is required by algorithms that use
+     * distance bounds to skip calculations
+     *
+     * @return {@code true} if {@code d(x, z) <= d(x, y) + d(y, z)} for all vectors
+     */
+    public boolean satisfiesTriangleInequality() {
+        return triangleInequality;
+    }
 }
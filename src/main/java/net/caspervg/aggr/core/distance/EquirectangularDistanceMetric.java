@@ -0,0 +1,108 @@
+package net.caspervg.aggr.core.distance;
+
+/**
+ * Implementation of the {@link DistanceMetric} interface that uses the
+ * <a href="https://en.wikipedia.org/wiki/Equirectangular_projection">equirectangular approximation</a> of the
+ * distance in meters between two (latitude, longitude) vectors in degrees. The difference in longitude is scaled by
+ * the cosine of the mean latitude, after which the distance is planar. For points that are up to a few tens of
+ * kilometers apart, this is very close to the great-circle distance of the {@link HaversineDistanceMetric}.
+ *
+ * <p>
+ *     The prepared form of a vector holds the latitude and longitude in radians, and the cosine and sine of half the
+ *     latitude. The cosine of the mean latitude of two prepared vectors follows from those without any trigonometric
+ *     function.
+ * </p>
+ *
+ * <p>
+ *     <b>Note:</b>
+ *     <ul>
+ *         <li>
+ *             This metric only supports vectors of length 2
+ *         </li>
+ *         <li>
+ *             This metric does not satisfy the triangle inequality for points that are far apart
+ *         </li>
+ *     </ul>
+ * </p>
+ *
+ * @param <T> Type of the vectors to calculate distance between
+ */
+public class EquirectangularDistanceMetric<T extends Number> extends AbstractDistanceMetric<T> {
+
+    @Override
+    public double distance(T[] vector1, T[] vector2) {
+        super.checkArguments(vector1, vector2);
+
+        if (vector1.length != 2) {
+            throw new IllegalArgumentException("Both vectors must have length 2");
+        }
+
+        return distance(
+                vector1[0].doubleValue(), vector1[1].doubleValue(),
+                vector2[0].doubleValue(), vector2[1].doubleValue()
+        );
+    }
+
+    @Override
+    public double distance(double[] vectors1, int offset1, double[] vectors2, int offset2, int dimension) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Both vectors must have length 2");
+        }
+
+        return distance(vectors1[offset1], vectors1[offset1 + 1], vectors2[offset2], vectors2[offset2 + 1]);
+    }
+
+    private double distance(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+
+        return distance(phi2 - phi1, Math.toRadians(lon2 - lon1), Math.cos((phi1 + phi2) / 2));
+    }
+
+    private double distance(double deltaPhi, double deltaLambda, double cosMeanPhi) {
+        // Take the short way around the antimeridian
+        if (deltaLambda > Math.PI) {
+            deltaLambda -= 2 * Math.PI;
+        } else if (deltaLambda < -Math.PI) {
+            deltaLambda += 2 * Math.PI;
+        }
+
+        double x = deltaLambda * cosMeanPhi;
+        return HaversineDistanceMetric.EARTH_RADIUS * Math.sqrt(x * x + deltaPhi * deltaPhi);
+    }
+
+    @Override
+    public boolean hasPreparedForm() {
+        return true;
+    }
+
+    @Override
+    public int preparedDimension(int dimension) {
+        return 4;
+    }
+
+    @Override
+    public void prepare(double[] vectors, int offset, int dimension, double[] prepared, int preparedOffset) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Vector must have length 2");
+        }
+
+        double phi = Math.toRadians(vectors[offset]);
+        prepared[preparedOffset] = phi;
+        prepared[preparedOffset + 1] = Math.toRadians(vectors[offset + 1]);
+        prepared[preparedOffset + 2] = Math.cos(phi / 2);
+        prepared[preparedOffset + 3] = Math.sin(phi / 2);
+    }
+
+    @Override
+    public double preparedDistance(double[] prepared1, int offset1, double[] prepared2, int offset2, int dimension) {
+        // cos((a + b) / 2) = cos(a / 2) cos(b / 2) - sin(a / 2) sin(b / 2)
+        double cosMeanPhi = prepared1[offset1 + 2] * prepared2[offset2 + 2] - prepared1[offset1 + 3] * prepared2[offset2 + 3];
+
+        return distance(
+                prepared2[offset2] - prepared1[offset1],
+                prepared2[offset2 + 1] - prepared1[offset1 + 1],
+                cosMeanPhi
+        );
+    }
+}
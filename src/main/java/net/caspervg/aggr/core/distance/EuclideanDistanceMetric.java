@@ -21,4 +21,16 @@ public class EuclideanDistanceMetric<T extends Number> extends AbstractDistanceM
 
         return Math.sqrt(sum);
     }
+
+    @Override
+    public double distance(double[] vectors1, int offset1, double[] vectors2, int offset2, int dimension) {
+        double sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            double diff = vectors1[offset1 + i] - vectors2[offset2 + i];
+
+            sum += diff * diff;
+        }
+
+        return Math.sqrt(sum);
+    }
 }
@@ -0,0 +1,107 @@
+package net.caspervg.aggr.core.distance;
+
+/**
+ * Implementation of the {@link DistanceMetric} interface that uses the
+ * <a href="https://en.wikipedia.org/wiki/Haversine_formula">haversine formula</a> to calculate the great-circle
+ * distance in meters between two (latitude, longitude) vectors in degrees, on a spherical earth.
+ *
+ * <p>
+ *     The prepared form of a vector is the point on the unit sphere. The great-circle distance follows from the
+ *     straight distance between those points without any trigonometric function of the coordinates, so that only
+ *     the centroids and the point itself have to be transformed when looking for the closest centroid. The centroids
+ *     are ranked on the squared chord, so that only the distance to the closest centroid needs an inverse sine.
+ * </p>
+ *
+ * <p>
+ *     <b>Note:</b> this metric only supports vectors of length 2
+ * </p>
+ *
+ * @param <T> Type of the vectors to calculate distance between
+ */
+public class HaversineDistanceMetric<T extends Number> extends AbstractDistanceMetric<T> {
+
+    /**
+     * Mean radius of the earth, in meters
+     */
+    public static final double EARTH_RADIUS = 6371008.8;
+
+    @Override
+    public double distance(T[] vector1, T[] vector2) {
+        super.checkArguments(vector1, vector2);
+
+        if (vector1.length != 2) {
+            throw new IllegalArgumentException("Both vectors must have length 2");
+        }
+
+        return distance(
+                vector1[0].doubleValue(), vector1[1].doubleValue(),
+                vector2[0].doubleValue(), vector2[1].doubleValue()
+        );
+    }
+
+    @Override
+    public double distance(double[] vectors1, int offset1, double[] vectors2, int offset2, int dimension) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Both vectors must have length 2");
+        }
+
+        return distance(vectors1[offset1], vectors1[offset1 + 1], vectors2[offset2], vectors2[offset2 + 1]);
+    }
+
+    private double distance(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double sinDeltaPhi = Math.sin((phi2 - phi1) / 2);
+        double sinDeltaLambda = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+
+        double a = sinDeltaPhi * sinDeltaPhi + Math.cos(phi1) * Math.cos(phi2) * sinDeltaLambda * sinDeltaLambda;
+
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    @Override
+    public boolean hasPreparedForm() {
+        return true;
+    }
+
+    @Override
+    public int preparedDimension(int dimension) {
+        return 3;
+    }
+
+    @Override
+    public void prepare(double[] vectors, int offset, int dimension, double[] prepared, int preparedOffset) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Vector must have length 2");
+        }
+
+        double phi = Math.toRadians(vectors[offset]);
+        double lambda = Math.toRadians(vectors[offset + 1]);
+        double cosPhi = Math.cos(phi);
+
+        prepared[preparedOffset] = cosPhi * Math.cos(lambda);
+        prepared[preparedOffset + 1] = cosPhi * Math.sin(lambda);
+        prepared[preparedOffset + 2] = Math.sin(phi);
+    }
+
+    @Override
+    public double preparedDistance(double[] prepared1, int offset1, double[] prepared2, int offset2, int dimension) {
+        return rankDistance(preparedRank(prepared1, offset1, prepared2, offset2, dimension));
+    }
+
+    @Override
+    public double preparedRank(double[] prepared1, int offset1, double[] prepared2, int offset2, int dimension) {
+        double dx = prepared1[offset1] - prepared2[offset2];
+        double dy = prepared1[offset1 + 1] - prepared2[offset2 + 1];
+        double dz = prepared1[offset1 + 2] - prepared2[offset2 + 2];
+
+        // Squared chord, which grows with the central angle
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    @Override
+    public double rankDistance(double rank) {
+        // Half of the chord is the sine of half of the central angle
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(rank) / 2));
+    }
+}
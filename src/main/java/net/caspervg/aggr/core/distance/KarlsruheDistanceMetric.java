@@ -11,7 +11,9 @@ package net.caspervg.aggr.core.distance;
  *             This metric only supports vectors of length 2
  *         </li>
  *         <li>
- *             This metric takes a long time to calculate
+ *             This metric takes a long time to calculate from the original vectors. Its prepared form holds the
+ *             polar coordinates (r, &phi;) of a vector, from which the distance only takes a few additions and
+ *             multiplications.
  *         </li>
  *     </ul>
  * </p>
@@ -27,11 +29,34 @@ public class KarlsruheDistanceMetric<T extends Number> extends AbstractDistanceM
             throw new IllegalArgumentException("Both vectors must have length 2");
         }
 
-        double rP = Math.sqrt(Math.pow(vector1[0].doubleValue(), 2) + Math.pow(vector1[1].doubleValue(), 2));
-        double phiP = Math.atan2(vector1[1].doubleValue(), vector1[0].doubleValue());
-        double rQ = Math.sqrt(Math.pow(vector2[0].doubleValue(), 2) + Math.pow(vector2[1].doubleValue(), 2));
-        double phiQ = Math.atan2(vector2[1].doubleValue(), vector2[0].doubleValue());
+        return distance(
+                vector1[0].doubleValue(), vector1[1].doubleValue(),
+                vector2[0].doubleValue(), vector2[1].doubleValue()
+        );
+    }
 
+    @Override
+    public double distance(double[] vectors1, int offset1, double[] vectors2, int offset2, int dimension) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Both vectors must have length 2");
+        }
+
+        return distance(vectors1[offset1], vectors1[offset1 + 1], vectors2[offset2], vectors2[offset2 + 1]);
+    }
+
+    private double distance(double p0, double p1, double q0, double q1) {
+        return polarDistance(radius(p0, p1), angle(p0, p1), radius(q0, q1), angle(q0, q1));
+    }
+
+    private double radius(double x, double y) {
+        return Math.sqrt(x * x + y * y);
+    }
+
+    private double angle(double x, double y) {
+        return Math.atan2(y, x);
+    }
+
+    private double polarDistance(double rP, double phiP, double rQ, double phiQ) {
         double delta = Math.min(
                 Math.abs(phiP - phiQ),
                 2*Math.PI - Math.abs(phiP - phiQ)
@@ -43,4 +68,26 @@ public class KarlsruheDistanceMetric<T extends Number> extends AbstractDistanceM
             return rP + rQ;
         }
     }
+
+    @Override
+    public boolean hasPreparedForm() {
+        return true;
+    }
+
+    @Override
+    public void prepare(double[] vectors, int offset, int dimension, double[] prepared, int preparedOffset) {
+        if (dimension != 2) {
+            throw new IllegalArgumentException("Vector must have length 2");
+        }
+
+        double x = vectors[offset];
+        double y = vectors[offset + 1];
+        prepared[preparedOffset] = radius(x, y);
+        prepared[preparedOffset + 1] = angle(x, y);
+    }
+
+    @Override
+    public double preparedDistance(double[] prepared1, int offset1, double[] prepared2, int offset2, int dimension) {
+        return polarDistance(prepared1[offset1], prepared1[offset1 + 1], prepared2[offset2], prepared2[offset2 + 1]);
+    }
 }
@@ -21,4 +21,14 @@ public class ManhattanDistanceMetric<T extends Number> extends AbstractDistanceM
 
         return sum;
     }
+
+    @Override
+    public double distance(double[] vectors1, int offset1, double[] vectors2, int offset2, int dimension) {
+        double sum = 0;
+        for (int i = 0; i < dimension; i++) {
+            sum += Math.abs(vectors1[offset1 + i] - vectors2[offset2 + i]);
+        }
+
+        return sum;
+    }
 }
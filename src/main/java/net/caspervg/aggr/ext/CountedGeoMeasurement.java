@@ -0,0 +1,145 @@
+package net.caspervg.aggr.ext;
+
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.bean.UniquelyIdentifiable;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.*;
+
+/**
+ * Weighted measurement that also keeps track of the number of measurements it represents, e.g. a cell of a
+ * spatio-temporal cube.
+ */
+public class CountedGeoMeasurement extends WeightedGeoMeasurement {
+
+    public static final String COUNT_KEY = "count";
+
+    private long count;
+
+    @Override
+    public void setData(Map<String, Object> data) {
+        super.setData(data);
+        Object countObj = data.get(COUNT_KEY);
+        if (countObj != null) {
+            String countStr = String.valueOf(countObj);
+            if (StringUtils.isNotBlank(countStr)) {
+                this.count = Long.parseLong(countStr);
+            }
+        }
+    }
+
+    @Override
+    public void setDatum(String key, Object value) {
+        if (key.equalsIgnoreCase(COUNT_KEY)) {
+            this.count = Long.parseLong(String.valueOf(value));
+        } else {
+            super.setDatum(key, value);
+        }
+    }
+
+    @Override
+    public Optional<Object> getDatum(String key) {
+        if (key.equalsIgnoreCase(COUNT_KEY)) {
+            return Optional.of(this.count);
+        } else {
+            return super.getDatum(key);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getData() {
+        Map<String, Object> data = super.getData();
+        data.put(COUNT_KEY, count);
+
+        return data;
+    }
+
+    @Override
+    public List<String> getReadKeys() {
+        List<String> keys = super.getReadKeys();
+        keys.add(COUNT_KEY);
+        return keys;
+    }
+
+    @Override
+    public List<String> getWriteKeys() {
+        List<String> keys = super.getWriteKeys();
+        keys.add(COUNT_KEY);
+        return keys;
+    }
+
+    @Override
+    public boolean canCombine(Measurement other) {
+        return other.getDatum(COUNT_KEY).isPresent() && super.canCombine(other);
+    }
+
+    @Override
+    public Measurement combine(Measurement other) {
+        if (! canCombine(other)) {
+            throw new IllegalArgumentException("Other measurement must have the same vector and be counted");
+        }
+
+        Measurement combined = new CountedGeoMeasurement();
+
+        combined.setData(this.getData());
+        combined.setVector(this.getVector());
+
+        double otherWeight = Double.parseDouble(String.valueOf(other.getDatum(WEIGHT_KEY).get()));
+        long otherCount = Long.parseLong(String.valueOf(other.getDatum(COUNT_KEY).get()));
+        combined.setDatum(WEIGHT_KEY, (double) this.getDatum(WEIGHT_KEY).get() + otherWeight);
+        combined.setDatum(COUNT_KEY, this.count + otherCount);
+        Set<UniquelyIdentifiable> parents = new HashSet<>();
+        parents.add(this);
+        parents.add(other);
+        combined.setParents(parents);
+
+        return combined;
+    }
+
+    @Override
+    public Measurement combine(Iterable<Measurement> others) {
+        Measurement combined = new CountedGeoMeasurement();
+
+        combined.setData(this.getData());
+        combined.setVector(this.getVector());
+
+        double weightSum = (double) this.getDatum(WEIGHT_KEY).get();
+        long countSum = this.count;
+
+        Set<UniquelyIdentifiable> parents = new HashSet<>();
+        parents.add(this);
+        for (Measurement other : others) {
+            if (!canCombine(other)) {
+                throw new IllegalArgumentException("Other measurement must have the same vector and be counted");
+            }
+            weightSum += Double.parseDouble(String.valueOf(other.getDatum(WEIGHT_KEY).get()));
+            countSum += Long.parseLong(String.valueOf(other.getDatum(COUNT_KEY).get()));
+            parents.add(other);
+        }
+
+        combined.setDatum(WEIGHT_KEY, weightSum);
+        combined.setDatum(COUNT_KEY, countSum);
+        combined.setParents(parents);
+
+        return combined;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CountedGeoMeasurement)) return false;
+        if (!super.equals(o)) return false;
+
+        CountedGeoMeasurement that = (CountedGeoMeasurement) o;
+
+        return count == that.count;
+
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode();
+        result = 31 * result + (int) (count ^ (count >>> 32));
+        return result;
+    }
+}
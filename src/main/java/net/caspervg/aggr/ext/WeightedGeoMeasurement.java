@@ -12,6 +12,18 @@ public class WeightedGeoMeasurement extends GeoMeasurement {
 
     private double weight;
 
+    /**
+     * Retrieves the weight of a measurement. Measurements without a weight count as one.
+     *
+     * @param measurement Measurement to weigh
+     * @return Weight of the measurement
+     */
+    public static double weightOf(Measurement measurement) {
+        Optional<Object> weight = measurement.getDatum(WEIGHT_KEY);
+
+        return weight.isPresent() ? Double.parseDouble(String.valueOf(weight.get())) : 1.0;
+    }
+
     @Override
     public void setData(Map<String, Object> data) {
         super.setData(data);
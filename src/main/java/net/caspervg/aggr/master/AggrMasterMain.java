@@ -4,6 +4,8 @@ import net.caspervg.aggr.master.bean.AggregationRequest;
 import net.caspervg.aggr.master.bean.Rdf4jAggrRequestUpdater;
 import net.caspervg.aggr.aggregation.average.AverageAggregationExecution;
 import net.caspervg.aggr.aggregation.basic.BasicAggregationExecution;
+import net.caspervg.aggr.aggregation.cube.CubeAggregationExecution;
+import net.caspervg.aggr.aggregation.dbscan.DbscanAggregationExecution;
 import net.caspervg.aggr.worker.command.*;
 import net.caspervg.aggr.worker.write.untyped.UntypedSPARQLRepository;
 import net.caspervg.aggr.aggregation.diff.DiffAggregationExecution;
@@ -96,6 +98,30 @@ public class AggrMasterMain {
                             }
                         }).start();
                         break;
+                    case "cube":
+                        CubeAggrCommand cubeCommand = CubeAggrCommand.of(request);
+                        new Thread(() -> {
+                            try {
+                                new CubeAggregationExecution(mainCommand, cubeCommand).execute();
+                                updater.updateStatus(request.getId(), "success");
+                            } catch (Exception e) {
+                                e.printStackTrace();
+                                updater.updateStatus(request.getId(), "failure");
+                            }
+                        }).start();
+                        break;
+                    case "dbscan":
+                        DbscanAggrCommand dbscanCommand = DbscanAggrCommand.of(request);
+                        new Thread(() -> {
+                            try {
+                                new DbscanAggregationExecution(mainCommand, dbscanCommand).execute();
+                                updater.updateStatus(request.getId(), "success");
+                            } catch (Exception e) {
+                                e.printStackTrace();
+                                updater.updateStatus(request.getId(), "failure");
+                            }
+                        }).start();
+                        break;
                     default:
                         new Thread(() -> {
                             try {
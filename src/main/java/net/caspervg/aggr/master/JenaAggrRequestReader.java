@@ -42,6 +42,23 @@ public class JenaAggrRequestReader {
             "    OPTIONAL { ?req own:others ?others }\n" +
             "    OPTIONAL { ?req own:amount ?amount }\n" +
             "    OPTIONAL { ?req own:key ?key }\n"+
+            "    OPTIONAL { ?req own:window ?window }\n"+
+            "    OPTIONAL { ?req own:window_size ?window_size }\n"+
+            "    OPTIONAL { ?req own:window_hop ?window_hop }\n"+
+            "    OPTIONAL { ?req own:zone ?zone }\n"+
+            "    OPTIONAL { ?req own:streaming ?streaming }\n"+
+            "    OPTIONAL { ?req own:algorithm ?algorithm }\n"+
+            "    OPTIONAL { ?req own:batch_size ?batch_size }\n"+
+            "    OPTIONAL { ?req own:seeding ?seeding }\n"+
+            "    OPTIONAL { ?req own:epsilon ?epsilon }\n"+
+            "    OPTIONAL { ?req own:cluster_selection ?cluster_selection }\n"+
+            "    OPTIONAL { ?req own:warm_start ?warm_start }\n"+
+            "    OPTIONAL { ?req own:coreset_grid_size ?coreset_grid_size }\n"+
+            "    OPTIONAL { ?req own:decay ?decay }\n"+
+            "    OPTIONAL { ?req own:checkpoint ?checkpoint }\n"+
+            "    OPTIONAL { ?req own:hierarchy ?hierarchy }\n"+
+            "    OPTIONAL { ?req own:radius ?radius }\n"+
+            "    OPTIONAL { ?req own:min_points ?min_points }\n"+
             "\n"+
             "    OPTIONAL { ?req own:query ?query }\n"+
             "    OPTIONAL { ?req own:latitude_key ?latitude_key }\n"+
@@ -109,7 +126,10 @@ public class JenaAggrRequestReader {
     }
 
     private Map<String, String> getDynamicParameters(ResultSet rs) throws SQLException {
-        String[] keys = new String[]{"query", "latitude_key", "longitude_key", "time_key", "id_key", "source_key"};
+        String[] keys = new String[]{"query", "latitude_key", "longitude_key", "time_key", "id_key", "source_key",
+                "window", "window_size", "window_hop", "zone", "streaming",
+                "algorithm", "batch_size", "seeding", "epsilon", "cluster_selection", "warm_start",
+                "coreset_grid_size", "decay", "checkpoint", "hierarchy", "radius", "min_points"};
         Map<String, String> dynParams = new HashMap<>();
 
         Arrays.stream(keys).forEach(key -> {
@@ -4,6 +4,8 @@ import com.beust.jcommander.JCommander;
 import com.google.common.collect.ImmutableMap;
 import net.caspervg.aggr.aggregation.average.AverageAggregationExecution;
 import net.caspervg.aggr.aggregation.basic.BasicAggregationExecution;
+import net.caspervg.aggr.aggregation.cube.CubeAggregationExecution;
+import net.caspervg.aggr.aggregation.dbscan.DbscanAggregationExecution;
 import net.caspervg.aggr.aggregation.diff.DiffAggregationExecution;
 import net.caspervg.aggr.worker.command.*;
 import net.caspervg.aggr.aggregation.AggregationExecution;
@@ -32,6 +34,10 @@ public class AggrWorkerMain {
         jc.addCommand("average", aac);
         DiffAggrCommand dac = new DiffAggrCommand();
         jc.addCommand("diff", dac);
+        CubeAggrCommand cac = new CubeAggrCommand();
+        jc.addCommand("cube", cac);
+        DbscanAggrCommand dbac = new DbscanAggrCommand();
+        jc.addCommand("dbscan", dbac);
 
         jc.parse(args);
 
@@ -45,13 +51,15 @@ public class AggrWorkerMain {
             return;
         }
 
-        Map<String, AggregationExecution> executionMap = ImmutableMap.of(
-                "grid",   new GridAggregationExecution(ac, gac),
-                "time",   new TimeAggregationExecution(ac, tac),
-                "kmeans", new KMeansAggregationExecution(ac, kac),
-                "average", new AverageAggregationExecution(ac, aac),
-                "diff", new DiffAggregationExecution(ac, dac)
-        );
+        Map<String, AggregationExecution> executionMap = ImmutableMap.<String, AggregationExecution>builder()
+                .put("grid",   new GridAggregationExecution(ac, gac))
+                .put("time",   new TimeAggregationExecution(ac, tac))
+                .put("kmeans", new KMeansAggregationExecution(ac, kac))
+                .put("average", new AverageAggregationExecution(ac, aac))
+                .put("diff", new DiffAggregationExecution(ac, dac))
+                .put("cube", new CubeAggregationExecution(ac, cac))
+                .put("dbscan", new DbscanAggregationExecution(ac, dbac))
+                .build();
 
         executionMap.getOrDefault(
                 jc.getParsedCommand(),
@@ -0,0 +1,36 @@
+package net.caspervg.aggr.worker.command;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import net.caspervg.aggr.master.bean.AggregationRequest;
+
+@Parameters(commandDescription = "Aggregate the data into the cells of a grid per time interval (use an output class " +
+        "that supports weight and count, e.g. net.caspervg.aggr.ext.CountedGeoMeasurement)")
+public class CubeAggrCommand {
+
+    @Parameter(names = {"-g", "--grid-size"}, description = "Rounding to perform on the data to create the grid")
+    private double gridSize = 0.0005;
+
+    @Parameter(names = {"-d", "--max-detail"}, description = "Number of time intervals to create (rounded down to a " +
+            "power of two)")
+    private int maxDetail = 8;
+
+    public double getGridSize() {
+        return gridSize;
+    }
+
+    public int getMaxDetail() {
+        return maxDetail;
+    }
+
+    public static CubeAggrCommand of(AggregationRequest req) {
+        CubeAggrCommand command = new CubeAggrCommand();
+
+        assert req.getAggregationType().equalsIgnoreCase("cube");
+
+        command.gridSize = req.getParameters().getGridSize();
+        command.maxDetail = req.getParameters().getLevels();
+
+        return command;
+    }
+}
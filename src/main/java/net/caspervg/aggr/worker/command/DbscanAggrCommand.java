@@ -0,0 +1,59 @@
+package net.caspervg.aggr.worker.command;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+import net.caspervg.aggr.aggregation.dbscan.AbstractDbscanAggregator;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import net.caspervg.aggr.master.bean.AggregationRequest;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+
+@Parameters(commandDescription = "Aggregate the data into density-based clusters (DBSCAN), without a fixed number " +
+        "of clusters")
+public class DbscanAggrCommand {
+
+    @Parameter(names = {"-r", "--radius"}, description = "Maximum distance between neighbouring data vectors (the eps " +
+            "of DBSCAN)")
+    private double radius = 0.001;
+
+    @Parameter(names = {"-p", "--min-points"}, description = "Minimum number of data vectors within the radius of a " +
+            "core point, the point itself included")
+    private int minPoints = 5;
+
+    @Parameter(names = {"-m", "--metric"}, description = "Distance metric to use to calculate distances between data " +
+            "vectors (EUCLIDEAN, MANHATTAN or CHEBYSHEV)")
+    private DistanceMetricChoice distanceMetricChoice = DistanceMetricChoice.EUCLIDEAN;
+
+    public double getRadius() {
+        return radius;
+    }
+
+    public int getMinPoints() {
+        return minPoints;
+    }
+
+    public DistanceMetricChoice getDistanceMetricChoice() {
+        return distanceMetricChoice;
+    }
+
+    public static DbscanAggrCommand of(AggregationRequest req) {
+        DbscanAggrCommand command = new DbscanAggrCommand();
+
+        assert req.getAggregationType().equalsIgnoreCase("dbscan");
+
+        if (StringUtils.isNotBlank(req.getParameters().getMetric())) {
+            command.distanceMetricChoice = DistanceMetricChoice.valueOf(req.getParameters().getMetric().toUpperCase());
+        }
+
+        Map<String, String> dynamic = req.getParameters().getDynamic();
+        if (StringUtils.isNotBlank(dynamic.get(AbstractDbscanAggregator.RADIUS_PARAM))) {
+            command.radius = Double.parseDouble(dynamic.get(AbstractDbscanAggregator.RADIUS_PARAM));
+        }
+        if (StringUtils.isNotBlank(dynamic.get(AbstractDbscanAggregator.MIN_POINTS_PARAM))) {
+            command.minPoints = Integer.parseInt(dynamic.get(AbstractDbscanAggregator.MIN_POINTS_PARAM));
+        }
+
+        return command;
+    }
+}
@@ -2,10 +2,19 @@ package net.caspervg.aggr.worker.command;
 
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
+import net.caspervg.aggr.aggregation.kmeans.AbstractKMeansAggregator;
+import net.caspervg.aggr.aggregation.kmeans.clusters.ClusterSelectionChoice;
+import net.caspervg.aggr.aggregation.kmeans.engine.KMeansEngineChoice;
+import net.caspervg.aggr.aggregation.kmeans.engine.MiniBatchEngine;
+import net.caspervg.aggr.aggregation.kmeans.seed.SeedingChoice;
+import net.caspervg.aggr.aggregation.time.AbstractTimeAggregator;
+import net.caspervg.aggr.aggregation.time.window.WindowUnit;
 import net.caspervg.aggr.master.bean.AggregationRequest;
 import net.caspervg.aggr.core.distance.DistanceMetricChoice;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Map;
+
 @Parameters(commandDescription = "Aggregate the data using a KMeans algorithm")
 public class KMeansAggrCommand {
     @Parameter(names = {"-n", "--iterations"}, description = "Number of iterations to do to find the optimal mean locations")
@@ -17,6 +26,66 @@ public class KMeansAggrCommand {
     @Parameter(names = {"-m", "--metric"}, description = "Distance metric to use to calculate distances between data vectors")
     protected DistanceMetricChoice distanceMetricChoice = DistanceMetricChoice.EUCLIDEAN;
 
+    @Parameter(names = {"-a", "--algorithm"}, description = "Algorithm to use for the iterations. HAMERLY gives the " +
+            "same result as LLOYD, but skips most distance calculations. MINI_BATCH approximates the result using random " +
+            "batches of measurements")
+    protected KMeansEngineChoice engineChoice = KMeansEngineChoice.LLOYD;
+
+    @Parameter(names = {"--batch-size"}, description = "Number of measurements to sample in every iteration of the " +
+            "MINI_BATCH algorithm")
+    protected int batchSize = MiniBatchEngine.DEFAULT_BATCH_SIZE;
+
+    @Parameter(names = {"--seeding"}, description = "Strategy to choose the initial centroids")
+    protected SeedingChoice seedingChoice = SeedingChoice.KMEANS_PARALLEL;
+
+    @Parameter(names = {"-e", "--epsilon"}, description = "Stop iterating once no centroid moves more than this " +
+            "distance. Use a negative value to always do the maximum number of iterations")
+    protected double epsilon = 0;
+
+    @Parameter(names = {"--cluster-selection"}, description = "Select the number of centroids automatically, by " +
+            "clustering a range of candidates around the rule of thumb and picking the best score. ELBOW uses the sum " +
+            "of squared distances, SILHOUETTE uses the sampled silhouette. Overrides the number of centroids")
+    protected ClusterSelectionChoice clusterSelectionChoice = ClusterSelectionChoice.NONE;
+
+    @Parameter(names = {"--warm-start"}, description = "Identifier of a previous k-means aggregation, or the path of " +
+            "its CSV data, whose centroids become the initial centroids. Overrides the number of centroids and the seeding")
+    protected String warmStart;
+
+    @Parameter(names = {"--coreset-grid-size"}, description = "Round the measurements to a grid of this size and " +
+            "cluster the weighted cells instead of the measurements. Use zero to cluster the measurements themselves")
+    protected double coresetGridSize = 0;
+
+    @Parameter(names = {"--streaming"}, description = "Cluster the measurements online while reading them, keeping " +
+            "only the centroids in memory. Ignores the algorithm, the seeding and the number of iterations")
+    protected boolean streaming = false;
+
+    @Parameter(names = {"--decay"}, description = "Factor in (0, 1] by which the weights of the centroids decay for " +
+            "every measurement in a streaming run. Use 1 to weigh all measurements equally")
+    protected double decay = 1;
+
+    @Parameter(names = {"--checkpoint"}, description = "Number of measurements after which a streaming run writes a " +
+            "snapshot of the centroids")
+    protected long checkpoint = 10000;
+
+    @Parameter(names = {"--hierarchy"}, description = "Comma-separated numbers of centroids (e.g. 4,16,64) of the " +
+            "levels of a hierarchy that is found in a single run, by splitting clusters in two. Writes an aggregation " +
+            "per level and overrides the number of centroids")
+    protected String hierarchy;
+
+    @Parameter(names = {"-w", "--window"}, description = "Cluster every calendar-aligned window of this unit " +
+            "separately, seeding every window with the centroids of the window before. Writes an aggregation per window")
+    protected WindowUnit window = null;
+
+    @Parameter(names = {"--window-size"}, description = "Length of each window, in window units")
+    protected int windowSize = 1;
+
+    @Parameter(names = {"--window-hop"}, description = "Time between the start of two windows, in window units. " +
+            "Defaults to the window size (non-overlapping windows)")
+    protected int windowHop = 0;
+
+    @Parameter(names = {"-z", "--zone"}, description = "Time zone to align the windows in")
+    protected String zone = "UTC";
+
     public int getIterations() {
         return iterations;
     }
@@ -28,6 +97,66 @@ public class KMeansAggrCommand {
     public DistanceMetricChoice getDistanceMetricChoice() {
         return distanceMetricChoice;
     }
+
+    public KMeansEngineChoice getEngineChoice() {
+        return engineChoice;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public SeedingChoice getSeedingChoice() {
+        return seedingChoice;
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    public ClusterSelectionChoice getClusterSelectionChoice() {
+        return clusterSelectionChoice;
+    }
+
+    public String getWarmStart() {
+        return warmStart;
+    }
+
+    public double getCoresetGridSize() {
+        return coresetGridSize;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public double getDecay() {
+        return decay;
+    }
+
+    public long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public String getHierarchy() {
+        return hierarchy;
+    }
+
+    public WindowUnit getWindow() {
+        return window;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getWindowHop() {
+        return windowHop > 0 ? windowHop : windowSize;
+    }
+
+    public String getZone() {
+        return zone;
+    }
     
     public static KMeansAggrCommand of(AggregationRequest req) {
         KMeansAggrCommand command = new KMeansAggrCommand();
@@ -42,6 +171,49 @@ public class KMeansAggrCommand {
             command.distanceMetricChoice = DistanceMetricChoice.EUCLIDEAN;
         }
 
+        Map<String, String> dynamic = req.getParameters().getDynamic();
+        if (StringUtils.isNotBlank(dynamic.get(AbstractKMeansAggregator.ALGORITHM_PARAM))) {
+            command.engineChoice = KMeansEngineChoice.valueOf(dynamic.get(AbstractKMeansAggregator.ALGORITHM_PARAM).toUpperCase());
+        }
+        if (StringUtils.isNotBlank(dynamic.get(AbstractKMeansAggregator.BATCH_SIZE_PARAM))) {
+            command.batchSize = Integer.parseInt(dynamic.get(AbstractKMeansAggregator.BATCH_SIZE_PARAM));
+        }
+        if (StringUtils.isNotBlank(dynamic.get(AbstractKMeansAggregator.SEEDING_PARAM))) {
+            command.seedingChoice = SeedingChoice.valueOf(dynamic.get(AbstractKMeansAggregator.SEEDING_PARAM).toUpperCase());
+        }
+        if (StringUtils.isNotBlank(dynamic.get(AbstractKMeansAggregator.EPSILON_PARAM))) {
+            command.epsilon = Double.parseDouble(dynamic.get(AbstractKMeansAggregator.EPSILON_PARAM));
+        }
+        if (StringUtils.isNotBlank(dynamic.get(AbstractKMeansAggregator.CLUSTER_SELECTION_PARAM))) {
+            command.clusterSelectionChoice = ClusterSelectionChoice.valueOf(
+                    dynamic.get(AbstractKMeansAggregator.CLUSTER_SELECTION_PARAM).toUpperCase()
+            );
+        }
+        if (StringUtils.isNotBlank(dynamic.get(AbstractKMeansAggregator.WARM_START_PARAM))) {
+            command.warmStart = dynamic.get(AbstractKMeansAggregator.WARM_START_PARAM);
+        }
+        if (StringUtils.isNotBlank(dynamic.get(AbstractKMeansAggregator.CORESET_GRID_SIZE_PARAM))) {
+            command.coresetGridSize = Double.parseDouble(dynamic.get(AbstractKMeansAggregator.CORESET_GRID_SIZE_PARAM));
+        }
+        if (StringUtils.isNotBlank(dynamic.get(AbstractKMeansAggregator.STREAMING_PARAM))) {
+            command.streaming = Boolean.parseBoolean(dynamic.get(AbstractKMeansAggregator.STREAMING_PARAM));
+        }
+        if (StringUtils.isNotBlank(dynamic.get(AbstractKMeansAggregator.DECAY_PARAM))) {
+            command.decay = Double.parseDouble(dynamic.get(AbstractKMeansAggregator.DECAY_PARAM));
+        }
+        if (StringUtils.isNotBlank(dynamic.get(AbstractKMeansAggregator.CHECKPOINT_PARAM))) {
+            command.checkpoint = Long.parseLong(dynamic.get(AbstractKMeansAggregator.CHECKPOINT_PARAM));
+        }
+        if (StringUtils.isNotBlank(dynamic.get(AbstractKMeansAggregator.HIERARCHY_PARAM))) {
+            command.hierarchy = dynamic.get(AbstractKMeansAggregator.HIERARCHY_PARAM);
+        }
+        if (StringUtils.isNotBlank(dynamic.get(AbstractTimeAggregator.WINDOW_PARAM))) {
+            command.window = WindowUnit.valueOf(dynamic.get(AbstractTimeAggregator.WINDOW_PARAM).toUpperCase());
+            command.windowSize = Integer.parseInt(dynamic.getOrDefault(AbstractTimeAggregator.WINDOW_SIZE_PARAM, "1"));
+            command.windowHop = Integer.parseInt(dynamic.getOrDefault(AbstractTimeAggregator.WINDOW_HOP_PARAM, "0"));
+            command.zone = dynamic.getOrDefault(AbstractTimeAggregator.ZONE_PARAM, command.zone);
+        }
+
         return command;
     }
 }
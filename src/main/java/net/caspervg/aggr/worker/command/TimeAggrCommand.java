@@ -2,22 +2,74 @@ package net.caspervg.aggr.worker.command;
 
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
+import net.caspervg.aggr.aggregation.time.AbstractTimeAggregator;
+import net.caspervg.aggr.aggregation.time.window.WindowUnit;
 import net.caspervg.aggr.master.bean.AggregationRequest;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
 
 @Parameters(commandDescription = "Aggregate data based on a time interval")
 public class TimeAggrCommand {
     @Parameter(names = {"-d", "--max-detail"}, description = "Number of time levels to create")
     private int maxDetail = 8;
 
+    @Parameter(names = {"-w", "--window"}, description = "Group the data in calendar-aligned windows of this unit " +
+            "instead of dividing the total duration into levels")
+    private WindowUnit window = null;
+
+    @Parameter(names = {"--window-size"}, description = "Length of each window, in window units")
+    private int windowSize = 1;
+
+    @Parameter(names = {"--window-hop"}, description = "Time between the start of two windows, in window units. " +
+            "Defaults to the window size (non-overlapping windows)")
+    private int windowHop = 0;
+
+    @Parameter(names = {"-z", "--zone"}, description = "Time zone to align the windows in")
+    private String zone = "UTC";
+
+    @Parameter(names = {"--streaming"}, description = "Aggregate the windows while reading input that is ordered by " +
+            "timestamp, keeping only the open windows in memory. Requires --window")
+    private boolean streaming = false;
+
     public int getMaxDetail() {
         return maxDetail;
     }
 
+    public WindowUnit getWindow() {
+        return window;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public int getWindowHop() {
+        return windowHop > 0 ? windowHop : windowSize;
+    }
+
+    public String getZone() {
+        return zone;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
     public static TimeAggrCommand of(AggregationRequest request) {
         TimeAggrCommand command = new TimeAggrCommand();
 
         command.maxDetail = request.getParameters().getLevels();
 
+        Map<String, String> dynamic = request.getParameters().getDynamic();
+        if (StringUtils.isNotBlank(dynamic.get(AbstractTimeAggregator.WINDOW_PARAM))) {
+            command.window = WindowUnit.valueOf(dynamic.get(AbstractTimeAggregator.WINDOW_PARAM).toUpperCase());
+            command.windowSize = Integer.parseInt(dynamic.getOrDefault(AbstractTimeAggregator.WINDOW_SIZE_PARAM, "1"));
+            command.windowHop = Integer.parseInt(dynamic.getOrDefault(AbstractTimeAggregator.WINDOW_HOP_PARAM, "0"));
+            command.zone = dynamic.getOrDefault(AbstractTimeAggregator.ZONE_PARAM, command.zone);
+            command.streaming = Boolean.parseBoolean(dynamic.get(AbstractTimeAggregator.STREAMING_PARAM));
+        }
+
         return command;
     }
 }
@@ -21,6 +21,15 @@ public abstract class AbstractSparqlAggrReader extends AbstractAggrReader {
                     "MINUS { ?point own:dataset ?d . } " +
                     "}";
 
+    protected static final String DATA_PATH_QUERY_FORMAT =
+                    "PREFIX dct: <http://purl.org/dc/terms/> " +
+                    "PREFIX mu: <http://mu.semte.ch/vocabularies/core/> " +
+                    "SELECT ?path " +
+                    "WHERE { " +
+                    "?aggregation mu:uuid \"%s\" . " +
+                    "?aggregation dct:references ?path . " +
+                    "}";
+
     protected static final String DEFAULT_SERVICE = "mem:empty";
 
 
@@ -23,4 +23,17 @@ public interface AggrReader {
      * @return Measurements in the channel
      */
     Iterable<Measurement> read(AggrContext context);
+
+    /**
+     * Reads all measurements from the channel, in the order in which they are stored. Implementations
+     * that can do so should read the measurements lazily while the returned Iterable is being traversed,
+     * so that the channel does not have to fit in memory. The default implementation just delegates to
+     * {@link #read(AggrContext)}.
+     *
+     * @param context Context of the operation
+     * @return Measurements in the channel
+     */
+    default Iterable<Measurement> stream(AggrContext context) {
+        return read(context);
+    }
 }
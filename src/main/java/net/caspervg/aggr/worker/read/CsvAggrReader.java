@@ -4,6 +4,7 @@ import net.caspervg.aggr.core.bean.Measurement;
 import net.caspervg.aggr.core.bean.UniquelyIdentifiable;
 import net.caspervg.aggr.core.bean.impl.BasicParent;
 import net.caspervg.aggr.core.util.AggrContext;
+import com.google.common.collect.Iterables;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVRecord;
 
@@ -65,6 +66,24 @@ public class CsvAggrReader extends AbstractAggrReader {
         return measurements;
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The records are parsed one at a time while the returned Iterable is traversed, which means that it can only
+     * be traversed once.
+     *
+     * @param context {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public Iterable<Measurement> stream(AggrContext context) {
+        try {
+            return Iterables.transform(parseRecords(this.in), record -> measurementFromRecord(context, record));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private Measurement measurementFromRecord(AggrContext context, CSVRecord record) {
         Map<String, String> params = context.getParameters();
         Measurement measurement = context.newInputMeasurement();
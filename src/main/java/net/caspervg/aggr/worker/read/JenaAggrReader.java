@@ -69,6 +69,35 @@ public class JenaAggrReader extends AbstractSparqlAggrReader {
         return measurements;
     }
 
+    /**
+     * Looks up where the results of an aggregation were written, e.g. the path of its CSV file
+     *
+     * @param aggregationId Identifier of the aggregation
+     * @param context Context of the operation, its input is the triple store to search
+     * @return Data path of the aggregation, if the aggregation exists
+     */
+    public Optional<String> dataPath(String aggregationId, AggrContext context) {
+        Map<String, String> parameters = context.getParameters();
+        String query = String.format(DATA_PATH_QUERY_FORMAT, aggregationId);
+
+        try (Connection conn = getConnection(parameters)) {
+
+            Statement stmt = conn.createStatement();
+            try (ResultSet rs = stmt.executeQuery(query)) {
+                if (rs.next()) {
+                    return Optional.ofNullable(rs.getString("path"));
+                }
+            } catch (SQLException ex) {
+                System.err.println(query);
+                ex.printStackTrace();
+            }
+        } catch (SQLException ex) {
+            ex.printStackTrace();
+        }
+
+        return Optional.empty();
+    }
+
     private Measurement measurementFromRecord(AggrContext context, ResultSet record) throws SQLException {
         Map<String, String> params = context.getParameters();
         Measurement measurement = context.newInputMeasurement();
@@ -16,6 +16,13 @@ public abstract class AbstractSparqlAggrWriter implements AggrWriter {
     protected static final String GRID_SIZE_PROPERTY = OWN_PROPERTY + "grid_size";
     protected static final String ITERATIONS_PROPERTY = OWN_PROPERTY + "iterations";
     protected static final String NUM_CENTROIDS_PROPERTY = OWN_PROPERTY + "num_centroids";
+    protected static final String SKIPPED_DISTANCES_PROPERTY = OWN_PROPERTY + "skipped_distances";
+    protected static final String PERFORMED_ITERATIONS_PROPERTY = OWN_PROPERTY + "performed_iterations";
+    protected static final String MEASUREMENTS_PROPERTY = OWN_PROPERTY + "measurements";
+    protected static final String CLUSTER_SCORES_PROPERTY = OWN_PROPERTY + "cluster_scores";
+    protected static final String RADIUS_PROPERTY = OWN_PROPERTY + "radius";
+    protected static final String MIN_POINTS_PROPERTY = OWN_PROPERTY + "min_points";
+    protected static final String NOISE_PROPERTY = OWN_PROPERTY + "noise";
     protected static final String DATASET_URI_PREFIX = OWN_PREFIX + "datasets/";
     protected static final String CENTROID_URI_PREFIX = OWN_PREFIX + "centroids/";
     protected static final String MEASUREMENT_URI_PREFIX = OWN_PREFIX + "measurements/";
@@ -3,6 +3,8 @@ package net.caspervg.aggr.worker.write;
 import net.caspervg.aggr.aggregation.AggregationResult;
 import net.caspervg.aggr.aggregation.average.AverageAggregation;
 import net.caspervg.aggr.aggregation.basic.BasicAggregation;
+import net.caspervg.aggr.aggregation.cube.CubeAggregation;
+import net.caspervg.aggr.aggregation.dbscan.DbscanAggregation;
 import net.caspervg.aggr.aggregation.diff.DiffAggregation;
 import net.caspervg.aggr.aggregation.grid.GridAggregation;
 import net.caspervg.aggr.aggregation.kmeans.KMeansAggregation;
@@ -18,5 +20,7 @@ public interface AggrResultWriter {
     void writeBasicAggregation(AggregationResult<BasicAggregation, Measurement> result, AggrContext context);
     void writeDiffAggregation(AggregationResult<DiffAggregation, Measurement> res, AggrContext ctx);
     void writeAverageAggregation(AggregationResult<AverageAggregation, Measurement> res, AggrContext ctx);
+    void writeCubeAggregation(AggregationResult<CubeAggregation, Measurement> result, AggrContext context);
+    void writeDbscanAggregation(AggregationResult<DbscanAggregation, Measurement> result, AggrContext context);
     void writeDataset(Dataset dataset, AggrContext context);
 }
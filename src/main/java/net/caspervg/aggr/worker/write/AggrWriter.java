@@ -2,6 +2,8 @@ package net.caspervg.aggr.worker.write;
 
 import net.caspervg.aggr.aggregation.average.AverageAggregation;
 import net.caspervg.aggr.aggregation.basic.BasicAggregation;
+import net.caspervg.aggr.aggregation.cube.CubeAggregation;
+import net.caspervg.aggr.aggregation.dbscan.DbscanAggregation;
 import net.caspervg.aggr.aggregation.diff.DiffAggregation;
 import net.caspervg.aggr.aggregation.grid.GridAggregation;
 import net.caspervg.aggr.aggregation.kmeans.KMeansAggregation;
@@ -78,6 +80,22 @@ public interface AggrWriter {
      */
     void writeAggregation(AverageAggregation aggregation, AggrContext context);
 
+    /**
+     * Writes a cube aggregation to the channel
+     *
+     * @param aggregation Aggregation to write
+     * @param context Context of the operation
+     */
+    void writeAggregation(CubeAggregation aggregation, AggrContext context);
+
+    /**
+     * Writes a DBSCAN aggregation to the channel
+     *
+     * @param aggregation Aggregation to write
+     * @param context Context of the operation
+     */
+    void writeAggregation(DbscanAggregation aggregation, AggrContext context);
+
     /**
      * Writes a dataset to the channel
      *
@@ -3,6 +3,8 @@ package net.caspervg.aggr.worker.write;
 import net.caspervg.aggr.aggregation.AggregationResult;
 import net.caspervg.aggr.aggregation.average.AverageAggregation;
 import net.caspervg.aggr.aggregation.basic.BasicAggregation;
+import net.caspervg.aggr.aggregation.cube.CubeAggregation;
+import net.caspervg.aggr.aggregation.dbscan.DbscanAggregation;
 import net.caspervg.aggr.aggregation.diff.DiffAggregation;
 import net.caspervg.aggr.aggregation.grid.GridAggregation;
 import net.caspervg.aggr.aggregation.kmeans.KMeansAggregation;
@@ -98,6 +100,20 @@ public class CompositeAggrWriter implements AggrResultWriter {
         metaWriter.writeAggregation(result.getAggregation(), context);
     }
 
+    @Override
+    public void writeCubeAggregation(AggregationResult<CubeAggregation, Measurement> result, AggrContext context) {
+        dataWriter.writeMeasurements(result.getResults(), context);
+        result.getAggregation().setDataPath(dataPath);
+        metaWriter.writeAggregation(result.getAggregation(), context);
+    }
+
+    @Override
+    public void writeDbscanAggregation(AggregationResult<DbscanAggregation, Measurement> result, AggrContext context) {
+        dataWriter.writeMeasurements(result.getResults(), context);
+        result.getAggregation().setDataPath(dataPath);
+        metaWriter.writeAggregation(result.getAggregation(), context);
+    }
+
     @Override
     public void writeDataset(Dataset dataset, AggrContext context) {
         metaWriter.writeDataset(dataset, context);
@@ -2,6 +2,8 @@ package net.caspervg.aggr.worker.write;
 
 import net.caspervg.aggr.aggregation.average.AverageAggregation;
 import net.caspervg.aggr.aggregation.basic.BasicAggregation;
+import net.caspervg.aggr.aggregation.cube.CubeAggregation;
+import net.caspervg.aggr.aggregation.dbscan.DbscanAggregation;
 import net.caspervg.aggr.aggregation.diff.DiffAggregation;
 import net.caspervg.aggr.aggregation.grid.GridAggregation;
 import net.caspervg.aggr.aggregation.kmeans.KMeansAggregation;
@@ -44,6 +46,16 @@ public abstract class FileAggrWriter extends AbstractAggrWriter {
         notSupported();
     }
 
+    @Override
+    public void writeAggregation(CubeAggregation aggregation, AggrContext context) {
+        notSupported();
+    }
+
+    @Override
+    public void writeAggregation(DbscanAggregation aggregation, AggrContext context) {
+        notSupported();
+    }
+
     @Override
     public void writeDataset(Dataset dataset, AggrContext context) {
         notSupported();
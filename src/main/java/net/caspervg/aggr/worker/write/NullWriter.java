@@ -2,6 +2,8 @@ package net.caspervg.aggr.worker.write;
 
 import net.caspervg.aggr.aggregation.average.AverageAggregation;
 import net.caspervg.aggr.aggregation.basic.BasicAggregation;
+import net.caspervg.aggr.aggregation.cube.CubeAggregation;
+import net.caspervg.aggr.aggregation.dbscan.DbscanAggregation;
 import net.caspervg.aggr.aggregation.diff.DiffAggregation;
 import net.caspervg.aggr.aggregation.grid.GridAggregation;
 import net.caspervg.aggr.aggregation.kmeans.KMeansAggregation;
@@ -55,6 +57,16 @@ public class NullWriter implements AggrWriter {
         // Empty on purpose, don't write anything
     }
 
+    @Override
+    public void writeAggregation(CubeAggregation aggregation, AggrContext context) {
+        // Empty on purpose, don't write anything
+    }
+
+    @Override
+    public void writeAggregation(DbscanAggregation aggregation, AggrContext context) {
+        // Empty on purpose, don't write anything
+    }
+
     @Override
     public void writeDataset(Dataset dataset, AggrContext context) {
         // Empty on purpose, don't write anything
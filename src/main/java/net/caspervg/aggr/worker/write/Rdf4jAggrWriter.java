@@ -5,6 +5,8 @@ import com.google.common.collect.Lists;
 import net.caspervg.aggr.aggregation.AbstractAggregation;
 import net.caspervg.aggr.aggregation.average.AverageAggregation;
 import net.caspervg.aggr.aggregation.basic.BasicAggregation;
+import net.caspervg.aggr.aggregation.cube.CubeAggregation;
+import net.caspervg.aggr.aggregation.dbscan.DbscanAggregation;
 import net.caspervg.aggr.aggregation.diff.DiffAggregation;
 import net.caspervg.aggr.aggregation.grid.GridAggregation;
 import net.caspervg.aggr.aggregation.kmeans.KMeansAggregation;
@@ -52,6 +54,8 @@ public class Rdf4jAggrWriter extends AbstractSparqlAggrWriter {
     private IRI ownBasicAggr;
     private IRI ownDiffAggr;
     private IRI ownAvgAggr;
+    private IRI ownCubeAggr;
+    private IRI ownDbscanAggr;
     private IRI muUUID;
 
     public Rdf4jAggrWriter(Repository repository, boolean writeProvenance) {
@@ -72,6 +76,8 @@ public class Rdf4jAggrWriter extends AbstractSparqlAggrWriter {
         this.ownBasicAggr = valueFactory.createIRI(OWN_CLASS, "BasicAggregation");
         this.ownDiffAggr = valueFactory.createIRI(OWN_CLASS, "DiffAggregation");
         this.ownAvgAggr = valueFactory.createIRI(OWN_CLASS, "AverageAggregation");
+        this.ownCubeAggr = valueFactory.createIRI(OWN_CLASS, "CubeAggregation");
+        this.ownDbscanAggr = valueFactory.createIRI(OWN_CLASS, "DbscanAggregation");
         this.muUUID = valueFactory.createIRI(MU_PREFIX, "uuid");
     }
 
@@ -172,6 +178,64 @@ public class Rdf4jAggrWriter extends AbstractSparqlAggrWriter {
                 )
         );
 
+        // Number of iterations that the KMeans aggregation actually performed
+        statements.add(
+                valueFactory.createStatement(
+                        aggRes,
+                        valueFactory.createIRI(PERFORMED_ITERATIONS_PROPERTY),
+                        valueFactory.createLiteral(BigInteger.valueOf(aggregation.getPerformedIterations()))
+                )
+        );
+
+        // Number of distance calculations that the KMeans algorithm could skip
+        statements.add(
+                valueFactory.createStatement(
+                        aggRes,
+                        valueFactory.createIRI(SKIPPED_DISTANCES_PROPERTY),
+                        valueFactory.createLiteral(BigInteger.valueOf(aggregation.getSkippedDistances()))
+                )
+        );
+
+        // Number of measurements that were processed, if the measurements were clustered online
+        if (aggregation.getMeasurements() > 0) {
+            statements.add(
+                    valueFactory.createStatement(
+                            aggRes,
+                            valueFactory.createIRI(MEASUREMENTS_PROPERTY),
+                            valueFactory.createLiteral(BigInteger.valueOf(aggregation.getMeasurements()))
+                    )
+            );
+        }
+
+        // Score of every number of means that was tried, if the number of means was selected automatically
+        if (!aggregation.getClusterScores().isEmpty()) {
+            statements.add(
+                    valueFactory.createStatement(
+                            aggRes,
+                            valueFactory.createIRI(CLUSTER_SCORES_PROPERTY),
+                            stringLiteral(aggregation.getClusterScores().toString())
+                    )
+            );
+        }
+
+        // Start and end time of the window, if the measurements were clustered per time window
+        if (aggregation.getStart() != null) {
+            statements.add(
+                    valueFactory.createStatement(
+                            aggRes,
+                            valueFactory.createIRI(START_TIME_PROPERTY),
+                            literalTimestamp(aggregation.getStart())
+                    )
+            );
+            statements.add(
+                    valueFactory.createStatement(
+                            aggRes,
+                            valueFactory.createIRI(END_TIME_PROPERTY),
+                            literalTimestamp(aggregation.getEnd())
+                    )
+            );
+        }
+
         // Type of the aggregation
         statements.add(
                 valueFactory.createStatement(
@@ -315,6 +379,113 @@ public class Rdf4jAggrWriter extends AbstractSparqlAggrWriter {
         add(statements);
     }
 
+    @Override
+    public void writeAggregation(CubeAggregation aggregation, AggrContext context) {
+        Set<Statement> statements = new HashSet<>();
+        IRI ownGridSize = valueFactory.createIRI(GRID_SIZE_PROPERTY);
+        IRI ownStart = valueFactory.createIRI(START_TIME_PROPERTY);
+        IRI ownEnd = valueFactory.createIRI(END_TIME_PROPERTY);
+
+        Resource aggRes = aggregationWithId(aggregation.getUuid());
+
+        statements.addAll(aggregationStatements(aggregation, aggRes));
+
+        // Grid size of the cube aggregation
+        statements.add(
+                valueFactory.createStatement(
+                        aggRes,
+                        ownGridSize,
+                        valueFactory.createLiteral(aggregation.getGridSize())
+                )
+        );
+
+        // Start time of this slice of the cube
+        statements.add(
+                valueFactory.createStatement(
+                        aggRes,
+                        ownStart,
+                        literalTimestamp(aggregation.getStart())
+                )
+        );
+
+        // End time of this slice of the cube
+        statements.add(
+                valueFactory.createStatement(
+                        aggRes,
+                        ownEnd,
+                        literalTimestamp(aggregation.getEnd())
+                )
+        );
+
+        // Type of the aggregation
+        statements.add(
+                valueFactory.createStatement(
+                        aggRes,
+                        this.ownType,
+                        this.ownCubeAggr
+                )
+        );
+
+        add(statements);
+    }
+
+    @Override
+    public void writeAggregation(DbscanAggregation aggregation, AggrContext context) {
+        Set<Statement> statements = new HashSet<>();
+        IRI ownNumCentroids = valueFactory.createIRI(NUM_CENTROIDS_PROPERTY);
+
+        Resource aggRes = aggregationWithId(aggregation.getUuid());
+
+        statements.addAll(aggregationStatements(aggregation, aggRes));
+
+        // Radius of the neighbourhoods
+        statements.add(
+                valueFactory.createStatement(
+                        aggRes,
+                        valueFactory.createIRI(RADIUS_PROPERTY),
+                        valueFactory.createLiteral(aggregation.getRadius())
+                )
+        );
+
+        // Minimum number of points in the neighbourhood of a core point
+        statements.add(
+                valueFactory.createStatement(
+                        aggRes,
+                        valueFactory.createIRI(MIN_POINTS_PROPERTY),
+                        valueFactory.createLiteral(BigInteger.valueOf(aggregation.getMinPoints()))
+                )
+        );
+
+        // Number of clusters that were found
+        statements.add(
+                valueFactory.createStatement(
+                        aggRes,
+                        ownNumCentroids,
+                        valueFactory.createLiteral(BigInteger.valueOf(aggregation.getNumClusters()))
+                )
+        );
+
+        // Number of measurements outside of any cluster
+        statements.add(
+                valueFactory.createStatement(
+                        aggRes,
+                        valueFactory.createIRI(NOISE_PROPERTY),
+                        valueFactory.createLiteral(BigInteger.valueOf(aggregation.getNoise()))
+                )
+        );
+
+        // Type of the aggregation
+        statements.add(
+                valueFactory.createStatement(
+                        aggRes,
+                        this.ownType,
+                        this.ownDbscanAggr
+                )
+        );
+
+        add(statements);
+    }
+
     protected Collection<Statement> measurementStatements(Measurement measurement, Resource measRes) {
         Set<Statement> statements = new HashSet<>();
 
@@ -0,0 +1,88 @@
+package net.caspervg.aggr.aggregation.cube;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.CountedGeoMeasurement;
+import net.caspervg.aggr.ext.TimedGeoMeasurement;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PlainCubeAggregatorTests {
+
+    private AggrContext ctx;
+    private Dataset dataset;
+    private List<Measurement> measurements;
+    private LocalDateTime start = LocalDateTime.of(2016, 7, 14, 0, 0, 0);
+
+    @Before
+    public void initialize() {
+        Map<String, String> params = new HashMap<>();
+        params.put(AbstractCubeAggregator.GRID_SIZE_PARAM, "0.1");
+        params.put(AbstractCubeAggregator.DETAIL_PARAM, "2");
+
+        this.ctx = AggrContext.builder()
+                .parameters(params)
+                .inputClass(TimedGeoMeasurement.class)
+                .outputClass(CountedGeoMeasurement.class)
+                .build();
+        this.dataset = Dataset.Builder.setup().withTitle("cube").build();
+
+        // Two slices (00:00-02:00 and 02:00-04:00), with three measurements in one cell and one in another
+        this.measurements = Lists.newArrayList(
+                measurement(51.01, 3.01, 0),
+                measurement(51.02, 3.02, 1),
+                measurement(51.01, 3.01, 3),
+                measurement(51.21, 3.01, 4)
+        );
+    }
+
+    @Test
+    public void cellsTest() {
+        List<AggregationResult<CubeAggregation, Measurement>> results =
+                Lists.newArrayList(new PlainCubeAggregator().aggregate(dataset, measurements, ctx));
+
+        Assert.assertEquals(2, results.size());
+
+        AggregationResult<CubeAggregation, Measurement> first = results.get(0);
+        Assert.assertEquals(start, first.getAggregation().getStart());
+        Assert.assertEquals(start.plusHours(2), first.getAggregation().getEnd());
+        Assert.assertEquals(2, first.getAggregation().getSources().size());
+        Measurement cell = Iterables.getOnlyElement(first.getResults());
+        Assert.assertEquals(51.0, cell.getVector()[0], 1e-9);
+        Assert.assertEquals(3.0, cell.getVector()[1], 1e-9);
+        Assert.assertEquals(2L, cell.getDatum(CountedGeoMeasurement.COUNT_KEY).get());
+        Assert.assertEquals(2.0, (double) cell.getDatum(WeightedGeoMeasurement.WEIGHT_KEY).get(), 1e-9);
+        Assert.assertEquals(2, cell.getParents().size());
+
+        AggregationResult<CubeAggregation, Measurement> second = results.get(1);
+        Assert.assertEquals(start.plusHours(4), second.getAggregation().getEnd());
+        Assert.assertEquals(2, Iterables.size(second.getResults()));
+        for (Measurement other : second.getResults()) {
+            Assert.assertEquals(1L, other.getDatum(CountedGeoMeasurement.COUNT_KEY).get());
+        }
+    }
+
+    @Test
+    public void emptyTest() {
+        Assert.assertTrue(Iterables.isEmpty(new PlainCubeAggregator().aggregate(dataset, Lists.newArrayList(), ctx)));
+    }
+
+    private Measurement measurement(double latitude, double longitude, int hours) {
+        Measurement meas = new TimedGeoMeasurement();
+        meas.setVector(new Double[]{latitude, longitude});
+        meas.setTimestamp(start.plusHours(hours));
+
+        return meas;
+    }
+}
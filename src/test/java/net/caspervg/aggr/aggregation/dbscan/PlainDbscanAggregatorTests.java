@@ -0,0 +1,113 @@
+package net.caspervg.aggr.aggregation.dbscan;
+
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.distance.DistanceMetric;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.TimedGeoMeasurement;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+public class PlainDbscanAggregatorTests {
+
+    private AggrContext ctx;
+    private Dataset dataset;
+    private List<Measurement> measurements;
+
+    @Before
+    public void initialize() {
+        Map<String, String> params = new HashMap<>();
+        params.put(AbstractDbscanAggregator.RADIUS_PARAM, "0.001");
+        params.put(AbstractDbscanAggregator.MIN_POINTS_PARAM, "5");
+
+        this.ctx = AggrContext.builder()
+                .parameters(params)
+                .inputClass(TimedGeoMeasurement.class)
+                .outputClass(WeightedGeoMeasurement.class)
+                .build();
+        this.dataset = Dataset.Builder.setup().withTitle("dbscan").build();
+
+        // Two parallel roads of 1000 points each, and 100 points scattered far away from both
+        Random random = new Random(42);
+        this.measurements = Lists.newArrayList();
+        for (int i = 0; i < 2000; i++) {
+            double latitude = (i % 2 == 0 ? 51.0 : 51.01) + random.nextGaussian() * 0.0001;
+            double longitude = 3.0 + random.nextDouble() * 0.1;
+            measurements.add(measurement(latitude, longitude));
+        }
+        for (int i = 0; i < 100; i++) {
+            measurements.add(measurement(52.0 + i * 0.01, 4.0 + i * 0.01));
+        }
+    }
+
+    @Test
+    public void roadsTest() {
+        AggregationResult<DbscanAggregation, Measurement> result =
+                new PlainDbscanAggregator().aggregate(dataset, measurements, ctx).iterator().next();
+
+        Assert.assertEquals(2, result.getAggregation().getNumClusters());
+        Assert.assertEquals(100, result.getAggregation().getNoise());
+
+        // The roads are much closer to each other than their length, but still end up as separate clusters
+        for (Measurement centroid : result.getResults()) {
+            Assert.assertEquals(1000, (double) centroid.getDatum(WeightedGeoMeasurement.WEIGHT_KEY).get(), 0);
+            Assert.assertEquals(1000, centroid.getParents().size());
+            Assert.assertEquals(0, Math.abs(centroid.getVector()[0] - 51.005) - 0.005, 0.0001);
+            Assert.assertEquals(3.05, centroid.getVector()[1], 0.01);
+        }
+    }
+
+    @Test
+    public void bruteForceTest() {
+        double radius = 0.001;
+        int minPoints = 5;
+        Random random = new Random(7);
+        double[] coords = new double[2 * 3000];
+        for (int i = 0; i < coords.length; i++) {
+            coords[i] = random.nextDouble() * 0.03;
+        }
+
+        boolean[] core = new boolean[3000];
+        int[] labels = new GridDbscan(DistanceMetricChoice.EUCLIDEAN, radius, minPoints).cluster(coords, 2, core);
+
+        // Compare with the neighbourhoods of every pair of points
+        DistanceMetric<Double> metric = DistanceMetricChoice.EUCLIDEAN.getMetric();
+        for (int i = 0; i < core.length; i++) {
+            int neighbours = 0;
+            boolean nearCore = false;
+            for (int j = 0; j < core.length; j++) {
+                if (metric.distance(coords, 2 * i, coords, 2 * j, 2) <= radius) {
+                    neighbours++;
+                    if (core[j]) {
+                        nearCore = true;
+                        if (core[i]) {
+                            Assert.assertEquals(labels[i], labels[j]);
+                        }
+                    }
+                }
+            }
+
+            Assert.assertEquals(neighbours >= minPoints, core[i]);
+            Assert.assertEquals(nearCore, labels[i] != GridDbscan.NOISE);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidMetricTest() {
+        ctx.getParameters().put(AbstractDbscanAggregator.METRIC_PARAM, "HAVERSINE");
+        new PlainDbscanAggregator().aggregate(dataset, measurements, ctx);
+    }
+
+    private static Measurement measurement(double latitude, double longitude) {
+        Measurement meas = new TimedGeoMeasurement();
+        meas.setVector(new Double[]{latitude, longitude});
+        return meas;
+    }
+}
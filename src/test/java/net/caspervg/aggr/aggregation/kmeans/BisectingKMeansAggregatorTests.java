@@ -0,0 +1,170 @@
+package net.caspervg.aggr.aggregation.kmeans;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.TimedGeoMeasurement;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+public class BisectingKMeansAggregatorTests {
+
+    private AggrContext ctx;
+    private Dataset dataset;
+    private List<Measurement> measurements;
+
+    @Before
+    public void initialize() {
+        Map<String, String> params = new HashMap<>();
+        params.put(AbstractKMeansAggregator.HIERARCHY_PARAM, "4,1,2");
+
+        this.ctx = AggrContext.builder()
+                .parameters(params)
+                .inputClass(TimedGeoMeasurement.class)
+                .outputClass(WeightedGeoMeasurement.class)
+                .build();
+        this.dataset = Dataset.Builder.setup().withTitle("kmeans").build();
+
+        // Four blobs of 1000 points: two around latitude 51 and two around latitude 50
+        Random random = new Random(42);
+        this.measurements = Lists.newArrayList();
+        for (int i = 0; i < 4000; i++) {
+            Measurement meas = new TimedGeoMeasurement();
+            meas.setVector(new Double[]{
+                    (i % 4 < 2 ? 51.0 : 50.0) + random.nextGaussian() * 0.01,
+                    (i % 2 == 0 ? 3.0 : 3.2) + random.nextGaussian() * 0.01
+            });
+            measurements.add(meas);
+        }
+    }
+
+    @Test
+    public void levelsTest() {
+        List<AggregationResult<KMeansAggregation, Measurement>> results =
+                Lists.newArrayList(new BisectingKMeansAggregator().aggregate(dataset, measurements, ctx));
+
+        // One aggregation per level, from the coarsest to the finest
+        Assert.assertEquals(3, results.size());
+        Assert.assertEquals(1, results.get(0).getAggregation().getK());
+        Assert.assertEquals(2, results.get(1).getAggregation().getK());
+        Assert.assertEquals(4, results.get(2).getAggregation().getK());
+
+        Measurement root = Iterables.getOnlyElement(results.get(0).getResults());
+        Assert.assertEquals(50.5, root.getVector()[0], 0.01);
+        Assert.assertEquals(3.1, root.getVector()[1], 0.01);
+        Assert.assertEquals(4000, root.getParents().size());
+
+        for (Measurement centroid : results.get(2).getResults()) {
+            Assert.assertEquals(1000, (double) centroid.getDatum(WeightedGeoMeasurement.WEIGHT_KEY).get(), 0);
+            Assert.assertEquals(1000, centroid.getParents().size());
+            Assert.assertEquals(0, Math.abs(centroid.getVector()[0] - 50.5) - 0.5, 0.01);
+            Assert.assertEquals(0, Math.abs(centroid.getVector()[1] - 3.1) - 0.1, 0.01);
+        }
+    }
+
+    @Test
+    public void nestedTest() {
+        List<AggregationResult<KMeansAggregation, Measurement>> results =
+                Lists.newArrayList(new BisectingKMeansAggregator().aggregate(dataset, measurements, ctx));
+
+        // Every cluster of a level lies within a single cluster of the level before
+        for (int level = 1; level < results.size(); level++) {
+            for (Measurement centroid : results.get(level).getResults()) {
+                int containing = 0;
+                for (Measurement coarse : results.get(level - 1).getResults()) {
+                    if (coarse.getParents().containsAll(centroid.getParents())) {
+                        containing++;
+                    }
+                }
+                Assert.assertEquals(1, containing);
+            }
+        }
+    }
+
+    @Test
+    public void duplicatesTest() {
+        List<Measurement> duplicates = Lists.newArrayList();
+        for (int i = 0; i < 100; i++) {
+            Measurement meas = new TimedGeoMeasurement();
+            meas.setVector(new Double[]{51.0, 3.0});
+            duplicates.add(meas);
+        }
+
+        // Coinciding points cannot be split, so every level keeps the single cluster
+        for (AggregationResult<KMeansAggregation, Measurement> result : new BisectingKMeansAggregator().aggregate(dataset, duplicates, ctx)) {
+            Assert.assertEquals(1, Iterables.size(result.getResults()));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLevelTest() {
+        ctx.getParameters().put(AbstractKMeansAggregator.HIERARCHY_PARAM, "0,4");
+        new BisectingKMeansAggregator().aggregate(dataset, measurements, ctx);
+    }
+
+    @Test
+    public void coincidingSeedsTest() {
+        // The first seeds coincide, but the points of the cluster do not. A single iteration leaves no time to recover
+        // from a split where all points went to the first seed.
+        List<Measurement> duplicated = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            Measurement meas = new TimedGeoMeasurement();
+            meas.setVector(measurements.get(0).getVector().clone());
+            duplicated.add(meas);
+        }
+        duplicated.addAll(measurements);
+        ctx.getParameters().put(AbstractKMeansAggregator.SEEDING_PARAM, "FIRST");
+        ctx.getParameters().put(AbstractKMeansAggregator.HIERARCHY_PARAM, "4");
+        ctx.getParameters().put(AbstractKMeansAggregator.ITERATIONS_PARAM, "1");
+
+        AggregationResult<KMeansAggregation, Measurement> result =
+                new BisectingKMeansAggregator().aggregate(dataset, duplicated, ctx).iterator().next();
+
+        Assert.assertEquals(4, result.getAggregation().getK());
+    }
+
+    @Test
+    public void weightsTest() {
+        List<Measurement> weighted = Lists.newArrayList();
+        for (Measurement meas : measurements) {
+            Measurement weightedMeas = new WeightedGeoMeasurement();
+            weightedMeas.setVector(meas.getVector());
+            weightedMeas.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, 2.5);
+            weighted.add(weightedMeas);
+        }
+
+        List<AggregationResult<KMeansAggregation, Measurement>> results =
+                Lists.newArrayList(new BisectingKMeansAggregator().aggregate(dataset, weighted, ctx));
+
+        // The weights of the centroids are the sums of the weights of their measurements
+        for (Measurement centroid : results.get(2).getResults()) {
+            Assert.assertEquals(2.5 * centroid.getParents().size(), WeightedGeoMeasurement.weightOf(centroid), 1e-9);
+        }
+        Assert.assertEquals(10000, WeightedGeoMeasurement.weightOf(results.get(0).getResults().iterator().next()), 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void clusterSelectionTest() {
+        ctx.getParameters().put(AbstractKMeansAggregator.CLUSTER_SELECTION_PARAM, "ELBOW");
+        new BisectingKMeansAggregator().aggregate(dataset, measurements, ctx);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void warmStartTest() {
+        ctx.getParameters().put(AbstractKMeansAggregator.WARM_START_PARAM, "centroids.csv");
+        new BisectingKMeansAggregator().aggregate(dataset, measurements, ctx);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void coresetTest() {
+        ctx.getParameters().put(AbstractKMeansAggregator.CORESET_GRID_SIZE_PARAM, "0.001");
+        new BisectingKMeansAggregator().aggregate(dataset, measurements, ctx);
+    }
+}
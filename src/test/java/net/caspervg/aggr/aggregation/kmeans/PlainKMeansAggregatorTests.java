@@ -0,0 +1,200 @@
+package net.caspervg.aggr.aggregation.kmeans;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.TimedGeoMeasurement;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class PlainKMeansAggregatorTests {
+
+    private AggrContext ctx;
+    private Dataset dataset;
+    private List<Measurement> measurements;
+
+    @Before
+    public void initialize() {
+        Map<String, String> params = new HashMap<>();
+        params.put(AbstractKMeansAggregator.CENTROIDS_PARAM, "2");
+        params.put(AbstractKMeansAggregator.ITERATIONS_PARAM, "10");
+
+        this.ctx = AggrContext.builder()
+                .parameters(params)
+                .inputClass(TimedGeoMeasurement.class)
+                .outputClass(WeightedGeoMeasurement.class)
+                .build();
+        this.dataset = Dataset.Builder.setup().withTitle("kmeans").build();
+
+        // Two blobs: 3000 points around (51, 3) and 2000 points around (50, 4)
+        Random random = new Random(42);
+        this.measurements = Lists.newArrayList();
+        for (int i = 0; i < 5000; i++) {
+            double latitude = (i % 5 < 3 ? 51.0 : 50.0) + random.nextGaussian() * 0.01;
+            double longitude = (i % 5 < 3 ? 3.0 : 4.0) + random.nextGaussian() * 0.01;
+
+            Measurement meas = new TimedGeoMeasurement();
+            meas.setVector(new Double[]{latitude, longitude});
+            measurements.add(meas);
+        }
+    }
+
+    @Test
+    public void blobsTest() {
+        AggregationResult<KMeansAggregation, Measurement> result =
+                Iterables.getOnlyElement(new PlainKMeansAggregator().aggregate(dataset, measurements, ctx));
+
+        Assert.assertEquals(2, Iterables.size(result.getResults()));
+        for (Measurement centroid : result.getResults()) {
+            double weight = (double) centroid.getDatum(WeightedGeoMeasurement.WEIGHT_KEY).get();
+            Assert.assertEquals(weight, centroid.getParents().size(), 0);
+
+            if (centroid.getVector()[0] > 50.5) {
+                Assert.assertEquals(51.0, centroid.getVector()[0], 0.01);
+                Assert.assertEquals(3.0, centroid.getVector()[1], 0.01);
+                Assert.assertEquals(3000, weight, 0);
+            } else {
+                Assert.assertEquals(50.0, centroid.getVector()[0], 0.01);
+                Assert.assertEquals(4.0, centroid.getVector()[1], 0.01);
+                Assert.assertEquals(2000, weight, 0);
+            }
+        }
+    }
+
+    @Test
+    public void fewerMeasurementsTest() {
+        AggregationResult<KMeansAggregation, Measurement> result = Iterables.getOnlyElement(
+                new PlainKMeansAggregator().aggregate(dataset, measurements.subList(0, 1), ctx)
+        );
+
+        Assert.assertEquals(1, Iterables.size(result.getResults()));
+    }
+
+    @Test
+    public void convergenceTest() {
+        ctx.getParameters().put(AbstractKMeansAggregator.ITERATIONS_PARAM, "50");
+        ctx.getParameters().put(AbstractKMeansAggregator.SEEDING_PARAM, "FIRST");
+        AggregationResult<KMeansAggregation, Measurement> converged =
+                Iterables.getOnlyElement(new PlainKMeansAggregator().aggregate(dataset, measurements, ctx));
+
+        ctx.getParameters().put(AbstractKMeansAggregator.EPSILON_PARAM, "-1");
+        AggregationResult<KMeansAggregation, Measurement> full =
+                Iterables.getOnlyElement(new PlainKMeansAggregator().aggregate(dataset, measurements, ctx));
+
+        // Stopping once the centroids no longer move gives the same centroids
+        Assert.assertTrue(converged.getAggregation().getPerformedIterations() < 50);
+        Assert.assertEquals(50, full.getAggregation().getPerformedIterations());
+        for (int i = 0; i < 2; i++) {
+            Assert.assertArrayEquals(
+                    Iterables.get(full.getResults(), i).getVector(),
+                    Iterables.get(converged.getResults(), i).getVector()
+            );
+        }
+    }
+
+    @Test
+    public void clusterSelectionTest() {
+        // Four blobs of 8 points, for which the rule of thumb suggests 4 clusters
+        Random random = new Random(3);
+        List<Measurement> blobs = Lists.newArrayList();
+        for (int i = 0; i < 32; i++) {
+            Measurement meas = new TimedGeoMeasurement();
+            meas.setVector(new Double[]{
+                    50.0 + (i % 4) + random.nextGaussian() * 0.01,
+                    3.0 + random.nextGaussian() * 0.01
+            });
+            blobs.add(meas);
+        }
+
+        ctx.getParameters().put(AbstractKMeansAggregator.SEEDING_PARAM, "KKZ");
+        ctx.getParameters().put(AbstractKMeansAggregator.CLUSTER_SELECTION_PARAM, "SILHOUETTE");
+        AggregationResult<KMeansAggregation, Measurement> result =
+                Iterables.getOnlyElement(new PlainKMeansAggregator().aggregate(dataset, blobs, ctx));
+
+        Assert.assertEquals(4, result.getAggregation().getK());
+        Assert.assertEquals(4, Iterables.size(result.getResults()));
+        Assert.assertEquals(2, (int) result.getAggregation().getClusterScores().firstKey());
+        Assert.assertEquals(8, (int) result.getAggregation().getClusterScores().lastKey());
+    }
+
+    @Test
+    public void warmStartTest() {
+        ctx.getParameters().put(AbstractKMeansAggregator.ITERATIONS_PARAM, "50");
+        AggregationResult<KMeansAggregation, Measurement> previous =
+                Iterables.getOnlyElement(new PlainKMeansAggregator().aggregate(dataset, measurements, ctx));
+
+        // Starting from the previous centroids, with a few more measurements, converges almost immediately
+        List<Measurement> more = Lists.newArrayList(measurements);
+        for (int i = 0; i < 10; i++) {
+            Measurement meas = new TimedGeoMeasurement();
+            meas.setVector(new Double[]{51.0 + i * 0.001, 3.0});
+            more.add(meas);
+        }
+        ctx.getParameters().put(AbstractKMeansAggregator.CENTROIDS_PARAM, "5");
+        AggregationResult<KMeansAggregation, Measurement> next = Iterables.getOnlyElement(
+                new PlainKMeansAggregator(previous.getResults()).aggregate(dataset, more, ctx)
+        );
+
+        Assert.assertEquals(2, next.getAggregation().getK());
+        Assert.assertTrue(next.getAggregation().getPerformedIterations() <= 2);
+        for (int i = 0; i < 2; i++) {
+            Double[] previousVector = Iterables.get(previous.getResults(), i).getVector();
+            Double[] nextVector = Iterables.get(next.getResults(), i).getVector();
+            Assert.assertEquals(previousVector[0], nextVector[0], 0.001);
+            Assert.assertEquals(previousVector[1], nextVector[1], 0.001);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void warmStartDimensionTest() {
+        Measurement centroid = new TimedGeoMeasurement();
+        centroid.setVector(new Double[]{51.0, 3.0, 1.0});
+
+        new PlainKMeansAggregator(Lists.newArrayList(centroid)).aggregate(dataset, measurements, ctx);
+    }
+
+    @Test
+    public void coresetTest() {
+        // Every measurement counts twice
+        List<Measurement> weighted = Lists.newArrayList();
+        for (Measurement measurement : measurements) {
+            Measurement meas = new WeightedGeoMeasurement();
+            meas.setVector(measurement.getVector());
+            meas.setDatum(WeightedGeoMeasurement.WEIGHT_KEY, 2.0);
+            weighted.add(meas);
+        }
+
+        for (boolean provenance : new boolean[]{false, true}) {
+            ctx.getParameters().put(AbstractKMeansAggregator.CORESET_GRID_SIZE_PARAM, "0.002");
+            ctx.getParameters().put(AbstractKMeansAggregator.PROVENANCE_PARAM, String.valueOf(provenance));
+            AggregationResult<KMeansAggregation, Measurement> result =
+                    Iterables.getOnlyElement(new PlainKMeansAggregator().aggregate(dataset, weighted, ctx));
+
+            Assert.assertEquals(2, Iterables.size(result.getResults()));
+            for (Measurement centroid : result.getResults()) {
+                double weight = (double) centroid.getDatum(WeightedGeoMeasurement.WEIGHT_KEY).get();
+                Assert.assertEquals(provenance ? weight / 2 : 0, centroid.getParents().size(), 0);
+
+                if (centroid.getVector()[0] > 50.5) {
+                    Assert.assertEquals(51.0, centroid.getVector()[0], 0.01);
+                    Assert.assertEquals(3.0, centroid.getVector()[1], 0.01);
+                    Assert.assertEquals(6000, weight, 0);
+                } else {
+                    Assert.assertEquals(50.0, centroid.getVector()[0], 0.01);
+                    Assert.assertEquals(4.0, centroid.getVector()[1], 0.01);
+                    Assert.assertEquals(4000, weight, 0);
+                }
+            }
+        }
+    }
+}
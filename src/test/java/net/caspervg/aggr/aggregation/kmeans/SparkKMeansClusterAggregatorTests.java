@@ -0,0 +1,107 @@
+package net.caspervg.aggr.aggregation.kmeans;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.TimedGeoMeasurement;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+public class SparkKMeansClusterAggregatorTests {
+
+    private JavaSparkContext sparkContext;
+    private AggrContext ctx;
+    private Dataset dataset;
+    private List<Measurement> measurements;
+
+    @Before
+    public void initialize() {
+        Map<String, String> params = new HashMap<>();
+        params.put(AbstractKMeansAggregator.CENTROIDS_PARAM, "2");
+        params.put(AbstractKMeansAggregator.ITERATIONS_PARAM, "10");
+
+        this.sparkContext = new JavaSparkContext("local[2]", "kmeans");
+        this.ctx = AggrContext.builder()
+                .parameters(params)
+                .inputClass(TimedGeoMeasurement.class)
+                .outputClass(WeightedGeoMeasurement.class)
+                .sparkContext(sparkContext)
+                .build();
+        this.dataset = Dataset.Builder.setup().withTitle("kmeans").build();
+
+        // Two blobs: 3000 points around (51, 3) and 2000 points around (50, 4)
+        Random random = new Random(42);
+        this.measurements = Lists.newArrayList();
+        for (int i = 0; i < 5000; i++) {
+            boolean first = i % 5 < 3;
+            measurements.add(measurement(
+                    (first ? 51.0 : 50.0) + random.nextGaussian() * 0.01,
+                    (first ? 3.0 : 4.0) + random.nextGaussian() * 0.01
+            ));
+        }
+    }
+
+    @After
+    public void stop() {
+        sparkContext.stop();
+    }
+
+    @Test
+    public void membersTest() {
+        AggregationResult<KMeansAggregation, Measurement> result =
+                new SparkKMeansClusterAggregator().aggregate(dataset, measurements, ctx).iterator().next();
+
+        Assert.assertEquals(2, result.getAggregation().getK());
+        for (Measurement centroid : result.getResults()) {
+            double weight = WeightedGeoMeasurement.weightOf(centroid);
+            Assert.assertEquals(centroid.getVector()[0] > 50.5 ? 3000 : 2000, weight, 0);
+            Assert.assertEquals(weight, centroid.getParents().size(), 0);
+        }
+    }
+
+    @Test
+    public void noProvenanceTest() {
+        ctx.getParameters().put(AbstractKMeansAggregator.PROVENANCE_PARAM, "false");
+        AggregationResult<KMeansAggregation, Measurement> result =
+                new SparkKMeansClusterAggregator().aggregate(dataset, measurements, ctx).iterator().next();
+
+        // The weights are still counted, without grouping the parents
+        for (Measurement centroid : result.getResults()) {
+            Assert.assertEquals(centroid.getVector()[0] > 50.5 ? 3000 : 2000, WeightedGeoMeasurement.weightOf(centroid), 0);
+            Assert.assertTrue(centroid.getParents().isEmpty());
+        }
+    }
+
+    @Test
+    public void fewerSeedsTest() {
+        // Only three distinct points, so the seeding finds fewer seeds than centroids
+        List<Measurement> repeated = Lists.newArrayList();
+        for (int i = 0; i < 300; i++) {
+            repeated.add(measurement(50.0 + i % 3, 4.0));
+        }
+        ctx.getParameters().put(AbstractKMeansAggregator.CENTROIDS_PARAM, "5");
+        ctx.getParameters().put(AbstractKMeansAggregator.SEEDING_PARAM, "SINGLE_PASS");
+
+        AggregationResult<KMeansAggregation, Measurement> result =
+                new SparkKMeansClusterAggregator().aggregate(dataset, repeated, ctx).iterator().next();
+
+        Assert.assertEquals(3, Iterables.size(result.getResults()));
+        Assert.assertEquals(3, result.getAggregation().getK());
+    }
+
+    private static Measurement measurement(double latitude, double longitude) {
+        Measurement meas = new TimedGeoMeasurement();
+        meas.setVector(new Double[]{latitude, longitude});
+
+        return meas;
+    }
+}
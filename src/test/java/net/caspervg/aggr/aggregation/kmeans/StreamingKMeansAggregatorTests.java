@@ -0,0 +1,158 @@
+package net.caspervg.aggr.aggregation.kmeans;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.time.AbstractTimeAggregator;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.TimedGeoMeasurement;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+public class StreamingKMeansAggregatorTests {
+
+    private AggrContext ctx;
+    private Dataset dataset;
+    private List<Measurement> measurements;
+
+    @Before
+    public void initialize() {
+        Map<String, String> params = new HashMap<>();
+        params.put(AbstractKMeansAggregator.CENTROIDS_PARAM, "2");
+        params.put(AbstractKMeansAggregator.CHECKPOINT_PARAM, "1000");
+
+        this.ctx = AggrContext.builder()
+                .parameters(params)
+                .inputClass(TimedGeoMeasurement.class)
+                .outputClass(WeightedGeoMeasurement.class)
+                .build();
+        this.dataset = Dataset.Builder.setup().withTitle("kmeans").build();
+
+        // Two blobs: 3000 points around (51, 3) and 2000 points around (50, 4)
+        Random random = new Random(42);
+        this.measurements = Lists.newArrayList();
+        for (int i = 0; i < 5000; i++) {
+            measurements.add(measurement(i % 5 < 3 ? 51.0 : 50.0, i % 5 < 3 ? 3.0 : 4.0, random));
+        }
+    }
+
+    @Test
+    public void snapshotsTest() {
+        List<AggregationResult<KMeansAggregation, Measurement>> results =
+                Lists.newArrayList(new StreamingKMeansAggregator().aggregate(dataset, measurements, ctx));
+
+        // One snapshot every thousand measurements, the last one coincides with the end of the input
+        Assert.assertEquals(5, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            Assert.assertEquals(1000 * (i + 1), results.get(i).getAggregation().getMeasurements());
+        }
+
+        AggregationResult<KMeansAggregation, Measurement> last = results.get(results.size() - 1);
+        Assert.assertEquals(2, Iterables.size(last.getResults()));
+        double totalWeight = 0;
+        for (Measurement centroid : last.getResults()) {
+            double weight = (double) centroid.getDatum(WeightedGeoMeasurement.WEIGHT_KEY).get();
+            totalWeight += weight;
+            Assert.assertTrue(centroid.getParents().isEmpty());
+
+            if (centroid.getVector()[0] > 50.5) {
+                Assert.assertEquals(51.0, centroid.getVector()[0], 0.01);
+                Assert.assertEquals(3.0, centroid.getVector()[1], 0.01);
+                Assert.assertEquals(3000, weight, 10);
+            } else {
+                Assert.assertEquals(50.0, centroid.getVector()[0], 0.01);
+                Assert.assertEquals(4.0, centroid.getVector()[1], 0.01);
+                Assert.assertEquals(2000, weight, 10);
+            }
+        }
+
+        // Both initial centroids lie in the first blob, so a few of its measurements went to the other centroid
+        Assert.assertEquals(5000, totalWeight, 0);
+    }
+
+    @Test
+    public void decayTest() {
+        // The second blob moves to (50, 5) halfway through the input
+        Random random = new Random(7);
+        List<Measurement> drifting = Lists.newArrayList(measurements);
+        for (int i = 0; i < 5000; i++) {
+            drifting.add(measurement(i % 5 < 3 ? 51.0 : 50.0, i % 5 < 3 ? 3.0 : 5.0, random));
+        }
+
+        for (String decay : new String[]{"1", "0.999"}) {
+            ctx.getParameters().put(AbstractKMeansAggregator.DECAY_PARAM, decay);
+            AggregationResult<KMeansAggregation, Measurement> last =
+                    Iterables.getLast(new StreamingKMeansAggregator().aggregate(dataset, drifting, ctx));
+
+            for (Measurement centroid : last.getResults()) {
+                if (centroid.getVector()[0] < 50.5) {
+                    // Without decay, the centroid ends up in between, otherwise it follows the blob
+                    Assert.assertEquals(decay.equals("1") ? 4.5 : 5.0, centroid.getVector()[1], 0.05);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void lazyTest() {
+        Iterator<Measurement> source = measurements.iterator();
+        int[] consumed = new int[1];
+        Iterable<Measurement> counting = () -> new Iterator<Measurement>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public Measurement next() {
+                consumed[0]++;
+                return source.next();
+            }
+        };
+
+        Iterator<AggregationResult<KMeansAggregation, Measurement>> results =
+                new StreamingKMeansAggregator().aggregate(dataset, counting, ctx).iterator();
+        Assert.assertEquals(0, consumed[0]);
+
+        results.next();
+        Assert.assertEquals(1000, consumed[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidDecayTest() {
+        ctx.getParameters().put(AbstractKMeansAggregator.DECAY_PARAM, "0");
+        new StreamingKMeansAggregator().aggregate(dataset, measurements, ctx);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void warmStartDimensionTest() {
+        Measurement centroid = new TimedGeoMeasurement();
+        centroid.setVector(new Double[]{51.0, 3.0, 0.0});
+
+        // Even a single measurement must match the dimension of the warm-start centroids
+        Iterables.size(new StreamingKMeansAggregator(Collections.singletonList(centroid))
+                .aggregate(dataset, measurements.subList(0, 1), ctx));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void windowTest() {
+        ctx.getParameters().put(AbstractTimeAggregator.WINDOW_PARAM, "HOUR");
+        new StreamingKMeansAggregator().aggregate(dataset, measurements, ctx);
+    }
+
+    private static Measurement measurement(double latitude, double longitude, Random random) {
+        Measurement meas = new TimedGeoMeasurement();
+        meas.setVector(new Double[]{
+                latitude + random.nextGaussian() * 0.01,
+                longitude + random.nextGaussian() * 0.01
+        });
+
+        return meas;
+    }
+}
@@ -0,0 +1,131 @@
+package net.caspervg.aggr.aggregation.kmeans;
+
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.aggregation.time.AbstractTimeAggregator;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.TimedGeoMeasurement;
+import net.caspervg.aggr.ext.WeightedGeoMeasurement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+public class WindowedKMeansAggregatorTests {
+
+    private AggrContext ctx;
+    private Dataset dataset;
+    private List<Measurement> measurements;
+    private LocalDateTime start = LocalDateTime.of(2016, 7, 14, 0, 0, 0);
+
+    @Before
+    public void initialize() {
+        Map<String, String> params = new HashMap<>();
+        params.put(AbstractKMeansAggregator.CENTROIDS_PARAM, "2");
+        params.put(AbstractTimeAggregator.WINDOW_PARAM, "HOUR");
+
+        this.ctx = AggrContext.builder()
+                .parameters(params)
+                .inputClass(TimedGeoMeasurement.class)
+                .outputClass(WeightedGeoMeasurement.class)
+                .build();
+        this.dataset = Dataset.Builder.setup().withTitle("kmeans").build();
+
+        // Two blobs for six hours, one of them moves east a little every hour
+        Random random = new Random(42);
+        this.measurements = Lists.newArrayList();
+        for (int i = 0; i < 6000; i++) {
+            int hour = i / 1000;
+            double latitude = (i % 2 == 0 ? 51.0 : 50.0) + random.nextGaussian() * 0.01;
+            double longitude = (i % 2 == 0 ? 3.0 : 4.0 + 0.1 * hour) + random.nextGaussian() * 0.01;
+
+            Measurement meas = new TimedGeoMeasurement();
+            meas.setVector(new Double[]{latitude, longitude});
+            meas.setTimestamp(start.plusHours(hour).plusSeconds(i % 1000));
+            measurements.add(meas);
+        }
+    }
+
+    @Test
+    public void windowsTest() {
+        List<AggregationResult<KMeansAggregation, Measurement>> results =
+                Lists.newArrayList(new WindowedKMeansAggregator().aggregate(dataset, measurements, ctx));
+
+        Assert.assertEquals(6, results.size());
+        for (int hour = 0; hour < results.size(); hour++) {
+            KMeansAggregation aggregation = results.get(hour).getAggregation();
+            Assert.assertEquals(start.plusHours(hour), aggregation.getStart());
+            Assert.assertEquals(start.plusHours(hour + 1), aggregation.getEnd());
+            Assert.assertEquals(2, aggregation.getK());
+
+            for (Measurement centroid : results.get(hour).getResults()) {
+                Assert.assertEquals(500, (double) centroid.getDatum(WeightedGeoMeasurement.WEIGHT_KEY).get(), 0);
+                if (centroid.getVector()[0] > 50.5) {
+                    Assert.assertEquals(3.0, centroid.getVector()[1], 0.01);
+                } else {
+                    Assert.assertEquals(4.0 + 0.1 * hour, centroid.getVector()[1], 0.01);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void stableTest() {
+        List<AggregationResult<KMeansAggregation, Measurement>> results =
+                Lists.newArrayList(new WindowedKMeansAggregator().aggregate(dataset, measurements, ctx));
+
+        // Every window is seeded with the window before, so the centroid of the same blob keeps its position in the list
+        for (AggregationResult<KMeansAggregation, Measurement> result : results) {
+            List<Measurement> centroids = Lists.newArrayList(result.getResults());
+            Assert.assertEquals(
+                    results.get(0).getResults().iterator().next().getVector()[0] > 50.5,
+                    centroids.get(0).getVector()[0] > 50.5
+            );
+
+            // The seeds were already chained on a sample of the window, so the full run converges quickly
+            Assert.assertTrue(result.getAggregation().getPerformedIterations() <= 3);
+        }
+    }
+
+    @Test
+    public void smallFirstWindowTest() {
+        // The first hour only has a single measurement, in the blob that does not move
+        List<Measurement> late = Lists.newArrayList(measurements.subList(1000, measurements.size()));
+        Measurement early = new TimedGeoMeasurement();
+        early.setVector(new Double[]{51.0, 3.0});
+        early.setTimestamp(start);
+        late.add(0, early);
+
+        List<AggregationResult<KMeansAggregation, Measurement>> results =
+                Lists.newArrayList(new WindowedKMeansAggregator().aggregate(dataset, late, ctx));
+
+        Assert.assertEquals(6, results.size());
+        Assert.assertEquals(1, results.get(0).getAggregation().getK());
+        Assert.assertEquals(1, (double) results.get(0).getResults().iterator().next()
+                .getDatum(WeightedGeoMeasurement.WEIGHT_KEY).get(), 0);
+
+        // The next windows add the missing seed from their own measurements
+        for (int hour = 1; hour < results.size(); hour++) {
+            Assert.assertEquals(2, results.get(hour).getAggregation().getK());
+            for (Measurement centroid : results.get(hour).getResults()) {
+                Assert.assertEquals(500, (double) centroid.getDatum(WeightedGeoMeasurement.WEIGHT_KEY).get(), 0);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noWindowTest() {
+        ctx.getParameters().remove(AbstractTimeAggregator.WINDOW_PARAM);
+        new WindowedKMeansAggregator().aggregate(dataset, measurements, ctx);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void hierarchyTest() {
+        ctx.getParameters().put(AbstractKMeansAggregator.HIERARCHY_PARAM, "2,4");
+        new WindowedKMeansAggregator().aggregate(dataset, measurements, ctx);
+    }
+}
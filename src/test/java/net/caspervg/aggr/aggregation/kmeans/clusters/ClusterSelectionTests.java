@@ -0,0 +1,35 @@
+package net.caspervg.aggr.aggregation.kmeans.clusters;
+
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class ClusterSelectionTests {
+
+    @Test
+    public void candidatesTest() {
+        Assert.assertArrayEquals(
+                new int[]{50, 59, 71, 84, 100, 119, 141, 168, 200},
+                ClusterSelection.candidates(100, 1, 1000)
+        );
+
+        // Candidates are limited by the minimum and the number of points
+        Assert.assertArrayEquals(new int[]{2, 3, 4}, ClusterSelection.candidates(2, 2, 4));
+        Assert.assertArrayEquals(new int[]{1}, ClusterSelection.candidates(1, 1, 1));
+    }
+
+    @Test
+    public void elbowTest() {
+        SortedMap<Integer, Double> scores = new TreeMap<>();
+        scores.put(2, 1000.0);
+        scores.put(3, 600.0);
+        scores.put(4, 100.0);
+        scores.put(5, 90.0);
+        scores.put(6, 80.0);
+
+        Assert.assertEquals(4, new ElbowScore(DistanceMetricChoice.EUCLIDEAN).best(scores));
+    }
+}
@@ -0,0 +1,49 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import net.caspervg.aggr.ext.TimedGeoMeasurement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class HamerlyEngineTests {
+
+    private Points points;
+    private double[] seeds;
+
+    @Before
+    public void initialize() {
+        // Ten blobs of 1000 points each
+        Random random = new Random(7);
+        List<Measurement> measurements = Lists.newArrayList();
+        for (int i = 0; i < 10000; i++) {
+            Measurement meas = new TimedGeoMeasurement();
+            meas.setVector(new Double[]{
+                    51.0 + (i % 10) * 0.1 + random.nextGaussian() * 0.03,
+                    3.0 + (i % 5) * 0.2 + random.nextGaussian() * 0.03
+            });
+            measurements.add(meas);
+        }
+
+        this.points = Points.of(measurements);
+        this.seeds = Arrays.copyOf(points.getCoords(), 10 * points.dimension());
+    }
+
+    @Test
+    public void sameAsLloydTest() {
+        for (DistanceMetricChoice choice : DistanceMetricChoice.values()) {
+            Clustering lloyd = new LloydEngine(choice).cluster(points, seeds, 20);
+            Clustering hamerly = new HamerlyEngine(choice).cluster(points, seeds, 20);
+
+            Assert.assertArrayEquals(lloyd.getAssignment(), hamerly.getAssignment());
+            Assert.assertArrayEquals(lloyd.getCentroids(), hamerly.getCentroids(), 1e-9);
+            Assert.assertTrue(hamerly.getSkippedDistances() > 0);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class MiniBatchEngineTests {
+
+    private Points points;
+    private double[] seeds;
+
+    @Before
+    public void initialize() {
+        // 20000 points around (51, 3) and 10000 points around (50, 4)
+        Random random = new Random(11);
+        double[] coords = new double[30000 * 2];
+        for (int i = 0; i < 30000; i++) {
+            coords[2 * i] = (i % 3 < 2 ? 51.0 : 50.0) + random.nextGaussian() * 0.01;
+            coords[2 * i + 1] = (i % 3 < 2 ? 3.0 : 4.0) + random.nextGaussian() * 0.01;
+        }
+
+        this.points = new Points(coords, null, 2);
+        this.seeds = new double[]{coords[0], coords[1], coords[4], coords[5]};
+    }
+
+    @Test
+    public void blobsTest() {
+        Clustering clustering = new MiniBatchEngine(DistanceMetricChoice.EUCLIDEAN, 100, new Random(5))
+                .cluster(points, seeds, 20);
+
+        double[] centroids = clustering.getCentroids();
+        Assert.assertEquals(51.0, centroids[0], 0.01);
+        Assert.assertEquals(3.0, centroids[1], 0.01);
+        Assert.assertEquals(50.0, centroids[2], 0.01);
+        Assert.assertEquals(4.0, centroids[3], 0.01);
+
+        // The final pass assigns every point, not just the sampled ones
+        int[] sizes = new int[2];
+        for (int centroid : clustering.getAssignment()) {
+            sizes[centroid]++;
+        }
+        Assert.assertEquals(20000, sizes[0]);
+        Assert.assertEquals(10000, sizes[1]);
+    }
+
+    @Test
+    public void zeroWeightTest() {
+        double[] centroids = {51.0, 3.0};
+        double[] seen = new double[1];
+        Points weighted = new Points(new double[]{50.0, 4.0}, new double[]{0.0}, 2);
+
+        // A point without weight does not move a centroid that has not seen any weight yet
+        new MiniBatchEngine(DistanceMetricChoice.EUCLIDEAN, 1).step(weighted, new int[]{0}, centroids, seen);
+        Assert.assertArrayEquals(new double[]{51.0, 3.0}, centroids, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidBatchTest() {
+        new MiniBatchEngine(DistanceMetricChoice.EUCLIDEAN, 0);
+    }
+}
@@ -0,0 +1,73 @@
+package net.caspervg.aggr.aggregation.kmeans.engine;
+
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class PartialSamplesTests {
+
+    private double[] coords;
+    private double[] keys;
+
+    @Before
+    public void initialize() {
+        // 1000 points around (51, 3)
+        Random random = new Random(7);
+        this.coords = new double[1000 * 2];
+        this.keys = new double[1000];
+        for (int i = 0; i < 1000; i++) {
+            coords[2 * i] = 51.0 + random.nextGaussian() * 0.01;
+            coords[2 * i + 1] = 3.0 + random.nextGaussian() * 0.01;
+            keys[i] = random.nextDouble();
+        }
+    }
+
+    @Test
+    public void medianTest() {
+        PartialSamples samples = new PartialSamples(2, 2, 8);
+        double[] points = new double[]{1, 10, 3, 30, 2, 20, 100, 0};
+        for (int i = 0; i < 4; i++) {
+            samples.add(0, points, 2 * i, i);
+        }
+
+        // Fewer points than the capacity gives the exact median, the second centroid has no points
+        double[] centers = samples.centers(new double[]{0, 0, 7, 7}, CenterUpdate.MEDIAN, null);
+        Assert.assertArrayEquals(new double[]{2.5, 15, 7, 7}, centers, 0.0);
+        Assert.assertEquals(4, samples.count(0));
+        Assert.assertEquals(0, samples.count(1));
+    }
+
+    @Test
+    public void mergeTest() {
+        // Two chunks, merged in both orders, give the same medoid as a single chunk
+        PartialSamples whole = new PartialSamples(1, 2, 64);
+        PartialSamples first = new PartialSamples(1, 2, 64);
+        PartialSamples second = new PartialSamples(1, 2, 64);
+        PartialSamples firstCopy = new PartialSamples(1, 2, 64);
+        PartialSamples secondCopy = new PartialSamples(1, 2, 64);
+        for (int i = 0; i < 1000; i++) {
+            whole.add(0, coords, 2 * i, keys[i]);
+            (i < 300 ? first : second).add(0, coords, 2 * i, keys[i]);
+            (i < 300 ? firstCopy : secondCopy).add(0, coords, 2 * i, keys[i]);
+        }
+
+        double[] previous = new double[]{0, 0};
+        double[] expected = whole.centers(previous, CenterUpdate.MEDOID, DistanceMetricChoice.CHEBYSHEV.getMetric());
+        Assert.assertArrayEquals(
+                expected,
+                first.merge(second).centers(previous, CenterUpdate.MEDOID, DistanceMetricChoice.CHEBYSHEV.getMetric()),
+                0.0
+        );
+        Assert.assertArrayEquals(
+                expected,
+                secondCopy.merge(firstCopy).centers(previous, CenterUpdate.MEDOID, DistanceMetricChoice.CHEBYSHEV.getMetric()),
+                0.0
+        );
+        Assert.assertEquals(1000, first.count(0));
+        Assert.assertEquals(51.0, expected[0], 0.01);
+        Assert.assertEquals(3.0, expected[1], 0.01);
+    }
+}
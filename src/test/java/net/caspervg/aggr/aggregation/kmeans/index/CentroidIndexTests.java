@@ -0,0 +1,92 @@
+package net.caspervg.aggr.aggregation.kmeans.index;
+
+import net.caspervg.aggr.core.distance.DistanceMetric;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class CentroidIndexTests {
+
+    private double[] centroids;
+    private double[] points;
+
+    @Before
+    public void initialize() {
+        Random random = new Random(3);
+
+        // 300 centroids and 2000 points spread over a city
+        this.centroids = new double[300 * 2];
+        for (int i = 0; i < centroids.length; i += 2) {
+            centroids[i] = 51.0 + random.nextDouble() * 0.2;
+            centroids[i + 1] = 3.6 + random.nextDouble() * 0.2;
+        }
+        this.points = new double[2000 * 2];
+        for (int i = 0; i < points.length; i += 2) {
+            points[i] = 51.0 + random.nextDouble() * 0.2;
+            points[i + 1] = 3.6 + random.nextDouble() * 0.2;
+        }
+    }
+
+    @Test
+    public void sameAsLinearTest() {
+        for (DistanceMetricChoice choice : DistanceMetricChoice.values()) {
+            CentroidIndex linear = new LinearIndex(choice.getMetric(), centroids, 2);
+            CentroidIndex index = CentroidIndex.of(choice, centroids, 2);
+            // Without the triangle inequality, only a linear scan is exact
+            Assert.assertEquals(choice.name(), !choice.satisfiesTriangleInequality(), index instanceof LinearIndex);
+
+            long computed = 0;
+            for (int offset = 0; offset < points.length; offset += 2) {
+                Neighbours expected = linear.nearest(points, offset, 2);
+                Neighbours actual = index.nearest(points, offset, 2);
+
+                Assert.assertEquals(linear.nearest(points, offset), index.nearest(points, offset));
+                Assert.assertEquals(expected.getIndex(0), actual.getIndex(0));
+                Assert.assertEquals(expected.getIndex(1), actual.getIndex(1));
+                Assert.assertEquals(expected.getDistance(1), actual.getDistance(1), 0);
+                computed += actual.getComputed();
+            }
+
+            // The tree must skip most of the centroids
+            if (choice.satisfiesTriangleInequality()) {
+                Assert.assertTrue(choice.name(), computed < points.length / 2 * 300 / 2);
+            }
+        }
+    }
+
+    @Test
+    public void smallTest() {
+        double[] few = new double[]{51.0, 3.7, 51.1, 3.7};
+
+        CentroidIndex index = CentroidIndex.of(DistanceMetricChoice.EUCLIDEAN, few, 2);
+        Assert.assertTrue(index instanceof LinearIndex);
+        Assert.assertEquals(1, index.nearest(new double[]{51.09, 3.7}, 0));
+    }
+
+    @Test
+    public void preparedTest() {
+        // The prepared form of a metric gives the same distances as the original vectors
+        for (DistanceMetricChoice choice : DistanceMetricChoice.values()) {
+            DistanceMetric<Double> metric = choice.getMetric();
+            if (!metric.hasPreparedForm()) {
+                continue;
+            }
+            double[] preparedCentroids = metric.prepare(centroids, 2);
+            double[] preparedPoints = metric.prepare(points, 2);
+            int dimension = metric.preparedDimension(2);
+
+            for (int i = 0; i < 2000; i++) {
+                int j = i % 300;
+                Assert.assertEquals(
+                        choice.name(),
+                        metric.distance(centroids, 2 * j, points, 2 * i, 2),
+                        metric.preparedDistance(preparedCentroids, dimension * j, preparedPoints, dimension * i, 2),
+                        1e-6
+                );
+            }
+        }
+    }
+}
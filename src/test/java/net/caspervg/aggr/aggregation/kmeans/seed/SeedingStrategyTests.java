@@ -0,0 +1,99 @@
+package net.caspervg.aggr.aggregation.kmeans.seed;
+
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.kmeans.engine.Points;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.distance.DistanceMetricChoice;
+import net.caspervg.aggr.ext.TimedGeoMeasurement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+public class SeedingStrategyTests {
+
+    private List<Measurement> measurements;
+
+    @Before
+    public void initialize() {
+        // Five blobs of 2000 points each, one of them far away from the others
+        Random random = new Random(17);
+        this.measurements = Lists.newArrayList();
+        for (int i = 0; i < 10000; i++) {
+            int blob = i % 5;
+            Measurement meas = new TimedGeoMeasurement();
+            meas.setVector(new Double[]{
+                    (blob == 4 ? 55.0 : 51.0 + blob * 0.1) + random.nextGaussian() * 0.005,
+                    3.0 + random.nextGaussian() * 0.005
+            });
+            measurements.add(meas);
+        }
+    }
+
+    @Test
+    public void parallelBlobsTest() {
+        // Canberra distances between these blobs are too small compared to the noise
+        for (DistanceMetricChoice choice : EnumSet.complementOf(EnumSet.of(DistanceMetricChoice.CANBERRA))) {
+            Set<Measurement> seeds = new KMeansParallelSeeding(choice, new Random(1)).seeds(measurements, 5);
+
+            // Every blob gets exactly one seed
+            Set<Long> blobs = new HashSet<>();
+            for (Measurement seed : seeds) {
+                double latitude = seed.getVector()[0];
+                blobs.add(latitude > 54 ? 4 : Math.round((latitude - 51.0) * 10));
+            }
+            Assert.assertEquals(choice.name(), 5, blobs.size());
+        }
+    }
+
+    @Test
+    public void parallelFewerMeasurementsTest() {
+        Set<Measurement> seeds = new KMeansParallelSeeding(DistanceMetricChoice.EUCLIDEAN).seeds(measurements.subList(0, 3), 5);
+        Assert.assertEquals(3, seeds.size());
+    }
+
+    @Test
+    public void singlePassTest() {
+        // Too many measurements for a distance matrix of the article
+        Set<Measurement> seeds = new SinglePassSeeding().seeds(measurements, 5);
+        Assert.assertEquals(5, seeds.size());
+
+        // The first seed is a measurement in the middle of the four nearby blobs
+        int[] indices = new SinglePassSeeding().seeds(Points.of(measurements), 5);
+        double latitude = measurements.get(indices[0]).getVector()[0];
+        Assert.assertTrue(latitude > 51.05 && latitude < 51.35);
+    }
+
+    @Test
+    public void singlePassDuplicatesTest() {
+        // Only two distinct measurements
+        List<Measurement> duplicates = Lists.newArrayList();
+        for (int i = 0; i < 50; i++) {
+            duplicates.add(measurements.get(i % 2));
+        }
+
+        Assert.assertEquals(2, new SinglePassSeeding().seeds(duplicates, 5).size());
+    }
+
+    @Test
+    public void kkzTest() {
+        // The first seed has the largest norm, which is in the far blob, the second one is in the blob farthest from it
+        List<Double> latitudes = new ArrayList<>();
+        for (Measurement seed : new KKZSeeding().seeds(measurements, 2)) {
+            latitudes.add(seed.getVector()[0]);
+        }
+        Collections.sort(latitudes);
+
+        Assert.assertEquals(51.0, latitudes.get(0), 0.05);
+        Assert.assertEquals(55.0, latitudes.get(1), 0.05);
+    }
+
+    @Test
+    public void countTest() {
+        for (SeedingChoice choice : SeedingChoice.values()) {
+            Set<Measurement> seeds = choice.getStrategy(DistanceMetricChoice.EUCLIDEAN).seeds(measurements.subList(0, 100), 7);
+            Assert.assertEquals(choice.name(), 7, seeds.size());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package net.caspervg.aggr.aggregation.kmeans.seed;
+
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.distance.DistanceMetric;
+import net.caspervg.aggr.core.distance.EuclideanDistanceMetric;
+import net.caspervg.aggr.ext.TimedGeoMeasurement;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the time and the seed quality (sum of the squared distances of every measurement to its closest seed) of
+ * {@link SinglePassSeeding} with the original implementation, which builds the full distance matrix. The original
+ * needs {@code 8n²} bytes, so it is only run on the smaller sets. Its number of seeds is printed next to its cost,
+ * because its search often finds no new seed.
+ *
+ * Run with {@code java -Xmx2g ... SinglePassSeedingBenchmark [k]}
+ */
+public class SinglePassSeedingBenchmark {
+
+    private static final int[] SIZES = new int[]{1000, 2000, 5000, 10000, 100000, 1000000};
+    private static final int MATRIX_SIZE_LIMIT = 10000;
+
+    private static final DistanceMetric<Double> METRIC = new EuclideanDistanceMetric<>();
+
+    public static void main(String[] args) {
+        int k = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+
+        System.out.println(String.format("%10s %14s %14s %20s %16s", "n", "matrix (ms)", "linear (ms)", "matrix cost", "linear cost"));
+        for (int n : SIZES) {
+            List<Measurement> measurements = blobs(n, k, new Random(n));
+
+            String matrixTime = "-";
+            String matrixCost = "-";
+            if (n <= MATRIX_SIZE_LIMIT) {
+                long start = System.nanoTime();
+                Set<Measurement> seeds = matrixSeeds(measurements, k);
+                matrixTime = String.valueOf((System.nanoTime() - start) / 1000000);
+                matrixCost = String.format("%.4f (%d)", cost(measurements, seeds), seeds.size());
+            }
+
+            long start = System.nanoTime();
+            Set<Measurement> seeds = new SinglePassSeeding().seeds(measurements, k);
+            long linearTime = (System.nanoTime() - start) / 1000000;
+
+            System.out.println(String.format("%10d %14s %14d %20s %16.4f", n, matrixTime, linearTime, matrixCost, cost(measurements, seeds)));
+        }
+    }
+
+    private static List<Measurement> blobs(int n, int k, Random random) {
+        double[][] centers = new double[k][];
+        for (int c = 0; c < k; c++) {
+            centers[c] = new double[]{51.0 + random.nextDouble(), 3.0 + random.nextDouble() * 2};
+        }
+
+        List<Measurement> measurements = Lists.newArrayList();
+        for (int i = 0; i < n; i++) {
+            double[] center = centers[random.nextInt(k)];
+            Measurement meas = new TimedGeoMeasurement();
+            meas.setVector(new Double[]{
+                    center[0] + random.nextGaussian() * 0.02,
+                    center[1] + random.nextGaussian() * 0.02
+            });
+            measurements.add(meas);
+        }
+
+        return measurements;
+    }
+
+    private static double cost(List<Measurement> measurements, Set<Measurement> seeds) {
+        double cost = 0;
+        for (Measurement meas : measurements) {
+            double closest = Double.POSITIVE_INFINITY;
+            for (Measurement seed : seeds) {
+                closest = Math.min(closest, METRIC.distance(seed.getVector(), meas.getVector()));
+            }
+            cost += closest * closest;
+        }
+
+        return cost;
+    }
+
+    /**
+     * Original implementation, with the full distance matrix and a quadratic search for every next seed. The search
+     * gives up after {@code 10k} rounds without a new seed, where the original would loop forever.
+     */
+    private static Set<Measurement> matrixSeeds(List<Measurement> measurementList, int k) {
+        int n = measurementList.size();
+        Set<Measurement> centroids = new HashSet<>();
+
+        double[][] dist = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                dist[i][j] = METRIC.distance(measurementList.get(i).getVector(), measurementList.get(j).getVector());
+            }
+        }
+
+        double[] sumv = new double[n];
+        for (int i = 0; i < n; i++) {
+            double sum = 0;
+            for (int j = 0; j < n; j++) {
+                sum += dist[i][j];
+            }
+            sumv[i] = sum;
+        }
+
+        int index = IntStream.range(0, n)
+                .boxed()
+                .min((o1, o2) -> Double.compare(sumv[o1], sumv[o2]))
+                .get();
+        centroids.add(measurementList.get(index));
+
+        for (int round = 0; centroids.size() < k && round < 10 * k; round++) {
+            double[] d = new double[n];
+            for (int i = 0; i < n; i++) {
+                double smallest = Double.MAX_VALUE;
+                for (Measurement centroid : centroids) {
+                    smallest = Math.min(smallest, METRIC.distance(centroid.getVector(), measurementList.get(i).getVector()));
+                }
+                d[i] = smallest;
+            }
+
+            double[] minv = dist[index].clone();
+            double y = 0;
+            for (int i = 0; i < Math.ceil(n / (double) k); i++) {
+                y += minv[i];
+            }
+
+            for (int i = 0; i < d.length - 1; i++) {
+                double preSum = 0;
+                for (int j = 0; j < i - 1; j++) {
+                    preSum += d[j] * d[j];
+                }
+
+                if (preSum + d[i] * d[i] >= y && y > preSum) {
+                    centroids.add(measurementList.get(i));
+                    break;
+                }
+            }
+        }
+
+        return centroids;
+    }
+}
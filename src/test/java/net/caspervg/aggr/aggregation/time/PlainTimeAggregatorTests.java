@@ -0,0 +1,97 @@
+package net.caspervg.aggr.aggregation.time;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.TimedGeoMeasurement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class PlainTimeAggregatorTests {
+
+    private AggrContext ctx;
+    private Dataset dataset;
+    private List<Measurement> measurements;
+    private LocalDateTime start = LocalDateTime.of(2016, 7, 14, 0, 0, 0);
+
+    @Before
+    public void initialize() {
+        Map<String, String> params = new HashMap<>();
+        params.put(AbstractTimeAggregator.DETAIL_PARAM, "4");
+
+        this.ctx = AggrContext.builder()
+                .parameters(params)
+                .inputClass(TimedGeoMeasurement.class)
+                .outputClass(TimedGeoMeasurement.class)
+                .build();
+        this.dataset = Dataset.Builder.setup().withTitle("time").build();
+
+        // One measurement every hour, for eight hours (inclusive)
+        this.measurements = Lists.newArrayList();
+        for (int hour = 0; hour <= 8; hour++) {
+            Measurement meas = new TimedGeoMeasurement();
+            meas.setVector(new Double[]{51.0 + hour, 3.0});
+            meas.setTimestamp(start.plusHours(hour));
+            measurements.add(meas);
+        }
+    }
+
+    @Test
+    public void levelsTest() {
+        Iterable<AggregationResult<TimeAggregation, Measurement>> results =
+                new PlainTimeAggregator().aggregate(dataset, measurements, ctx);
+
+        // Levels with 1, 2 and 4 buckets
+        Assert.assertEquals(7, Iterables.size(results));
+
+        for (AggregationResult<TimeAggregation, Measurement> result : results) {
+            TimeAggregation aggr = result.getAggregation();
+            long hours = Duration.between(aggr.getStart(), aggr.getEnd()).toHours();
+            int size = Iterables.size(result.getResults());
+
+            if (hours == 8) {
+                Assert.assertEquals(9, size);
+            } else if (hours == 4) {
+                Assert.assertEquals(aggr.getEnd().equals(start.plusHours(8)) ? 5 : 4, size);
+            } else {
+                Assert.assertEquals(2, hours);
+                Assert.assertEquals(aggr.getEnd().equals(start.plusHours(8)) ? 3 : 2, size);
+            }
+
+            for (Measurement child : result.getResults()) {
+                LocalDateTime timestamp = child.getTimestamp().get();
+                Assert.assertFalse(timestamp.isBefore(aggr.getStart()));
+                Assert.assertFalse(timestamp.isAfter(aggr.getEnd()));
+            }
+        }
+    }
+
+    @Test
+    public void childrenTest() {
+        Set<Measurement> children = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (AggregationResult<TimeAggregation, Measurement> result : new PlainTimeAggregator().aggregate(dataset, measurements, ctx)) {
+            Iterables.addAll(children, result.getResults());
+        }
+
+        // Every level has its own copy of the nine measurements
+        Assert.assertEquals(3 * 9, children.size());
+    }
+
+    @Test
+    public void emptyTest() {
+        Assert.assertTrue(Iterables.isEmpty(new PlainTimeAggregator().aggregate(dataset, Lists.newArrayList(), ctx)));
+    }
+}
@@ -0,0 +1,100 @@
+package net.caspervg.aggr.aggregation.time;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import net.caspervg.aggr.aggregation.AggregationResult;
+import net.caspervg.aggr.core.bean.Dataset;
+import net.caspervg.aggr.core.bean.Measurement;
+import net.caspervg.aggr.core.util.AggrContext;
+import net.caspervg.aggr.ext.TimedGeoMeasurement;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+public class StreamingTimeAggregatorTests {
+
+    private AggrContext ctx;
+    private Dataset dataset;
+    private List<Measurement> measurements;
+    private LocalDateTime start = LocalDateTime.of(2016, 7, 14, 0, 0, 0);
+
+    @Before
+    public void initialize() {
+        Map<String, String> params = new HashMap<>();
+        params.put(AbstractTimeAggregator.WINDOW_PARAM, "HOUR");
+        params.put(AbstractTimeAggregator.WINDOW_SIZE_PARAM, "3");
+        params.put(AbstractTimeAggregator.WINDOW_HOP_PARAM, "1");
+
+        this.ctx = AggrContext.builder()
+                .parameters(params)
+                .inputClass(TimedGeoMeasurement.class)
+                .outputClass(TimedGeoMeasurement.class)
+                .build();
+        this.dataset = Dataset.Builder.setup().withTitle("time").build();
+
+        // One measurement every twenty minutes, for ten hours
+        this.measurements = Lists.newArrayList();
+        for (int minutes = 0; minutes < 600; minutes += 20) {
+            Measurement meas = new TimedGeoMeasurement();
+            meas.setVector(new Double[]{51.0, 3.0 + minutes});
+            meas.setTimestamp(start.plusMinutes(minutes));
+            measurements.add(meas);
+        }
+    }
+
+    @Test
+    public void sameWindowsTest() {
+        Map<String, Integer> expected = new HashMap<>();
+        for (AggregationResult<TimeAggregation, Measurement> result : new PlainTimeAggregator().aggregate(dataset, measurements, ctx)) {
+            expected.put(result.getAggregation().getUuid(), Iterables.size(result.getResults()));
+        }
+
+        Map<String, Integer> actual = new HashMap<>();
+        LocalDateTime previousStart = LocalDateTime.MIN;
+        for (AggregationResult<TimeAggregation, Measurement> result : new StreamingTimeAggregator().aggregate(dataset, measurements, ctx)) {
+            Assert.assertTrue(result.getAggregation().getStart().isAfter(previousStart));
+            previousStart = result.getAggregation().getStart();
+            actual.put(result.getAggregation().getUuid(), Iterables.size(result.getResults()));
+        }
+
+        // Ten hours of data touch twelve windows of three hours that start every hour
+        Assert.assertEquals(12, actual.size());
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void lazyTest() {
+        Iterator<Measurement> source = measurements.iterator();
+        int[] consumed = new int[1];
+        Iterable<Measurement> counting = () -> new Iterator<Measurement>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public Measurement next() {
+                consumed[0]++;
+                return source.next();
+            }
+        };
+
+        Iterator<AggregationResult<TimeAggregation, Measurement>> results =
+                new StreamingTimeAggregator().aggregate(dataset, counting, ctx).iterator();
+
+        // The window that starts two hours before the data closes when the first measurement of 01:00 arrives
+        AggregationResult<TimeAggregation, Measurement> first = results.next();
+        Assert.assertEquals(start.minusHours(2), first.getAggregation().getStart());
+        Assert.assertEquals(3, Iterables.size(first.getResults()));
+        Assert.assertEquals(4, consumed[0]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unorderedTest() {
+        Collections.reverse(measurements);
+        Iterables.size(new StreamingTimeAggregator().aggregate(dataset, measurements, ctx));
+    }
+}
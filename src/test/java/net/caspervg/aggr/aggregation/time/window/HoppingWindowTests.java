@@ -0,0 +1,88 @@
+package net.caspervg.aggr.aggregation.time.window;
+
+import net.caspervg.aggr.aggregation.time.AbstractTimeAggregator;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+public class HoppingWindowTests {
+
+    private static final ZoneId BRUSSELS = ZoneId.of("Europe/Brussels");
+
+    @Test
+    public void hourlyTumblingTest() {
+        WindowStrategy window = new TumblingWindow(WindowUnit.HOUR, 1, ZoneOffset.UTC);
+        long time = epochMilli(LocalDateTime.of(2016, 7, 14, 11, 31, 53).atZone(ZoneOffset.UTC));
+
+        long[] starts = window.windowStarts(time);
+        Assert.assertEquals(1, starts.length);
+        Assert.assertEquals(epochMilli(LocalDateTime.of(2016, 7, 14, 11, 0).atZone(ZoneOffset.UTC)), starts[0]);
+        Assert.assertEquals(epochMilli(LocalDateTime.of(2016, 7, 14, 12, 0).atZone(ZoneOffset.UTC)), window.windowEnd(starts[0]));
+    }
+
+    @Test
+    public void dailyAcrossDaylightSavingTest() {
+        WindowStrategy window = new TumblingWindow(WindowUnit.DAY, 1, BRUSSELS);
+
+        // The clocks went forward on March 27th, 2016 in Brussels, so that day only lasts 23 hours
+        long time = epochMilli(LocalDateTime.of(2016, 3, 27, 22, 15).atZone(BRUSSELS));
+        long[] starts = window.windowStarts(time);
+
+        Assert.assertEquals(1, starts.length);
+        Assert.assertEquals(epochMilli(LocalDateTime.of(2016, 3, 27, 0, 0).atZone(BRUSSELS)), starts[0]);
+        Assert.assertEquals(epochMilli(LocalDateTime.of(2016, 3, 28, 0, 0).atZone(BRUSSELS)), window.windowEnd(starts[0]));
+    }
+
+    @Test
+    public void weeklyStartsOnMondayTest() {
+        WindowStrategy window = new TumblingWindow(WindowUnit.WEEK, 1, BRUSSELS);
+        long time = epochMilli(LocalDateTime.of(2016, 7, 14, 11, 31, 53).atZone(BRUSSELS));
+
+        long[] starts = window.windowStarts(time);
+        ZonedDateTime start = ZonedDateTime.ofInstant(Instant.ofEpochMilli(starts[0]), BRUSSELS);
+
+        Assert.assertEquals(1, starts.length);
+        Assert.assertEquals(DayOfWeek.MONDAY, start.getDayOfWeek());
+        Assert.assertEquals(LocalDateTime.of(2016, 7, 11, 0, 0), start.toLocalDateTime());
+    }
+
+    @Test
+    public void hoppingTest() {
+        WindowStrategy window = new HoppingWindow(WindowUnit.HOUR, 3, 1, ZoneOffset.UTC);
+        long time = epochMilli(LocalDateTime.of(2016, 7, 14, 11, 31, 53).atZone(ZoneOffset.UTC));
+
+        long[] starts = window.windowStarts(time);
+        Assert.assertEquals(3, starts.length);
+        for (int i = 0; i < starts.length; i++) {
+            Assert.assertEquals(epochMilli(LocalDateTime.of(2016, 7, 14, 9 + i, 0).atZone(ZoneOffset.UTC)), starts[i]);
+            Assert.assertTrue(starts[i] <= time && time < window.windowEnd(starts[i]));
+        }
+    }
+
+    @Test
+    public void strategyTest() {
+        Map<String, String> params = new HashMap<>();
+        params.put(AbstractTimeAggregator.WINDOW_PARAM, "hour");
+        params.put(AbstractTimeAggregator.WINDOW_SIZE_PARAM, "3");
+
+        // Without a hop, or with a hop equal to the size, the windows do not overlap
+        WindowStrategy tumbling = AbstractTimeAggregator.windowStrategy(params).get();
+        Assert.assertTrue(tumbling instanceof TumblingWindow);
+        Assert.assertEquals(new HoppingWindow(WindowUnit.HOUR, 3, 3, ZoneId.of("UTC")).toString(), tumbling.toString());
+
+        params.put(AbstractTimeAggregator.WINDOW_HOP_PARAM, "1");
+        Assert.assertFalse(AbstractTimeAggregator.windowStrategy(params).get() instanceof TumblingWindow);
+    }
+
+    private long epochMilli(ZonedDateTime dateTime) {
+        return dateTime.toInstant().toEpochMilli();
+    }
+}
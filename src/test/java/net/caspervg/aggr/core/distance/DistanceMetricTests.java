@@ -0,0 +1,74 @@
+package net.caspervg.aggr.core.distance;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DistanceMetricTests {
+
+    @Test
+    public void primitiveTest() {
+        Double[] p = new Double[]{51.05, 3.72};
+        Double[] q = new Double[]{50.85, 4.35};
+        double[] flat = new double[]{0.0, 51.05, 3.72, 50.85, 4.35};
+
+        for (DistanceMetricChoice choice : DistanceMetricChoice.values()) {
+            DistanceMetric<Double> metric = choice.getMetric();
+
+            Assert.assertEquals(choice.name(), metric.distance(p, q), metric.distance(flat, 1, flat, 3, 2), 1e-12);
+        }
+    }
+
+    @Test
+    public void identicalTest() {
+        Double[] p = new Double[]{51.05, 3.72};
+
+        for (DistanceMetricChoice choice : DistanceMetricChoice.values()) {
+            Assert.assertEquals(choice.name(), 0.0, choice.getMetric().distance(p, p), 0.0);
+        }
+    }
+
+    @Test
+    public void geodesicTest() {
+        // Ghent to Brussels is about 49 km, one degree of longitude is only about 70 km at this latitude
+        Double[] ghent = new Double[]{51.05, 3.72};
+        Double[] brussels = new Double[]{50.85, 4.35};
+        Double[] east = new Double[]{51.05, 4.72};
+
+        Assert.assertEquals(49420, DistanceMetricChoice.HAVERSINE.getMetric().distance(ghent, brussels), 100);
+        Assert.assertEquals(69900, DistanceMetricChoice.HAVERSINE.getMetric().distance(ghent, east), 100);
+        Assert.assertEquals(
+                DistanceMetricChoice.HAVERSINE.getMetric().distance(ghent, brussels),
+                DistanceMetricChoice.EQUIRECTANGULAR.getMetric().distance(ghent, brussels),
+                1
+        );
+
+        // Across the antimeridian
+        Assert.assertEquals(
+                DistanceMetricChoice.HAVERSINE.getMetric().distance(new Double[]{0.0, 179.9}, new Double[]{0.0, -179.9}),
+                DistanceMetricChoice.EQUIRECTANGULAR.getMetric().distance(new Double[]{0.0, 179.9}, new Double[]{0.0, -179.9}),
+                1e-3
+        );
+    }
+
+    @Test
+    public void rankTest() {
+        // Ghent, Brussels and Antwerp, ranked from Ghent
+        double[] flat = new double[]{51.05, 3.72, 50.85, 4.35, 51.22, 4.40};
+
+        for (DistanceMetricChoice choice : DistanceMetricChoice.values()) {
+            DistanceMetric<Double> metric = choice.getMetric();
+            double[] prepared = metric.prepare(flat, 2);
+            int dimension = metric.preparedDimension(2);
+
+            double brussels = metric.preparedRank(prepared, 0, prepared, dimension, 2);
+            double antwerp = metric.preparedRank(prepared, 0, prepared, 2 * dimension, 2);
+
+            Assert.assertEquals(choice.name(), metric.distance(flat, 0, flat, 2, 2), metric.rankDistance(brussels), 1e-6);
+            Assert.assertEquals(
+                    choice.name(),
+                    Double.compare(metric.distance(flat, 0, flat, 2, 2), metric.distance(flat, 0, flat, 4, 2)),
+                    Double.compare(brussels, antwerp)
+            );
+        }
+    }
+}
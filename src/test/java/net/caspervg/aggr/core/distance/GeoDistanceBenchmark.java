@@ -0,0 +1,129 @@
+package net.caspervg.aggr.core.distance;
+
+import net.caspervg.aggr.aggregation.kmeans.index.CentroidIndex;
+import net.caspervg.aggr.aggregation.kmeans.index.LinearIndex;
+
+import java.util.Random;
+
+/**
+ * Compares the geodesic metrics with the exact haversine distance.
+ *
+ * The accuracy part prints the largest relative error of the equirectangular approximation, and of the Euclidean
+ * distance between the degrees (scaled to meters along a meridian), for pairs of points at several latitudes and
+ * distances. The speed part assigns a million points to their closest centroid, with and without the prepared form
+ * of the metrics.
+ *
+ * Run with {@code java ... GeoDistanceBenchmark [k]}
+ */
+public class GeoDistanceBenchmark {
+
+    private static final double[] LATITUDES = new double[]{0, 30, 51, 60, 70};
+    private static final double[] DISTANCES = new double[]{100, 1000, 10000, 100000};
+    private static final int PAIRS = 10000;
+    private static final int POINTS = 1000000;
+
+    private static final double METERS_PER_DEGREE = HaversineDistanceMetric.EARTH_RADIUS * Math.PI / 180;
+
+    public static void main(String[] args) {
+        int k = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+
+        accuracy();
+        speed(k);
+    }
+
+    private static void accuracy() {
+        DistanceMetric<Double> haversine = DistanceMetricChoice.HAVERSINE.getMetric();
+        DistanceMetric<Double> equirectangular = DistanceMetricChoice.EQUIRECTANGULAR.getMetric();
+        DistanceMetric<Double> euclidean = DistanceMetricChoice.EUCLIDEAN.getMetric();
+        Random random = new Random(1);
+
+        System.out.println(String.format("%10s %12s %20s %20s", "latitude", "distance", "equirectangular", "planar degrees"));
+        for (double latitude : LATITUDES) {
+            for (double distance : DISTANCES) {
+                double equirectangularError = 0;
+                double planarError = 0;
+                for (int i = 0; i < PAIRS; i++) {
+                    // Second point in a random direction, at roughly the given distance
+                    double bearing = random.nextDouble() * 2 * Math.PI;
+                    double[] pair = new double[]{
+                            latitude, 3.7,
+                            latitude + Math.cos(bearing) * distance / METERS_PER_DEGREE,
+                            3.7 + Math.sin(bearing) * distance / METERS_PER_DEGREE / Math.cos(Math.toRadians(latitude))
+                    };
+
+                    double exact = haversine.distance(pair, 0, pair, 2, 2);
+                    equirectangularError = Math.max(equirectangularError, Math.abs(equirectangular.distance(pair, 0, pair, 2, 2) - exact) / exact);
+                    planarError = Math.max(planarError, Math.abs(euclidean.distance(pair, 0, pair, 2, 2) * METERS_PER_DEGREE - exact) / exact);
+                }
+
+                System.out.println(String.format("%10.0f %12.0f %20.2e %20.2e", latitude, distance, equirectangularError, planarError));
+            }
+        }
+        System.out.println();
+    }
+
+    private static void speed(int k) {
+        Random random = new Random(2);
+        double[] centroids = new double[k * 2];
+        for (int i = 0; i < centroids.length; i += 2) {
+            centroids[i] = 51.0 + random.nextDouble() * 0.2;
+            centroids[i + 1] = 3.6 + random.nextDouble() * 0.2;
+        }
+        double[] points = new double[POINTS * 2];
+        for (int i = 0; i < points.length; i += 2) {
+            points[i] = 51.0 + random.nextDouble() * 0.2;
+            points[i + 1] = 3.6 + random.nextDouble() * 0.2;
+        }
+
+        // Computes the exact haversine formula for every pair
+        DistanceMetric<Double> unprepared = new DistanceMetric<Double>() {
+            private final DistanceMetric<Double> haversine = new HaversineDistanceMetric<>();
+
+            @Override
+            public double distance(Double[] vector1, Double[] vector2) {
+                return haversine.distance(vector1, vector2);
+            }
+
+            @Override
+            public double distance(double[] vectors1, int offset1, double[] vectors2, int offset2, int dimension) {
+                return haversine.distance(vectors1, offset1, vectors2, offset2, dimension);
+            }
+        };
+
+        System.out.println(String.format("%-40s %10s %12s", "nearest of " + k + " centroids", "ms", "agreement"));
+        int[] exact = assign(new LinearIndex(unprepared, centroids, 2), points);
+        time("haversine, linear, unprepared", new LinearIndex(unprepared, centroids, 2), points, exact);
+        time("haversine, linear, prepared", new LinearIndex(DistanceMetricChoice.HAVERSINE.getMetric(), centroids, 2), points, exact);
+        time("haversine, vantage-point tree, prepared", CentroidIndex.of(DistanceMetricChoice.HAVERSINE, centroids, 2), points, exact);
+        time("equirectangular, linear, prepared", CentroidIndex.of(DistanceMetricChoice.EQUIRECTANGULAR, centroids, 2), points, exact);
+        time("euclidean (degrees), linear", new LinearIndex(DistanceMetricChoice.EUCLIDEAN.getMetric(), centroids, 2), points, exact);
+        time("euclidean (degrees), k-d tree", CentroidIndex.of(DistanceMetricChoice.EUCLIDEAN, centroids, 2), points, exact);
+    }
+
+    private static void time(String name, CentroidIndex index, double[] points, int[] exact) {
+        // Warm up
+        assign(index, points);
+
+        long start = System.nanoTime();
+        int[] assignment = assign(index, points);
+        long time = (System.nanoTime() - start) / 1000000;
+
+        int same = 0;
+        for (int i = 0; i < assignment.length; i++) {
+            if (assignment[i] == exact[i]) {
+                same++;
+            }
+        }
+
+        System.out.println(String.format("%-40s %10d %11.4f%%", name, time, 100.0 * same / assignment.length));
+    }
+
+    private static int[] assign(CentroidIndex index, double[] points) {
+        int[] assignment = new int[points.length / 2];
+        for (int i = 0; i < assignment.length; i++) {
+            assignment[i] = index.nearest(points, 2 * i);
+        }
+
+        return assignment;
+    }
+}